@@ -0,0 +1,108 @@
+package com.idevicesinc.sweetblue;
+
+import com.idevicesinc.sweetblue.annotations.Nullable;
+import com.idevicesinc.sweetblue.annotations.Nullable.Prevalence;
+import com.idevicesinc.sweetblue.utils.Interval;
+import com.idevicesinc.sweetblue.utils.Utils;
+
+/**
+ * Tunes how {@link BleManager#connectAll(java.util.List, BleConnectAllOptions, BleManager.ConnectAllListener)} works through a batch of devices.
+ * Configure with the various <code>with*()</code> methods before passing it in - changing it afterwards has undefined results.
+ */
+public class BleConnectAllOptions
+{
+	/**
+	 * Default value for {@link #withConcurrency(int)}.
+	 */
+	public static final int DEFAULT_CONCURRENCY					= 3;
+
+	/**
+	 * Default value for {@link #withAttemptTimeout(Interval)}.
+	 */
+	public static final double DEFAULT_ATTEMPT_TIMEOUT			= 10.0;
+
+	/**
+	 * Decides which devices get to try connecting first.
+	 */
+	public static enum Ordering
+	{
+		/**
+		 * Devices are tried in the order given.
+		 */
+		AS_GIVEN,
+
+		/**
+		 * Devices with the strongest {@link BleDevice#getSmoothedRssi()} are tried first. Devices that were never seen in a scan go last.
+		 */
+		RSSI_FIRST,
+
+		/**
+		 * Devices that most recently became {@link BleDeviceState#INITIALIZED} during this app session are tried first.
+		 */
+		LAST_SUCCESS_FIRST;
+	}
+
+	private int m_concurrency = DEFAULT_CONCURRENCY;
+	private Interval m_attemptTimeout = Interval.secs(DEFAULT_ATTEMPT_TIMEOUT);
+	private Ordering m_ordering = Ordering.RSSI_FIRST;
+
+	/**
+	 * The maximum number of devices that are connecting at once. Note that the native part of connecting still happens one device at a time
+	 * through the task queue, so higher values mostly let service discovery and initialization of one device overlap with connecting the next.
+	 * Values less than one are treated as one.
+	 */
+	public BleConnectAllOptions withConcurrency(final int concurrency)
+	{
+		m_concurrency = Math.max(1, concurrency);
+
+		return this;
+	}
+
+	/**
+	 * How long a single device gets to become {@link BleDeviceState#INITIALIZED}, counted from when its native connect actually starts rather
+	 * than from when it was queued, so slow devices early in the batch don't eat into the time of later ones. A device that runs out of time is
+	 * disconnected and reported as failed. {@link Interval#DISABLED} or <code>null</code> leaves it up to the normal connection timeouts and retries.
+	 */
+	public BleConnectAllOptions withAttemptTimeout(@Nullable(Prevalence.NORMAL) final Interval timeout)
+	{
+		m_attemptTimeout = timeout != null ? timeout : Interval.DISABLED;
+
+		return this;
+	}
+
+	/**
+	 * See {@link Ordering}. Default is {@link Ordering#RSSI_FIRST}.
+	 */
+	public BleConnectAllOptions withOrdering(@Nullable(Prevalence.NORMAL) final Ordering ordering)
+	{
+		m_ordering = ordering != null ? ordering : Ordering.AS_GIVEN;
+
+		return this;
+	}
+
+	int getConcurrency()
+	{
+		return m_concurrency;
+	}
+
+	Interval getAttemptTimeout()
+	{
+		return m_attemptTimeout;
+	}
+
+	Ordering getOrdering()
+	{
+		return m_ordering;
+	}
+
+	@Override public String toString()
+	{
+		return Utils.toString
+		(
+			this.getClass(),
+			"concurrency",			m_concurrency,
+			"attemptTimeout",		m_attemptTimeout,
+			"ordering",				m_ordering
+		);
+	}
+}
@@ -0,0 +1,45 @@
+package com.idevicesinc.sweetblue;
+
+import com.idevicesinc.sweetblue.annotations.Advanced;
+
+/**
+ * Enumeration of the connection intervals you can ask for through {@link BleDevice#requestConnectionPriority(BleConnectionPriority)}
+ * or have applied automatically with {@link BleDeviceConfig#connectionPriority} and {@link BleDeviceConfig#connectionPriorityDuringTransfers}.
+ * A shorter interval means more packets per second but also more radio time, so more battery drain on both ends. What the remote device
+ * actually agrees to is up to it - use {@link BleDevice#getThroughput(BleConnectionPriority)} to see what each setting gets you in practice.
+ * Requires Lollipop (API 21) or higher.
+ */
+@Advanced
+public enum BleConnectionPriority
+{
+	/**
+	 * Longest connection interval, for idle monitoring where saving power matters more than latency. Maps to <code>BluetoothGatt.CONNECTION_PRIORITY_LOW_POWER</code>.
+	 */
+	LOW(2),
+	
+	/**
+	 * What the stack picks by default for every new connection. Maps to <code>BluetoothGatt.CONNECTION_PRIORITY_BALANCED</code>.
+	 */
+	MEDIUM(0),
+	
+	/**
+	 * Shortest connection interval, for {@link BleTransaction.Ota} and other bulk transfers. Maps to <code>BluetoothGatt.CONNECTION_PRIORITY_HIGH</code>.
+	 */
+	HIGH(1);
+	
+	//--- DRK > Literal values of the BluetoothGatt constants, which only exist as of API 21 while we still build against API 19.
+	private final int m_nativeValue;
+	
+	private BleConnectionPriority(final int nativeValue)
+	{
+		m_nativeValue = nativeValue;
+	}
+	
+	/**
+	 * Returns the value passed to <code>BluetoothGatt.requestConnectionPriority(int)</code>.
+	 */
+	public int getNativeValue()
+	{
+		return m_nativeValue;
+	}
+}
@@ -2,8 +2,11 @@ package com.idevicesinc.sweetblue;
 
 import static com.idevicesinc.sweetblue.BleDeviceState.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
@@ -1562,6 +1565,338 @@ public class BleDevice implements UsesCustomNull
 		void onEvent(BondEvent e);
 	}
 
+	/**
+	 * Provide an implementation to {@link BleStreamOptions#withProgressListener(StreamListener)} to find out how a
+	 * {@link BleDevice#writeStream(UUID, InputStream, BleStreamOptions, ReadWriteListener)} is coming along.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Lambda
+	public static interface StreamListener
+	{
+		/**
+		 * Struct passed to {@link StreamListener#onEvent(StreamEvent)}.
+		 */
+		@Immutable
+		public static class StreamEvent
+		{
+			/**
+			 * The device being written to.
+			 */
+			public BleDevice device(){  return m_device;  }
+			private final BleDevice m_device;
+
+			/**
+			 * The characteristic being written to.
+			 */
+			public UUID charUuid(){  return m_charUuid;  }
+			private final UUID m_charUuid;
+
+			/**
+			 * How many bytes the native stack has confirmed taking so far.
+			 */
+			public long bytesSent(){  return m_bytesSent;  }
+			private final long m_bytesSent;
+
+			/**
+			 * The total size of the stream if it's known, otherwise <code>-1</code>.
+			 */
+			public long totalBytes(){  return m_totalBytes;  }
+			private final long m_totalBytes;
+
+			/**
+			 * How long the stream has been going.
+			 */
+			public Interval time(){  return m_time;  }
+			private final Interval m_time;
+
+			StreamEvent(final BleDevice device, final UUID charUuid, final long bytesSent, final long totalBytes, final double time)
+			{
+				m_device = device;
+				m_charUuid = charUuid;
+				m_bytesSent = bytesSent;
+				m_totalBytes = totalBytes;
+				m_time = Interval.secs(time);
+			}
+
+			/**
+			 * Average throughput so far.
+			 */
+			public double bytesPerSecond()
+			{
+				return m_time.secs() > 0.0 ? m_bytesSent / m_time.secs() : 0.0;
+			}
+
+			/**
+			 * Progress from 0 to 1, or <code>-1</code> if {@link #totalBytes()} isn't known.
+			 */
+			public double progress()
+			{
+				return m_totalBytes > 0 ? (double) m_bytesSent / m_totalBytes : -1.0;
+			}
+
+			@Override public String toString()
+			{
+				return Utils.toString
+				(
+					this.getClass(),
+					"device",			device().getName_debug(),
+					"charUuid",			device().getManager().getLogger().charName(charUuid()),
+					"bytesSent",		bytesSent(),
+					"totalBytes",		totalBytes(),
+					"bytesPerSecond",	bytesPerSecond()
+				);
+			}
+		}
+
+		/**
+		 * Called periodically while a stream is going, at every acknowledged checkpoint, and once at the end.
+		 */
+		void onEvent(StreamEvent e);
+	}
+
+	/**
+	 * Provide an implementation to {@link BleDevice#readMany(UUID[], ReadManyListener)} (or overloads) to get all the values
+	 * back in one go.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Lambda
+	public static interface ReadManyListener
+	{
+		/**
+		 * Struct passed to {@link ReadManyListener#onEvent(ReadManyEvent)}.
+		 */
+		@Immutable
+		public static class ReadManyEvent
+		{
+			/**
+			 * The device that was read from.
+			 */
+			public BleDevice device(){  return m_device;  }
+			private final BleDevice m_device;
+
+			/**
+			 * One result per requested characteristic, in the same order they were passed in. Each has its own
+			 * {@link ReadWriteListener.ReadWriteEvent#status()}, so one failed read doesn't hide the values of the others.
+			 */
+			public List<ReadWriteListener.ReadWriteEvent> results(){  return m_results;  }
+			private final List<ReadWriteListener.ReadWriteEvent> m_results;
+
+			/**
+			 * How long the whole batch took, from being queued to the last result.
+			 */
+			public Interval time_total(){  return m_totalTime;  }
+			private final Interval m_totalTime;
+
+			ReadManyEvent(final BleDevice device, final List<ReadWriteListener.ReadWriteEvent> results, final double totalTime)
+			{
+				m_device = device;
+				m_results = results;
+				m_totalTime = Interval.secs(totalTime);
+			}
+
+			/**
+			 * Returns the result for the given characteristic, or <code>null</code> if it wasn't part of the batch.
+			 */
+			public @Nullable(Prevalence.RARE) ReadWriteListener.ReadWriteEvent result(final UUID charUuid)
+			{
+				for( int i = 0; i < m_results.size(); i++ )
+				{
+					if( m_results.get(i).charUuid().equals(charUuid) )  return m_results.get(i);
+				}
+
+				return null;
+			}
+
+			/**
+			 * Convenience to get {@link ReadWriteListener.ReadWriteEvent#data()} of {@link #result(UUID)}, or an empty array if it wasn't part of the batch.
+			 */
+			public byte[] data(final UUID charUuid)
+			{
+				final ReadWriteListener.ReadWriteEvent result = result(charUuid);
+
+				return result != null ? result.data() : EMPTY_BYTE_ARRAY;
+			}
+
+			/**
+			 * Returns <code>true</code> if every read in the batch succeeded.
+			 */
+			public boolean wasSuccess()
+			{
+				for( int i = 0; i < m_results.size(); i++ )
+				{
+					if( !m_results.get(i).wasSuccess() )  return false;
+				}
+
+				return true;
+			}
+
+			@Override public String toString()
+			{
+				return Utils.toString
+				(
+					this.getClass(),
+					"device",			device().getName_debug(),
+					"count",			results().size(),
+					"wasSuccess",		wasSuccess(),
+					"time_total",		time_total()
+				);
+			}
+		}
+
+		/**
+		 * Called once when every read in the batch has either completed or failed.
+		 */
+		void onEvent(ReadManyEvent e);
+	}
+
+	/**
+	 * Provide an implementation to {@link BleDevice#enableNotify(UUID, FrameDecoder, FrameListener, ReadWriteListener)} (or overloads)
+	 * to get whole messages instead of the individual notifications they were split into.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Lambda
+	public static interface FrameListener
+	{
+		/**
+		 * Enumerates the outcomes of reassembling a message, see {@link FrameEvent#status()}.
+		 */
+		public static enum Status
+		{
+			/**
+			 * A complete message is in {@link FrameEvent#data()}.
+			 */
+			SUCCESS,
+
+			/**
+			 * A notification went missing so the message in progress was dropped. See {@link FrameEvent#expectedSequence()} and
+			 * {@link FrameEvent#receivedSequence()}.
+			 */
+			SEQUENCE_GAP,
+
+			/**
+			 * The {@link FrameDecoder} couldn't make sense of the framing, so the message in progress was dropped.
+			 */
+			MALFORMED,
+
+			/**
+			 * The message grew past {@link FrameAssembler#DEFAULT_MAX_FRAME_SIZE} and was dropped.
+			 */
+			TOO_LONG;
+
+			static Status fromFailure(final FrameAssembler.Failure failure)
+			{
+				switch(failure)
+				{
+					case SEQUENCE_GAP:	return SEQUENCE_GAP;
+					case TOO_LONG:		return TOO_LONG;
+					default:			return MALFORMED;
+				}
+			}
+		}
+
+		/**
+		 * Struct passed to {@link FrameListener#onEvent(FrameEvent)}.
+		 */
+		@Immutable
+		public static class FrameEvent
+		{
+			/**
+			 * The device the message came from.
+			 */
+			public BleDevice device(){  return m_device;  }
+			private final BleDevice m_device;
+
+			/**
+			 * The service the characteristic is under, or <code>null</code> if none was given to {@link BleDevice#enableNotify(UUID, FrameDecoder, FrameListener, ReadWriteListener)}.
+			 */
+			public @Nullable(Prevalence.NORMAL) UUID serviceUuid(){  return m_serviceUuid;  }
+			private final UUID m_serviceUuid;
+
+			/**
+			 * The characteristic the message was notified on.
+			 */
+			public UUID charUuid(){  return m_charUuid;  }
+			private final UUID m_charUuid;
+
+			/**
+			 * The whole message with the framing removed, or an empty array if {@link #status()} isn't {@link Status#SUCCESS}.
+			 */
+			public @Nullable(Prevalence.NEVER) byte[] data(){  return m_data;  }
+			private final byte[] m_data;
+
+			/**
+			 * Whether the message made it through.
+			 */
+			public Status status(){  return m_status;  }
+			private final Status m_status;
+
+			/**
+			 * How much of a dropped message had already arrived, or <code>0</code> for {@link Status#SUCCESS}.
+			 */
+			public int droppedBytes(){  return m_droppedBytes;  }
+			private final int m_droppedBytes;
+
+			/**
+			 * For {@link Status#SEQUENCE_GAP}, the fragment number that should have come next, otherwise <code>-1</code>.
+			 */
+			public int expectedSequence(){  return m_expectedSequence;  }
+			private final int m_expectedSequence;
+
+			/**
+			 * For {@link Status#SEQUENCE_GAP}, the fragment number that actually came, otherwise <code>-1</code>.
+			 */
+			public int receivedSequence(){  return m_receivedSequence;  }
+			private final int m_receivedSequence;
+
+			private final FrameAssembler m_assembler;
+
+			FrameEvent(final BleDevice device, final UUID serviceUuid, final UUID charUuid, final byte[] data, final Status status, final int droppedBytes, final int expectedSequence, final int receivedSequence, final FrameAssembler assembler)
+			{
+				m_device = device;
+				m_serviceUuid = serviceUuid;
+				m_charUuid = charUuid;
+				m_data = data;
+				m_status = status;
+				m_droppedBytes = droppedBytes;
+				m_expectedSequence = expectedSequence;
+				m_receivedSequence = receivedSequence;
+				m_assembler = assembler;
+			}
+
+			/**
+			 * Convenience for checking {@link #status()} against {@link Status#SUCCESS}.
+			 */
+			public boolean wasSuccess()
+			{
+				return status() == Status.SUCCESS;
+			}
+
+			/**
+			 * Optionally hands {@link #data()} back so its memory is used for a later message of the same size, which keeps
+			 * a busy stream of messages from creating garbage. Call this at most once, and don't touch {@link #data()} afterwards.
+			 */
+			public void recycle()
+			{
+				m_assembler.recycle(m_data);
+			}
+
+			@Override public String toString()
+			{
+				return Utils.toString
+				(
+					this.getClass(),
+					"device",			device().getName_debug(),
+					"charUuid",			device().getManager().getLogger().charName(charUuid()),
+					"status",			status(),
+					"length",			data().length,
+					"droppedBytes",		droppedBytes()
+				);
+			}
+		}
+
+		/**
+		 * Called on every complete message, and every time one had to be dropped.
+		 */
+		void onEvent(FrameEvent e);
+	}
+
 	/**
 	 * A callback that is used by various overloads of {@link BleDevice#loadHistoricalData()} that accept instances hereof.
 	 * You can also set default listeners on {@link BleDevice#setListener_HistoricalDataLoad(HistoricalDataLoadListener)}
@@ -1806,6 +2141,11 @@ public class BleDevice implements UsesCustomNull
 	private static final ArrayList<UUID> EMPTY_LIST = new ArrayList<UUID>();
 
 	static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+	private static final byte[] STREAM_PLACEHOLDER = new byte[1];
+
+	//--- DRK > Lower bound on adaptive undiscovery time so that Android's own scan result throttling doesn't cause
+	//---		fast advertisers to flap between undiscovered and rediscovered.
+	private static final double MIN_ADAPTIVE_UNDISCOVERY_KEEP_ALIVE = 1.0;
 
 	final Object m_threadLock = new Object();
 
@@ -1813,24 +2153,38 @@ public class BleDevice implements UsesCustomNull
 
 	private double m_timeSinceLastDiscovery;
 	private EpochTime m_lastDiscoveryTime = EpochTime.NULL;
-
-	final P_BleDevice_Listeners m_listeners;
-	private final P_ServiceManager m_serviceMngr;
+	private final IntervalEstimator m_advertisingIntervalEstimator = new IntervalEstimator();
+
+	//--- DRK > RSSI aggregation for BleDeviceConfig#rediscoveryThrottle, the window in progress and the last one reported.
+	private long m_lastRediscoveryReportTime = 0;
+	private long m_rssiWindow_sum = 0;
+	private int m_rssiWindow_max = 0;
+	private int m_rssiWindow_count = 0;
+	private double m_rssiMean = 0.0;
+	private int m_rssiMax = 0;
+	private int m_rssiSampleCount = 0;
+
+	//--- DRK > Everything below that isn't final is only needed once the app actually tries to talk to the device,
+	//---		so it's created lazily in promote() to keep advertisement-only devices cheap when scanning busy environments.
+	private volatile boolean m_promoted = false;
+
+	private P_BleDevice_Listeners m_listeners;
+	private P_ServiceManager m_serviceMngr;
 	private final P_DeviceStateTracker m_stateTracker;
-	private final P_DeviceStateTracker m_stateTracker_shortTermReconnect;
-	private final P_PollManager m_pollMngr;
+	private P_DeviceStateTracker m_stateTracker_shortTermReconnect;
+	private P_PollManager m_pollMngr;
 
 	private final BleManager m_mngr;
 	private final P_Logger m_logger;
 	private final P_TaskQueue m_queue;
-	final P_TransactionManager m_txnMngr;
-	private final P_ReconnectManager m_reconnectMngr_longTerm;
-	private final P_ReconnectManager m_reconnectMngr_shortTerm;
+	private P_TransactionManager m_txnMngr;
+	private P_ReconnectManager m_reconnectMngr_longTerm;
+	private P_ReconnectManager m_reconnectMngr_shortTerm;
 	private final P_ConnectionFailManager m_connectionFailMngr;
-	private final P_RssiPollManager m_rssiPollMngr;
-	private final P_RssiPollManager m_rssiPollMngr_auto;
-	private final P_Task_Disconnect m_dummyDisconnectTask;
-	private final P_HistoricalDataManager m_historicalDataMngr;
+	private P_RssiPollManager m_rssiPollMngr;
+	private P_RssiPollManager m_rssiPollMngr_auto;
+	private P_Task_Disconnect m_dummyDisconnectTask;
+	private P_HistoricalDataManager m_historicalDataMngr;
 	final P_BondManager m_bondMngr;
 
 	private ReadWriteListener m_defaultReadWriteListener = null;
@@ -1838,11 +2192,57 @@ public class BleDevice implements UsesCustomNull
 	private TimeEstimator m_writeTimeEstimator;
 	private TimeEstimator m_readTimeEstimator;
 
-	private final PA_Task.I_StateListener m_taskStateListener;
-
 	private final BleDeviceOrigin m_origin;
 
 	private int m_rssi = 0;
+
+	/**
+	 * A value computed from the smoothed RSSI, along with the inputs it was computed from. Never mutated, so it can be
+	 * swapped in and read from different threads without locking.
+	 */
+	private static class RssiDerivedValue<T>
+	{
+		private final double m_rssi;
+		private final int m_param1;
+		private final int m_param2;
+		private final T m_value;
+
+		RssiDerivedValue(final double rssi, final int param1, final int param2, final T value)
+		{
+			m_rssi = rssi;
+			m_param1 = param1;
+			m_param2 = param2;
+			m_value = value;
+		}
+
+		boolean isFor(final double rssi, final int param1, final int param2)
+		{
+			return m_rssi == rssi && m_param1 == param1 && m_param2 == param2;
+		}
+	}
+
+	//--- DRK > Smoothed RSSI and values derived from it. Derived values are cached along with the inputs they were
+	//---		computed from, so getters are just field reads until a new sample arrives or the config changes.
+	//---		Samples come in on the update thread while getters are called from anywhere, hence volatile and immutable caches.
+	private BleDeviceConfig.RssiFilterMode m_rssiFilterMode = BleDeviceConfig.RssiFilterMode.NONE;
+	private RssiFilter m_rssiFilter = null;
+	private volatile double m_rssi_smoothed = 0.0;
+	final P_ProximityIndex.Key m_proximityKey = new P_ProximityIndex.Key();
+	P_RegionManager.DeviceState m_regionState = null;
+	long m_scanSessionMask = 0;
+	int m_scanSessionVersion = -1;
+	long m_connectionSlotActivity = 0;
+	long m_lastInitializedTime = 0;
+	private int m_mtu = BleDeviceConfig.DEFAULT_MTU_SIZE;
+	private BleConnectionPriority m_connectionPriority = BleConnectionPriority.MEDIUM;
+	private BleConnectionPriority m_connectionPriority_requested = BleConnectionPriority.MEDIUM;
+	private BleConnectionPriority m_connectionPriority_explicit = null;
+	private int m_activeStreamCount = 0;
+	//--- DRK > Bytes moved by successful reads and writes and the seconds spent moving them, indexed by BleConnectionPriority#ordinal().
+	private final long[] m_throughputBytes = new long[BleConnectionPriority.values().length];
+	private final double[] m_throughputTime = new double[BleConnectionPriority.values().length];
+	private volatile RssiDerivedValue<Distance> m_distance_cached = null;
+	private volatile RssiDerivedValue<Percent> m_rssiPercent_cached = null;
 	private Integer m_knownTxPower = null;
 	private List<UUID> m_advertisedServices = EMPTY_LIST;
 	private byte[] m_scanRecord = EMPTY_BYTE_ARRAY;
@@ -1892,7 +2292,6 @@ public class BleDevice implements UsesCustomNull
 			stateTracker().set(E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE, BleDeviceState.NULL, true);
 			m_pollMngr = new P_PollManager(this);
 			m_txnMngr = new P_TransactionManager(this);
-			m_taskStateListener = null;
 			m_reconnectMngr_longTerm = null;
 			m_reconnectMngr_shortTerm = null;
 			m_connectionFailMngr = new P_ConnectionFailManager(this);
@@ -1901,29 +2300,57 @@ public class BleDevice implements UsesCustomNull
 		}
 		else
 		{
-			m_rssiPollMngr = new P_RssiPollManager(this);
-			m_rssiPollMngr_auto = new P_RssiPollManager(this);
 			setConfig(config_nullable);
 			m_nativeWrapper = new P_NativeDeviceWrapper(this, device_native, name_normalized, name_native);
 			m_queue = m_mngr != null ? m_mngr.getTaskQueue() : null;
-			m_listeners = new P_BleDevice_Listeners(this);
 			m_logger = m_mngr != null ? m_mngr.getLogger() : null;
-			m_serviceMngr = new P_ServiceManager(this);
 			m_stateTracker = new P_DeviceStateTracker(this, /*forShortTermReconnect=*/false);
-			m_stateTracker_shortTermReconnect = new P_DeviceStateTracker(this, /*forShortTermReconnect=*/true);
 			m_bondMngr = new P_BondManager(this);
 			stateTracker().set(E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE, BleDeviceState.UNDISCOVERED, true, BleDeviceState.DISCONNECTED, true, m_bondMngr.getNativeBondingStateOverrides());
+			m_connectionFailMngr = new P_ConnectionFailManager(this);
+		}
+	}
+
+	/**
+	 * Creates everything a device needs to connect, read, write, poll, etc. Until this is called the device is just
+	 * a lightweight record of its advertisements. Called automatically the first time any of those things are needed.
+	 */
+	void promote()
+	{
+		if( m_promoted || m_isNull )  return;
+
+		synchronized (m_threadLock)
+		{
+			if( m_promoted )  return;
+
+			m_listeners = new P_BleDevice_Listeners(this);
+			m_serviceMngr = new P_ServiceManager(this);
+			m_stateTracker_shortTermReconnect = new P_DeviceStateTracker(this, /*forShortTermReconnect=*/true);
+			m_stateTracker_shortTermReconnect.sync(stateTracker_main());
 			m_pollMngr = new P_PollManager(this);
 			m_txnMngr = new P_TransactionManager(this);
-			m_taskStateListener = m_listeners.m_taskStateListener;
 			m_reconnectMngr_longTerm = new P_ReconnectManager(this, /*isShortTerm=*/false);
 			m_reconnectMngr_shortTerm = new P_ReconnectManager(this, /*isShortTerm=*/true);
-			m_connectionFailMngr = new P_ConnectionFailManager(this);
+			m_rssiPollMngr = new P_RssiPollManager(this);
+			m_rssiPollMngr_auto = new P_RssiPollManager(this);
 			m_dummyDisconnectTask = new P_Task_Disconnect(this, null, /*explicit=*/false, PE_TaskPriority.FOR_EXPLICIT_BONDING_AND_CONNECTING, /*cancellable=*/true);
 			m_historicalDataMngr = new P_HistoricalDataManager(this);
+
+			m_promoted = true;
+
+			initEstimators();
+			initAutoRssiPoll();
 		}
 	}
 
+	/**
+	 * Returns whether {@link #promote()} has been called, i.e. whether this device has ever been asked to do more than advertise.
+	 */
+	boolean isPromoted()
+	{
+		return m_promoted;
+	}
+
 	void notifyOfPossibleImplicitBondingAttempt()
 	{
 		m_underwentPossibleImplicitBondingAttempt = true;
@@ -1936,7 +2363,11 @@ public class BleDevice implements UsesCustomNull
 
 	void stateTracker_updateBoth(E_Intent intent, int status, Object ... statesAndValues)
 	{
-		m_stateTracker_shortTermReconnect.update(intent, status, statesAndValues);
+		if( m_stateTracker_shortTermReconnect != null )
+		{
+			m_stateTracker_shortTermReconnect.update(intent, status, statesAndValues);
+		}
+
 		stateTracker_main().update(intent, status, statesAndValues);
 	}
 
@@ -1944,7 +2375,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if (stateTracker_main().checkBitMatch(BleDeviceState.RECONNECTING_SHORT_TERM, true))
 		{
-			return m_stateTracker_shortTermReconnect;
+			return stateTracker_shortTermReconnect();
 		}
 		else
 		{
@@ -1956,14 +2387,70 @@ public class BleDevice implements UsesCustomNull
 	{
 		if (stateTracker_main().checkBitMatch(BleDeviceState.RECONNECTING_SHORT_TERM, true))
 		{
-			return m_reconnectMngr_shortTerm;
+			return reconnectMngr_shortTerm();
 		}
 		else
 		{
-			return m_reconnectMngr_longTerm;
+			return reconnectMngr_longTerm();
 		}
 	}
 
+	private P_DeviceStateTracker stateTracker_shortTermReconnect()
+	{
+		promote();
+
+		return m_stateTracker_shortTermReconnect;
+	}
+
+	private P_ReconnectManager reconnectMngr_longTerm()
+	{
+		promote();
+
+		return m_reconnectMngr_longTerm;
+	}
+
+	private P_ReconnectManager reconnectMngr_shortTerm()
+	{
+		promote();
+
+		return m_reconnectMngr_shortTerm;
+	}
+
+	private P_RssiPollManager rssiPollMngr()
+	{
+		promote();
+
+		return m_rssiPollMngr;
+	}
+
+	private P_RssiPollManager rssiPollMngr_auto()
+	{
+		promote();
+
+		return m_rssiPollMngr_auto;
+	}
+
+	private P_Task_Disconnect dummyDisconnectTask()
+	{
+		promote();
+
+		return m_dummyDisconnectTask;
+	}
+
+	private P_HistoricalDataManager historicalDataMngr()
+	{
+		promote();
+
+		return m_historicalDataMngr;
+	}
+
+	P_TransactionManager txnMngr()
+	{
+		promote();
+
+		return m_txnMngr;
+	}
+
 	private void clear_discovery()
 	{
 		// clear_common();
@@ -1983,6 +2470,7 @@ public class BleDevice implements UsesCustomNull
 		// clear_common();
 
 		m_lastDiscoveryTime = EpochTime.NULL;
+		m_advertisingIntervalEstimator.breakSequence();
 	}
 
 	/**
@@ -1995,8 +2483,6 @@ public class BleDevice implements UsesCustomNull
 
 		m_config = config_nullable == null ? null : config_nullable.clone();
 
-		initEstimators();
-
 		//--- DRK > Not really sure how this config option should be
 		// interpreted, but here's a first stab for now.
 		//--- Fringe enough use case that I don't think it's really a big deal.
@@ -2010,6 +2496,16 @@ public class BleDevice implements UsesCustomNull
 			m_alwaysUseAutoConnect = false;
 		}
 
+		//--- DRK > Otherwise promote() takes care of these.
+		if( m_promoted )
+		{
+			initEstimators();
+			initAutoRssiPoll();
+		}
+	}
+
+	private void initAutoRssiPoll()
+	{
 		final Interval autoRssiPollRate = BleDeviceConfig.interval(conf_device().rssiAutoPollRate, conf_mngr().rssiAutoPollRate);
 
 		if (!m_rssiPollMngr.isRunning() && !Interval.isDisabled(autoRssiPollRate))
@@ -2160,7 +2656,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() )  return;
 
-		m_historicalDataMngr.setListener(listener_nullable);
+		historicalDataMngr().setListener(listener_nullable);
 	}
 
 	/**
@@ -2172,68 +2668,233 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() )  return 0;
 
-		return m_connectionFailMngr.getRetryCount();
+		return m_connectionFailMngr.getRetryCount();
+	}
+
+	/**
+	 * Returns the bitwise state mask representation of {@link BleDeviceState} for this device.
+	 *
+	 * @see BleDeviceState
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public int getStateMask()
+	{
+		return stateTracker_main().getState();
+	}
+
+	/**
+	 * Returns the actual native state mask representation of the {@link BleDeviceState} for this device.
+	 * The main purpose of this is to reflect what's going on under the hood while {@link BleDevice#is(BleDeviceState)}
+	 * with {@link BleDeviceState#RECONNECTING_SHORT_TERM} is <code>true</code>.
+	 */
+	@Advanced
+	public int getNativeStateMask()
+	{
+		return stateTracker().getState();
+	}
+
+	/**
+	 * See similar explanation for {@link #getAverageWriteTime()}.
+	 *
+	 * @see #getAverageWriteTime()
+	 * @see BleManagerConfig#nForAverageRunningReadTime
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public Interval getAverageReadTime()
+	{
+		return m_readTimeEstimator != null ? Interval.secs(m_readTimeEstimator.getRunningAverage()) : Interval.ZERO;
+	}
+
+	/**
+	 * Returns the average round trip time in seconds for all write operations started with {@link #write(UUID, byte[])} or
+	 * {@link #write(UUID, byte[], ReadWriteListener)}. This is a running average with N being defined by
+	 * {@link BleManagerConfig#nForAverageRunningWriteTime}. This may be useful for estimating how long a series of
+	 * reads and/or writes will take. For example for displaying the estimated time remaining for a firmware update.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public Interval getAverageWriteTime()
+	{
+		return m_writeTimeEstimator != null ? Interval.secs(m_writeTimeEstimator.getRunningAverage()) : Interval.ZERO;
+	}
+
+	/**
+	 * Returns the MTU negotiated for the current connection because of {@link BleDeviceConfig#mtuSize}, or {@link BleDeviceConfig#DEFAULT_MTU_SIZE}
+	 * if no negotiation happened or it failed. Goes back to the default on disconnect.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public int getMtu()
+	{
+		return m_mtu;
+	}
+
+	void updateMtu(final int mtu)
+	{
+		m_mtu = mtu;
+	}
+
+	/**
+	 * Asks for a shorter or longer connection interval, see {@link BleConnectionPriority}. The choice is remembered and requested again
+	 * every time the device becomes {@link BleDeviceState#INITIALIZED}, overriding {@link BleDeviceConfig#connectionPriority}. While a
+	 * transfer covered by {@link BleDeviceConfig#connectionPriorityDuringTransfers} is under way that setting wins, and this one is
+	 * applied once the transfer is over.
+	 *
+	 * @return <code>false</code> if the device isn't {@link BleDeviceState#CONNECTED} or the OS is below Lollipop (API 21), in which
+	 * case nothing is sent for now. The priority is still remembered for later connections.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public boolean requestConnectionPriority(final BleConnectionPriority priority)
+	{
+		if( isNull() || priority == null )  return false;
+
+		m_connectionPriority_explicit = priority;
+
+		if( android.os.Build.VERSION.SDK_INT < 21 || !is(CONNECTED) )  return false;
+
+		updateConnectionPriority(txnMngr().getCurrent());
+
+		return true;
+	}
+
+	/**
+	 * Returns the {@link BleConnectionPriority} last requested successfully for the current connection. Goes back to
+	 * {@link BleConnectionPriority#MEDIUM}, the stack's default, on disconnect.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public BleConnectionPriority getConnectionPriority()
+	{
+		return m_connectionPriority;
+	}
+
+	/**
+	 * Returns the average throughput in bytes per second of all successful reads, writes, and streams that completed while the device
+	 * was at the given {@link BleConnectionPriority}, or <code>0.0</code> if there weren't any yet. Time is measured from when each
+	 * operation started executing, so time spent waiting in the queue doesn't count. Kept across connections, so comparing for example
+	 * {@link BleConnectionPriority#HIGH} against {@link BleConnectionPriority#MEDIUM} shows what {@link BleDeviceConfig#connectionPriorityDuringTransfers}
+	 * buys you for a {@link BleTransaction.Ota}.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public double getThroughput(final BleConnectionPriority priority)
+	{
+		if( priority == null )  return 0.0;
+
+		synchronized (m_throughputBytes)
+		{
+			final double time = m_throughputTime[priority.ordinal()];
+
+			return time > 0.0 ? m_throughputBytes[priority.ordinal()] / time : 0.0;
+		}
+	}
+
+	void addTransferredBytes(final long bytes, final double seconds)
+	{
+		if( bytes <= 0 || seconds <= 0.0 )  return;
+
+		final int index = m_connectionPriority.ordinal();
+
+		synchronized (m_throughputBytes)
+		{
+			m_throughputBytes[index] += bytes;
+			m_throughputTime[index] += seconds;
+		}
+	}
+
+	void onConnectionPriorityChanged(final BleConnectionPriority priority)
+	{
+		m_connectionPriority = priority;
+	}
+
+	void onConnectionPriorityRequestFailed()
+	{
+		m_connectionPriority_requested = m_connectionPriority;
+	}
+
+	void onStreamQueued()
+	{
+		m_activeStreamCount++;
+
+		updateConnectionPriority(txnMngr().getCurrent());
+	}
+
+	void onStreamEnded()
+	{
+		m_activeStreamCount = Math.max(0, m_activeStreamCount - 1);
+
+		updateConnectionPriority(txnMngr().getCurrent());
+	}
+
+	/**
+	 * Queues a {@link P_Task_RequestConnectionPriority} if what {@link BleDeviceConfig#connectionPriority}, {@link BleDeviceConfig#connectionPriorityDuringTransfers},
+	 * and {@link #requestConnectionPriority(BleConnectionPriority)} say the device should be at differs from what was last asked for.
+	 * Called whenever one of the inputs changes, i.e. explicit requests, {@link BleDeviceState#PERFORMING_OTA} coming and going, streams
+	 * starting and ending, and initialization.
+	 */
+	void updateConnectionPriority(final BleTransaction txn_nullable)
+	{
+		if( android.os.Build.VERSION.SDK_INT < 21 || !is(CONNECTED) )  return;
+
+		final BleConnectionPriority duringTransfers = BleDeviceConfig.filter(conf_device().connectionPriorityDuringTransfers, conf_mngr().connectionPriorityDuringTransfers);
+		final boolean transferring = duringTransfers != null && (is(PERFORMING_OTA) || m_activeStreamCount > 0);
+		final BleConnectionPriority target = transferring ? duringTransfers : getIdleConnectionPriority();
+
+		if( target == m_connectionPriority_requested )  return;
+
+		m_connectionPriority_requested = target;
+
+		m_queue.add(new P_Task_RequestConnectionPriority(this, target, txn_nullable, getOverrideReadWritePriority()));
 	}
 
-	/**
-	 * Returns the bitwise state mask representation of {@link BleDeviceState} for this device.
-	 *
-	 * @see BleDeviceState
-	 */
-	@com.idevicesinc.sweetblue.annotations.Advanced
-	public int getStateMask()
+	private BleConnectionPriority getIdleConnectionPriority()
 	{
-		return stateTracker_main().getState();
+		if( m_connectionPriority_explicit != null )  return m_connectionPriority_explicit;
+
+		final BleConnectionPriority idle = BleDeviceConfig.filter(conf_device().connectionPriority, conf_mngr().connectionPriority);
+
+		return idle != null ? idle : BleConnectionPriority.MEDIUM;
 	}
 
 	/**
-	 * Returns the actual native state mask representation of the {@link BleDeviceState} for this device.
-	 * The main purpose of this is to reflect what's going on under the hood while {@link BleDevice#is(BleDeviceState)}
-	 * with {@link BleDeviceState#RECONNECTING_SHORT_TERM} is <code>true</code>.
+	 * Returns the raw RSSI retrieved from when the device was discovered,
+	 * rediscovered, or when you call {@link #readRssi()} or {@link #startRssiPoll(Interval)}.
+	 *
+	 * @see #getDistance()
 	 */
-	@Advanced
-	public int getNativeStateMask()
+	public int getRssi()
 	{
-		return stateTracker().getState();
+		return m_rssi;
 	}
 
 	/**
-	 * See similar explanation for {@link #getAverageWriteTime()}.
-	 *
-	 * @see #getAverageWriteTime()
-	 * @see BleManagerConfig#nForAverageRunningReadTime
+	 * Returns the mean RSSI of the advertisements received during the most recent rediscovery window,
+	 * see {@link BleDeviceConfig#rediscoveryThrottle}. If throttling is disabled this is the same as {@link #getRssi()}
+	 * at the time of the last {@link BleManager.DiscoveryListener.LifeCycle#REDISCOVERED} event.
 	 */
 	@com.idevicesinc.sweetblue.annotations.Advanced
-	public Interval getAverageReadTime()
+	public double getRssiMean()
 	{
-		return m_readTimeEstimator != null ? Interval.secs(m_readTimeEstimator.getRunningAverage()) : Interval.ZERO;
+		return m_rssiMean;
 	}
 
 	/**
-	 * Returns the average round trip time in seconds for all write operations started with {@link #write(UUID, byte[])} or
-	 * {@link #write(UUID, byte[], ReadWriteListener)}. This is a running average with N being defined by
-	 * {@link BleManagerConfig#nForAverageRunningWriteTime}. This may be useful for estimating how long a series of
-	 * reads and/or writes will take. For example for displaying the estimated time remaining for a firmware update.
+	 * Returns the strongest RSSI of the advertisements received during the most recent rediscovery window,
+	 * see {@link BleDeviceConfig#rediscoveryThrottle}.
 	 */
 	@com.idevicesinc.sweetblue.annotations.Advanced
-	public Interval getAverageWriteTime()
+	public int getRssiMax()
 	{
-		return m_writeTimeEstimator != null ? Interval.secs(m_writeTimeEstimator.getRunningAverage()) : Interval.ZERO;
+		return m_rssiMax;
 	}
 
 	/**
-	 * Returns the raw RSSI retrieved from when the device was discovered,
-	 * rediscovered, or when you call {@link #readRssi()} or {@link #startRssiPoll(Interval)}.
-	 *
-	 * @see #getDistance()
+	 * Returns how many advertisements were aggregated into {@link #getRssiMean()} and {@link #getRssiMax()}.
 	 */
-	public int getRssi()
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public int getRssiSampleCount()
 	{
-		return m_rssi;
+		return m_rssiSampleCount;
 	}
 
 	/**
-	 * Raw RSSI from {@link #getRssi()} is a little cryptic, so this gives you a friendly 0%-100% value for signal strength.
+	 * RSSI from {@link #getSmoothedRssi()} is a little cryptic, so this gives you a friendly 0%-100% value for signal strength.
 	 */
 	public Percent getRssiPercent()
 	{
@@ -2245,14 +2906,24 @@ public class BleDevice implements UsesCustomNull
 		{
 			final int rssi_min = BleDeviceConfig.integer(conf_device().rssi_min, conf_mngr().rssi_min, BleDeviceConfig.DEFAULT_RSSI_MIN);
 			final int rssi_max = BleDeviceConfig.integer(conf_device().rssi_max, conf_mngr().rssi_max, BleDeviceConfig.DEFAULT_RSSI_MAX);
-			final double percent = Utils_Rssi.percent(getRssi(), rssi_min, rssi_max);
+			final double rssi = m_rssi_smoothed;
+			final RssiDerivedValue<Percent> cached = m_rssiPercent_cached;
+
+			if( cached != null && cached.isFor(rssi, rssi_min, rssi_max) )
+			{
+				return cached.m_value;
+			}
+
+			final Percent percent = Percent.fromDouble_clamped(Utils_Rssi.percent(rssi, rssi_min, rssi_max));
+
+			m_rssiPercent_cached = new RssiDerivedValue<Percent>(rssi, rssi_min, rssi_max, percent);
 
-			return Percent.fromDouble_clamped(percent);
+			return percent;
 		}
 	}
 
 	/**
-	 * Returns the approximate distance in meters based on {@link #getRssi()} and
+	 * Returns the approximate distance in meters based on {@link #getSmoothedRssi()} and
 	 * {@link #getTxPower()}. NOTE: the higher the distance, the less the accuracy.
 	 */
 	public Distance getDistance()
@@ -2263,10 +2934,59 @@ public class BleDevice implements UsesCustomNull
 		}
 		else
 		{
-			return Distance.meters(Utils_Rssi.distance(getTxPower(), getRssi()));
+			final int txPower = getTxPower();
+			final double rssi = m_rssi_smoothed;
+			final RssiDerivedValue<Distance> cached = m_distance_cached;
+
+			if( cached != null && cached.isFor(rssi, txPower, 0) )
+			{
+				return cached.m_value;
+			}
+
+			final Distance distance = Distance.meters(Utils_Rssi.distance(txPower, rssi));
+
+			m_distance_cached = new RssiDerivedValue<Distance>(rssi, txPower, 0, distance);
+
+			return distance;
 		}
 	}
 
+	/**
+	 * Returns {@link #getRssi()} smoothed over time according to {@link BleDeviceConfig#rssiFilterMode}.
+	 * This is what {@link #getDistance()} and {@link #getRssiPercent()} are based on.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public double getSmoothedRssi()
+	{
+		return m_rssi_smoothed;
+	}
+
+	/**
+	 * Returns the estimated average time between advertisements from this device, learned as it's
+	 * {@link BleManager.DiscoveryListener.LifeCycle#REDISCOVERED} while scanning. Returns {@link Interval#ZERO} until
+	 * enough advertisements have been seen to make an estimate.
+	 * <br><br>
+	 * NOTE: This is the interval as seen by the phone, which may be longer than the device's actual advertising interval
+	 * depending on how aggressively the phone's scan duty-cycles.
+	 *
+	 * @see #getAdvertisingIntervalDeviation()
+	 * @see BleDeviceConfig#undiscoveryMissedAdvertisementCount
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public Interval getAdvertisingInterval()
+	{
+		return m_advertisingIntervalEstimator.isReady() ? Interval.secs(m_advertisingIntervalEstimator.getMean()) : Interval.ZERO;
+	}
+
+	/**
+	 * Returns the standard deviation of {@link #getAdvertisingInterval()}, or {@link Interval#ZERO} if there's no estimate yet.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public Interval getAdvertisingIntervalDeviation()
+	{
+		return m_advertisingIntervalEstimator.isReady() ? Interval.secs(m_advertisingIntervalEstimator.getStandardDeviation()) : Interval.ZERO;
+	}
+
 	/**
 	 * Returns the calibrated transmission power of the device. If this can't be
 	 * figured out from the device itself then it backs up to the value provided
@@ -2315,6 +3035,11 @@ public class BleDevice implements UsesCustomNull
 		return m_advertisedServices.toArray(toReturn);
 	}
 
+	List<UUID> getAdvertisedServices_internal()
+	{
+		return m_advertisedServices;
+	}
+
 	/**
 	 * Returns whether the device is in any of the provided states.
 	 *
@@ -2640,9 +3365,12 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public @Nullable(Prevalence.NORMAL) BluetoothGattCharacteristic getNativeCharacteristic(final UUID characteristicUuid)
 	{
+		//--- DRK > Devices only seen through advertisements haven't discovered any services, so no reason to promote them just to find that out.
+		if( !m_promoted )  return null;
+
 		final UUID serviceUuid = null;
 
-		final P_Characteristic characteristic = m_serviceMngr.getCharacteristic(serviceUuid, characteristicUuid);
+		final P_Characteristic characteristic = getServiceManager().getCharacteristic(serviceUuid, characteristicUuid);
 
 		if (characteristic == null)  return null;
 
@@ -2655,7 +3383,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public @Nullable(Prevalence.NORMAL) BluetoothGattCharacteristic getNativeCharacteristic(final UUID serviceUuid, final UUID characteristicUuid)
 	{
-		final P_Characteristic characteristic = m_serviceMngr.getCharacteristic(serviceUuid, characteristicUuid);
+		if( !m_promoted )  return null;
+
+		final P_Characteristic characteristic = getServiceManager().getCharacteristic(serviceUuid, characteristicUuid);
 
 		if (characteristic == null)  return null;
 
@@ -2671,7 +3401,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public @Nullable(Prevalence.NORMAL) BluetoothGattService getNativeService(final UUID uuid)
 	{
-		final P_Service service = m_serviceMngr.get(uuid);
+		if( !m_promoted )  return null;
+
+		final P_Service service = getServiceManager().get(uuid);
 
 		if (service == null)  return null;
 
@@ -2687,7 +3419,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public @Nullable(Prevalence.NEVER) Iterator<BluetoothGattService> getNativeServices()
 	{
-		return m_serviceMngr.getNativeServices();
+		if( !m_promoted )  return new EmptyIterator<BluetoothGattService>();
+
+		return getServiceManager().getNativeServices();
 	}
 
 	/**
@@ -2698,7 +3432,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public @Nullable(Prevalence.NEVER) List<BluetoothGattService> getNativeServices_List()
 	{
-		return m_serviceMngr.getNativeServices_List();
+		if( !m_promoted )  return new ArrayList<BluetoothGattService>();
+
+		return getServiceManager().getNativeServices_List();
 	}
 
 	/**
@@ -2709,7 +3445,9 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public @Nullable(Prevalence.NEVER) Iterator<BluetoothGattCharacteristic> getNativeCharacteristics()
 	{
-		return m_serviceMngr.getNativeCharacteristics();
+		if( !m_promoted )  return new EmptyIterator<BluetoothGattCharacteristic>();
+
+		return getServiceManager().getNativeCharacteristics();
 	}
 
 	/**
@@ -2719,7 +3457,9 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public @Nullable(Prevalence.NEVER) List<BluetoothGattCharacteristic> getNativeCharacteristics_List()
 	{
-		return m_serviceMngr.getNativeCharacteristics_List();
+		if( !m_promoted )  return new ArrayList<BluetoothGattCharacteristic>();
+
+		return getServiceManager().getNativeCharacteristics_List();
 	}
 
 	/**
@@ -2729,7 +3469,9 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public @Nullable(Prevalence.NEVER) Iterator<BluetoothGattCharacteristic> getNativeCharacteristics(UUID service)
 	{
-		return m_serviceMngr.getNativeCharacteristics(service);
+		if( !m_promoted )  return new EmptyIterator<BluetoothGattCharacteristic>();
+
+		return getServiceManager().getNativeCharacteristics(service);
 	}
 
 	/**
@@ -2739,7 +3481,9 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public @Nullable(Prevalence.NEVER) List<BluetoothGattCharacteristic> getNativeCharacteristics_List(UUID service)
 	{
-		return m_serviceMngr.getNativeCharacteristics_List(service);
+		if( !m_promoted )  return new ArrayList<BluetoothGattCharacteristic>();
+
+		return getServiceManager().getNativeCharacteristics_List(service);
 	}
 
 	/**
@@ -3043,6 +3787,12 @@ public class BleDevice implements UsesCustomNull
 			return info_alreadyConnected;
 		}
 
+		//--- DRK > If no slot is free the device waits its turn, and this method is called again once one is.
+		if( !m_mngr.m_connectionSlotMngr.acquire(this, authenticationTxn, initTxn) )
+		{
+			return NULL_CONNECTIONFAIL_INFO();
+		}
+
 		connect_private(authenticationTxn, initTxn, /* isReconnect= */false);
 
 		return NULL_CONNECTIONFAIL_INFO();
@@ -3086,10 +3836,11 @@ public class BleDevice implements UsesCustomNull
 
 		final boolean alreadyDisconnected = is(DISCONNECTED);
 		final boolean reconnecting_longTerm = is(RECONNECTING_LONG_TERM);
+		final boolean waitingForSlot = m_mngr.m_connectionSlotMngr.cancel(this);
 
 		disconnectWithReason(/*priority=*/null, status, Timing.NOT_APPLICABLE, BleStatuses.GATT_STATUS_NOT_APPLICABLE, BleStatuses.BOND_FAIL_REASON_NOT_APPLICABLE, NULL_READWRITE_EVENT());
 
-		return !alreadyDisconnected || reconnecting_longTerm;
+		return !alreadyDisconnected || reconnecting_longTerm || waitingForSlot;
 	}
 
 	/**
@@ -3169,7 +3920,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		final UUID serviceUuid = null;
 
-		m_pollMngr.startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/false, /*usingNotify=*/false);
+		getPollManager().startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/false, /*usingNotify=*/false);
 	}
 
 	/**
@@ -3187,7 +3938,7 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public void startPoll(final UUID serviceUuid, final UUID characteristicUuid, final Interval interval, final ReadWriteListener listener)
 	{
-		m_pollMngr.startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/false, /*usingNotify=*/false);
+		getPollManager().startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/false, /*usingNotify=*/false);
 	}
 
 	/**
@@ -3232,7 +3983,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		final UUID serviceUuid = null;
 
-		m_pollMngr.startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/true, /*usingNotify=*/false);
+		getPollManager().startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/true, /*usingNotify=*/false);
 	}
 
 	/**
@@ -3240,7 +3991,32 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public void startChangeTrackingPoll(final UUID serviceUuid, final UUID characteristicUuid, final Interval interval, final ReadWriteListener listener)
 	{
-		m_pollMngr.startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/true, /*usingNotify=*/false);
+		getPollManager().startPoll(serviceUuid, characteristicUuid, Interval.secs(interval), listener, /*trackChanges=*/true, /*usingNotify=*/false);
+	}
+
+	/**
+	 * Same as {@link #startChangeTrackingPoll(UUID, Interval, ReadWriteListener)} but the time between reads adapts to how often the value
+	 * actually changes. Every read that comes back with the same value as the last one doubles the interval, up to <code>maxInterval</code>,
+	 * and any change snaps it right back to <code>minInterval</code>. Good for things like battery level or firmware state that rarely change
+	 * but should still be picked up quickly when they do, without spending radio time reading the same bytes over and over.
+	 * <br><br>
+	 * Stop it with {@link #stopPoll(UUID, Interval, ReadWriteListener)} using <code>minInterval</code>, or any overload that doesn't take an interval.
+	 * <br><br>
+	 * TIP: You can call this method when the device is in any {@link BleDeviceState}, even {@link BleDeviceState#DISCONNECTED}.
+	 */
+	public void startAdaptiveChangeTrackingPoll(final UUID characteristicUuid, final Interval minInterval, final Interval maxInterval, final ReadWriteListener listener)
+	{
+		final UUID serviceUuid = null;
+
+		startAdaptiveChangeTrackingPoll(serviceUuid, characteristicUuid, minInterval, maxInterval, listener);
+	}
+
+	/**
+	 * Overload of {@link #startAdaptiveChangeTrackingPoll(UUID, Interval, Interval, ReadWriteListener)} for when you have characteristics with identical uuids under different services.
+	 */
+	public void startAdaptiveChangeTrackingPoll(final UUID serviceUuid, final UUID characteristicUuid, final Interval minInterval, final Interval maxInterval, final ReadWriteListener listener)
+	{
+		getPollManager().startPoll(serviceUuid, characteristicUuid, Interval.secs(minInterval), Interval.secs(maxInterval), listener, /*trackChanges=*/true, /*usingNotify=*/false);
 	}
 
 	/**
@@ -3386,6 +4162,67 @@ public class BleDevice implements UsesCustomNull
 		return write_internal(serviceUuid, characteristicUuid, data, new P_WrappingReadWriteListener(listener, m_mngr.m_mainThreadHandler, m_mngr.m_config.postCallbacksToMainThread));
 	}
 
+	/**
+	 * Convenience overload of {@link #writeStream(UUID, InputStream, BleStreamOptions, ReadWriteListener)} for data that's already in memory.
+	 */
+	public ReadWriteListener.ReadWriteEvent writeStream(final UUID characteristicUuid, final byte[] data, @Nullable(Prevalence.NORMAL) final BleStreamOptions options, @Nullable(Prevalence.NORMAL) final ReadWriteListener listener)
+	{
+		return writeStream_private(null, characteristicUuid, data == null ? null : new ByteArrayInputStream(data), data == null ? -1 : data.length, options, listener);
+	}
+
+	/**
+	 * Streams everything in the given {@link InputStream} to a characteristic that supports
+	 * {@link BluetoothGattCharacteristic#PROPERTY_WRITE_NO_RESPONSE}, in packets sized to fit {@link #getMtu()}. This is much faster than
+	 * {@link #write(UUID, byte[], ReadWriteListener)} for bulk uploads like audio, logs, or images because packets don't each wait for
+	 * the remote device to acknowledge them. The whole stream is one operation in the queue, and the listener gets one result at the end.
+	 * Use {@link BleStreamOptions} for flow control, periodic acknowledged checkpoints, and progress reporting. The stream is read on
+	 * SweetBlue's update thread and closed when the operation ends, whatever the outcome.
+	 *
+	 * @return (see similar comment for return value of {@link #connect(BleTransaction.Auth, BleTransaction.Init, StateListener, ConnectionFailListener)}).
+	 */
+	public ReadWriteListener.ReadWriteEvent writeStream(final UUID characteristicUuid, final InputStream stream, @Nullable(Prevalence.NORMAL) final BleStreamOptions options, @Nullable(Prevalence.NORMAL) final ReadWriteListener listener)
+	{
+		return writeStream_private(null, characteristicUuid, stream, -1, options, listener);
+	}
+
+	/**
+	 * Overload of {@link #writeStream(UUID, InputStream, BleStreamOptions, ReadWriteListener)} for when you have characteristics with identical uuids under different services.
+	 */
+	public ReadWriteListener.ReadWriteEvent writeStream(final UUID serviceUuid, final UUID characteristicUuid, final InputStream stream, @Nullable(Prevalence.NORMAL) final BleStreamOptions options, @Nullable(Prevalence.NORMAL) final ReadWriteListener listener)
+	{
+		return writeStream_private(serviceUuid, characteristicUuid, stream, -1, options, listener);
+	}
+
+	private ReadWriteListener.ReadWriteEvent writeStream_private(final UUID serviceUuid, final UUID characteristicUuid, final InputStream stream, final long totalBytes, final BleStreamOptions options_nullable, final ReadWriteListener listener)
+	{
+		final P_WrappingReadWriteListener listener_wrapped = new P_WrappingReadWriteListener(listener, m_mngr.m_mainThreadHandler, m_mngr.m_config.postCallbacksToMainThread);
+
+		//--- DRK > The early-out checks want some data to look at, and the real data isn't read until the task runs.
+		final byte[] data_earlyOut = stream == null ? null : (totalBytes == 0 ? EMPTY_BYTE_ARRAY : STREAM_PLACEHOLDER);
+		final ReadWriteEvent earlyOutResult = getServiceManager().getEarlyOutResult(serviceUuid, characteristicUuid, data_earlyOut, Type.WRITE_NO_RESPONSE, ReadWriteListener.Target.CHARACTERISTIC);
+
+		if (earlyOutResult != null)
+		{
+			invokeReadWriteCallback(listener_wrapped, earlyOutResult);
+
+			return earlyOutResult;
+		}
+
+		final BleStreamOptions options = options_nullable != null ? options_nullable : new BleStreamOptions();
+		final StreamListener progressListener = options.getProgressListener() != null ? new P_WrappingStreamListener(options.getProgressListener(), m_mngr.m_mainThreadHandler, m_mngr.m_config.postCallbacksToMainThread) : null;
+
+		P_Characteristic characteristic = getServiceManager().getCharacteristic(serviceUuid, characteristicUuid);
+
+		boolean requiresBonding = m_bondMngr.bondIfNeeded(characteristic, BondFilter.CharacteristicEventType.WRITE);
+
+		//--- DRK > Counted as soon as it's queued so that a connection priority bump gets in line ahead of it, since the stream holds the queue once it's running.
+		onStreamQueued();
+
+		m_queue.add(new P_Task_WriteStream(this, characteristic, stream, totalBytes, options, progressListener, requiresBonding, listener_wrapped, txnMngr().getCurrent(), getOverrideReadWritePriority()));
+
+		return NULL_READWRITE_EVENT();
+	}
+
 	/**
 	 * Same as {@link #readRssi(ReadWriteListener)} but use this method when you don't much care when/if the RSSI is actually updated.
 	 *
@@ -3406,7 +4243,7 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public ReadWriteListener.ReadWriteEvent readRssi(final ReadWriteListener listener)
 	{
-		final ReadWriteEvent earlyOutResult = m_serviceMngr.getEarlyOutResult(Uuids.INVALID, Uuids.INVALID, EMPTY_BYTE_ARRAY, Type.READ, ReadWriteListener.Target.RSSI);
+		final ReadWriteEvent earlyOutResult = getServiceManager().getEarlyOutResult(Uuids.INVALID, Uuids.INVALID, EMPTY_BYTE_ARRAY, Type.READ, ReadWriteListener.Target.RSSI);
 
 		if (earlyOutResult != null)
 		{
@@ -3442,9 +4279,9 @@ public class BleDevice implements UsesCustomNull
 	{
 		if (isNull())  return;
 
-		m_rssiPollMngr.start(interval.secs(), listener);
+		rssiPollMngr().start(interval.secs(), listener);
 
-		m_rssiPollMngr_auto.stop();
+		rssiPollMngr_auto().stop();
 	}
 
 	/**
@@ -3454,19 +4291,19 @@ public class BleDevice implements UsesCustomNull
 	{
 		if (isNull())  return;
 
-		m_rssiPollMngr.stop();
+		rssiPollMngr().stop();
 
 		final Interval autoPollRate = BleDeviceConfig.interval(conf_device().rssiAutoPollRate, conf_mngr().rssiAutoPollRate);
 
 		if (!Interval.isDisabled(autoPollRate))
 		{
-			m_rssiPollMngr_auto.start(autoPollRate.secs(), null);
+			rssiPollMngr_auto().start(autoPollRate.secs(), null);
 		}
 	}
 
 	void readRssi_internal(Type type, P_WrappingReadWriteListener listener)
 	{
-		m_queue.add(new P_Task_ReadRssi(this, listener, m_txnMngr.getCurrent(), getOverrideReadWritePriority(), type));
+		m_queue.add(new P_Task_ReadRssi(this, listener, txnMngr().getCurrent(), getOverrideReadWritePriority(), type));
 	}
 
 	/**
@@ -3564,7 +4401,7 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public @Nullable(Prevalence.NEVER) HistoricalDataCursor getHistoricalData_cursor(final UUID uuid, final EpochTimeRange range)
 	{
-		return m_historicalDataMngr.getCursor(uuid, range);
+		return historicalDataMngr().getCursor(uuid, range);
 	}
 
 	/**
@@ -3602,7 +4439,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() )  return;
 
-		m_historicalDataMngr.load(uuid, listener);
+		historicalDataMngr().load(uuid, listener);
 	}
 
 	/**
@@ -3612,7 +4449,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public boolean isHistoricalDataLoading()
 	{
-		return m_historicalDataMngr.isLoading(null);
+		if( !m_promoted )  return false;
+
+		return historicalDataMngr().isLoading(null);
 	}
 
 	/**
@@ -3622,7 +4461,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public boolean isHistoricalDataLoading(final UUID uuid)
 	{
-		return m_historicalDataMngr.isLoading(uuid);
+		if( !m_promoted )  return false;
+
+		return historicalDataMngr().isLoading(uuid);
 	}
 
 	/**
@@ -3635,7 +4476,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public boolean isHistoricalDataLoaded()
 	{
-		return m_historicalDataMngr.isLoaded(null);
+		if( !m_promoted )  return false;
+
+		return historicalDataMngr().isLoaded(null);
 	}
 
 	/**
@@ -3647,7 +4490,9 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public boolean isHistoricalDataLoaded(final UUID uuid)
 	{
-		return m_historicalDataMngr.isLoaded(uuid);
+		if( !m_promoted )  return false;
+
+		return historicalDataMngr().isLoaded(uuid);
 	}
 
 	/**
@@ -3690,7 +4535,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return new EmptyIterator<HistoricalData>();
 
-		return m_historicalDataMngr.getIterator(uuid, EpochTimeRange.denull(range));
+		return historicalDataMngr().getIterator(uuid, EpochTimeRange.denull(range));
 	}
 
 	/**
@@ -3720,7 +4565,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return false;
 
-		return m_historicalDataMngr.doForEach(uuid, EpochTimeRange.denull(range), forEach);
+		return historicalDataMngr().doForEach(uuid, EpochTimeRange.denull(range), forEach);
 	}
 
 	/**
@@ -3750,7 +4595,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return false;
 
-		return m_historicalDataMngr.doForEach(uuid, EpochTimeRange.denull(range), forEach);
+		return historicalDataMngr().doForEach(uuid, EpochTimeRange.denull(range), forEach);
 	}
 
 	/**
@@ -3778,7 +4623,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return HistoricalData.NULL;
 
-		return m_historicalDataMngr.getWithOffset(uuid, EpochTimeRange.denull(range), offsetFromStart);
+		return historicalDataMngr().getWithOffset(uuid, EpochTimeRange.denull(range), offsetFromStart);
 	}
 
 	/**
@@ -3805,7 +4650,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return 0;
 
-		return m_historicalDataMngr.getCount(uuid, EpochTimeRange.denull(range));
+		return historicalDataMngr().getCount(uuid, EpochTimeRange.denull(range));
 	}
 
 	/**
@@ -3831,7 +4676,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return false;
 
-		return m_historicalDataMngr.hasHistoricalData(range);
+		return historicalDataMngr().hasHistoricalData(range);
 	}
 
 	/**
@@ -3875,7 +4720,7 @@ public class BleDevice implements UsesCustomNull
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public boolean hasHistoricalData(final UUID uuid, final EpochTimeRange range)
 	{
-		return m_historicalDataMngr.hasHistoricalData(uuid, range);
+		return historicalDataMngr().hasHistoricalData(uuid, range);
 	}
 
 	/**
@@ -3892,7 +4737,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.add_single(uuid, data, epochTime, BleDeviceConfig.HistoricalDataLogFilter.Source.SINGLE_MANUAL_ADDITION);
+		historicalDataMngr().add_single(uuid, data, epochTime, BleDeviceConfig.HistoricalDataLogFilter.Source.SINGLE_MANUAL_ADDITION);
 	}
 
 	/**
@@ -3915,7 +4760,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.add_single(uuid, data, new EpochTime(), BleDeviceConfig.HistoricalDataLogFilter.Source.SINGLE_MANUAL_ADDITION);
+		historicalDataMngr().add_single(uuid, data, new EpochTime(), BleDeviceConfig.HistoricalDataLogFilter.Source.SINGLE_MANUAL_ADDITION);
 	}
 
 	/**
@@ -3929,7 +4774,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.add_single(uuid, historicalData, BleDeviceConfig.HistoricalDataLogFilter.Source.SINGLE_MANUAL_ADDITION);
+		historicalDataMngr().add_single(uuid, historicalData, BleDeviceConfig.HistoricalDataLogFilter.Source.SINGLE_MANUAL_ADDITION);
 	}
 
 	/**
@@ -3943,7 +4788,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.add_multiple(uuid, historicalData);
+		historicalDataMngr().add_multiple(uuid, historicalData);
 	}
 
 	/**
@@ -3969,7 +4814,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.add_multiple(uuid, historicalData);
+		historicalDataMngr().add_multiple(uuid, historicalData);
 	}
 
 	/**
@@ -3994,7 +4839,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.clearEverything();
+		historicalDataMngr().clearEverything();
 	}
 
 	/**
@@ -4032,7 +4877,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.delete_all(range, count, /*memoryOnly=*/false);
+		historicalDataMngr().delete_all(range, count, /*memoryOnly=*/false);
 	}
 
 	/**
@@ -4086,7 +4931,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.delete(characteristicUuid, range, count, /*memoryOnly=*/false);
+		historicalDataMngr().delete(characteristicUuid, range, count, /*memoryOnly=*/false);
 	}
 
 	/**
@@ -4136,7 +4981,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.delete_all(range, count, /*memoryOnly=*/true);
+		historicalDataMngr().delete_all(range, count, /*memoryOnly=*/true);
 	}
 
 	/**
@@ -4190,7 +5035,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( isNull() ) return;
 
-		m_historicalDataMngr.delete(characteristicUuid, range, count, /*memoryOnly=*/true);
+		historicalDataMngr().delete(characteristicUuid, range, count, /*memoryOnly=*/true);
 	}
 
 	/**
@@ -4238,6 +5083,60 @@ public class BleDevice implements UsesCustomNull
 		return read_internal(serviceUuid, characteristicUuid, Type.READ, listener_override);
 	}
 
+	/**
+	 * Reads several characteristics one after another as a single operation in the queue, so reads and writes for this or other devices can't
+	 * get in between, and reports all the values at once through one {@link ReadManyListener.ReadManyEvent}. A read that fails doesn't stop
+	 * the rest - check {@link ReadManyListener.ReadManyEvent#results()} for each one's status. Handy for pulling a batch of configuration
+	 * characteristics during {@link BleTransaction.Init} without correlating a dozen separate callbacks.
+	 */
+	public void readMany(final UUID[] characteristicUuids, final ReadManyListener listener)
+	{
+		final UUID serviceUuid = null;
+
+		readMany(serviceUuid, characteristicUuids, listener);
+	}
+
+	/**
+	 * Overload of {@link #readMany(UUID[], ReadManyListener)} for when you have characteristics with identical uuids under different services.
+	 */
+	public void readMany(final UUID serviceUuid, final UUID[] characteristicUuids, final ReadManyListener listener)
+	{
+		final ReadManyListener listener_override = getManager() == null ? listener : new P_WrappingReadManyListener(listener, getManager().m_mainThreadHandler, getManager().m_config.postCallbacksToMainThread);
+
+		final P_Characteristic[] characteristics = new P_Characteristic[characteristicUuids.length];
+		final ReadWriteEvent[] results = new ReadWriteEvent[characteristicUuids.length];
+		boolean requiresBonding = false;
+		boolean anythingToRead = false;
+
+		for( int i = 0; i < characteristicUuids.length; i++ )
+		{
+			final ReadWriteEvent earlyOutResult = getServiceManager().getEarlyOutResult(serviceUuid, characteristicUuids[i], EMPTY_BYTE_ARRAY, Type.READ, ReadWriteListener.Target.CHARACTERISTIC);
+
+			if( earlyOutResult != null )
+			{
+				results[i] = earlyOutResult;
+
+				continue;
+			}
+
+			characteristics[i] = getServiceManager().getCharacteristic(serviceUuid, characteristicUuids[i]);
+			requiresBonding |= m_bondMngr.bondIfNeeded(characteristics[i], BondFilter.CharacteristicEventType.READ);
+			anythingToRead = true;
+		}
+
+		if( !anythingToRead )
+		{
+			if( listener != null )
+			{
+				listener_override.onEvent(new ReadManyListener.ReadManyEvent(this, Collections.unmodifiableList(Arrays.asList(results)), 0.0));
+			}
+
+			return;
+		}
+
+		m_queue.add(new P_Task_ReadMany(this, characteristics, results, requiresBonding, listener != null ? listener_override : null, txnMngr().getCurrent(), getOverrideReadWritePriority()));
+	}
+
 	/**
 	 * Returns <code>true</code> if notifications are enabled for the given uuid.
 	 * NOTE: {@link #isNotifyEnabling(UUID)} may return true here even if this returns false.
@@ -4247,10 +5146,11 @@ public class BleDevice implements UsesCustomNull
 	public boolean isNotifyEnabled(final UUID uuid)
 	{
 		if( isNull() )  return false;
+		if( !m_promoted )  return false;
 
 		final UUID serviceUuid = null;
 
-		final E_NotifyState notifyState = m_pollMngr.getNotifyState(serviceUuid, uuid);
+		final E_NotifyState notifyState = getPollManager().getNotifyState(serviceUuid, uuid);
 
 		return notifyState == E_NotifyState.ENABLED;
 	}
@@ -4263,10 +5163,11 @@ public class BleDevice implements UsesCustomNull
 	public boolean isNotifyEnabling(final UUID uuid)
 	{
 		if( isNull() )  return false;
+		if( !m_promoted )  return false;
 
 		final UUID serviceUuid = null;
 
-		final E_NotifyState notifyState = m_pollMngr.getNotifyState(serviceUuid, uuid);
+		final E_NotifyState notifyState = getPollManager().getNotifyState(serviceUuid, uuid);
 
 		return notifyState == E_NotifyState.ENABLING;
 	}
@@ -4383,7 +5284,39 @@ public class BleDevice implements UsesCustomNull
 	 */
 	public ReadWriteListener.ReadWriteEvent enableNotify(final UUID serviceUuid, final UUID characteristicUuid, final Interval forceReadTimeout, final ReadWriteListener listener)
 	{
-		final ReadWriteEvent earlyOutResult = m_serviceMngr.getEarlyOutResult(serviceUuid, characteristicUuid, EMPTY_BYTE_ARRAY, Type.ENABLING_NOTIFICATION, ReadWriteListener.Target.CHARACTERISTIC);
+		return enableNotify_private(serviceUuid, characteristicUuid, forceReadTimeout, listener, null);
+	}
+
+	/**
+	 * Enables notification on the given characteristic for a peripheral that splits messages across several notifications. Each notification
+	 * goes through <code>decoder</code>, which strips the framing and reassembles the message, and <code>frameListener</code> only hears about
+	 * complete messages, or about ones that had to be dropped, for example because of a gap in sequence numbers. <code>listener</code> still
+	 * gets {@link Type#ENABLING_NOTIFICATION} but not the notifications themselves. Anything half-reassembled is thrown away on disconnect.
+	 * <br><br>
+	 * Decoders keep state, so pass a new one for each characteristic, e.g. <code>new FrameDecoder.LengthPrefixed()</code>. Use
+	 * {@link #disableNotify(UUID, ReadWriteListener)} with the same <code>listener</code>, or {@link #disableNotify(UUID)}, to stop.
+	 *
+	 * @return (same as {@link #enableNotify(UUID, ReadWriteListener)}).
+	 */
+	public ReadWriteListener.ReadWriteEvent enableNotify(final UUID characteristicUuid, final FrameDecoder decoder, final FrameListener frameListener, @Nullable(Prevalence.NORMAL) final ReadWriteListener listener)
+	{
+		return this.enableNotify(null, characteristicUuid, decoder, frameListener, listener);
+	}
+
+	/**
+	 * Overload of {@link #enableNotify(UUID, FrameDecoder, FrameListener, ReadWriteListener)} for when you have characteristics with identical uuids under different services.
+	 */
+	public ReadWriteListener.ReadWriteEvent enableNotify(final UUID serviceUuid, final UUID characteristicUuid, final FrameDecoder decoder, final FrameListener frameListener, @Nullable(Prevalence.NORMAL) final ReadWriteListener listener)
+	{
+		final P_FrameReassembler framer = decoder != null && !isNull() ? new P_FrameReassembler(this, serviceUuid, characteristicUuid, decoder, frameListener) : null;
+
+		//--- DRK > A forced read would hand the decoder a whole value in the middle of a message, so framed notifications never have one.
+		return enableNotify_private(serviceUuid, characteristicUuid, Interval.INFINITE, listener, framer);
+	}
+
+	private ReadWriteListener.ReadWriteEvent enableNotify_private(final UUID serviceUuid, final UUID characteristicUuid, final Interval forceReadTimeout, final ReadWriteListener listener, final P_FrameReassembler framer_nullable)
+	{
+		final ReadWriteEvent earlyOutResult = getServiceManager().getEarlyOutResult(serviceUuid, characteristicUuid, EMPTY_BYTE_ARRAY, Type.ENABLING_NOTIFICATION, ReadWriteListener.Target.CHARACTERISTIC);
 
 		if (earlyOutResult != null)
 		{
@@ -4397,8 +5330,8 @@ public class BleDevice implements UsesCustomNull
 			}
 		}
 
-		final P_Characteristic characteristic = m_serviceMngr.getCharacteristic(serviceUuid, characteristicUuid);
-		final E_NotifyState notifyState = m_pollMngr.getNotifyState(serviceUuid, characteristicUuid);
+		final P_Characteristic characteristic = getServiceManager().getCharacteristic(serviceUuid, characteristicUuid);
+		final E_NotifyState notifyState = getPollManager().getNotifyState(serviceUuid, characteristicUuid);
 		final boolean shouldSendOutNotifyEnable = notifyState == E_NotifyState.NOT_ENABLED && (earlyOutResult == null || earlyOutResult.status() != ReadWriteListener.Status.OPERATION_NOT_SUPPORTED);
 
 		final ReadWriteEvent result;
@@ -4411,7 +5344,7 @@ public class BleDevice implements UsesCustomNull
 			P_WrappingReadWriteListener wrappingListener = new P_WrappingReadWriteListener(listener, m_mngr.m_mainThreadHandler, m_mngr.m_config.postCallbacksToMainThread);
 			m_queue.add(new P_Task_ToggleNotify(this, characteristic, /*enable=*/true, wrappingListener));
 
-			m_pollMngr.onNotifyStateChange(serviceUuid, characteristicUuid, E_NotifyState.ENABLING);
+			getPollManager().onNotifyStateChange(serviceUuid, characteristicUuid, E_NotifyState.ENABLING);
 
 			result = NULL_READWRITE_EVENT();
 		}
@@ -4419,7 +5352,7 @@ public class BleDevice implements UsesCustomNull
 		{
 			if (listener != null && isConnected )
 			{
-				result = m_pollMngr.newAlreadyEnabledResult(characteristic, serviceUuid, characteristicUuid);
+				result = getPollManager().newAlreadyEnabledResult(characteristic, serviceUuid, characteristicUuid);
 
 				invokeReadWriteCallback(listener, result);
 			}
@@ -4438,7 +5371,7 @@ public class BleDevice implements UsesCustomNull
 			result = NULL_READWRITE_EVENT();
 		}
 
-		m_pollMngr.startPoll(serviceUuid, characteristicUuid, forceReadTimeout.secs(), listener, /*trackChanges=*/true, /*usingNotify=*/true);
+		getPollManager().startPoll(serviceUuid, characteristicUuid, forceReadTimeout.secs(), forceReadTimeout.secs(), listener, /*trackChanges=*/true, /*usingNotify=*/true, framer_nullable);
 
 		return result;
 	}
@@ -4588,7 +5521,7 @@ public class BleDevice implements UsesCustomNull
 		if( performTransaction_earlyOut(txn) )		return false;
 		if (is(PERFORMING_OTA))						return false;
 
-		m_txnMngr.startOta(txn);
+		txnMngr().startOta(txn);
 
 		return true;
 	}
@@ -4609,7 +5542,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if( performTransaction_earlyOut(txn) )		return false;
 
-		m_txnMngr.performAnonTransaction(txn);
+		txnMngr().performAnonTransaction(txn);
 
 		return true;
 	}
@@ -4619,7 +5552,7 @@ public class BleDevice implements UsesCustomNull
 		if ( txn == null )							return true;
 		if (isNull())								return true;
 		if (!is(INITIALIZED))						return true;
-		if ( m_txnMngr.getCurrent() != null )		return true;
+		if ( txnMngr().getCurrent() != null )		return true;
 
 		return false;
 	}
@@ -4678,6 +5611,16 @@ public class BleDevice implements UsesCustomNull
 	}
 
 	P_BleDevice_Listeners getListeners()
+	{
+		promote();
+
+		return m_listeners;
+	}
+
+	/**
+	 * Same as {@link #getListeners()} but returns <code>null</code> instead of promoting an advertisement-only device.
+	 */
+	P_BleDevice_Listeners getListeners_ifPromoted()
 	{
 		return m_listeners;
 	}
@@ -4690,16 +5633,20 @@ public class BleDevice implements UsesCustomNull
 	// PA_StateTracker getStateTracker(){ return m_stateTracker; }
 	BleTransaction getFirmwareUpdateTxn()
 	{
-		return m_txnMngr.m_firmwareUpdateTxn;
+		return txnMngr().m_firmwareUpdateTxn;
 	}
 
 	P_PollManager getPollManager()
 	{
+		promote();
+
 		return m_pollMngr;
 	}
 
 	P_ServiceManager getServiceManager()
 	{
+		promote();
+
 		return m_serviceMngr;
 	}
 
@@ -4707,16 +5654,48 @@ public class BleDevice implements UsesCustomNull
 	{
 		clear_discovery();
 
-		onDiscovered_private(advertisedServices_nullable, rssi, scanRecord_nullable);
+		onDiscovered_private(advertisedServices_nullable, rssi, scanRecord_nullable, origin);
+
+		endRediscoveryWindow();
 
 		stateTracker_main().update(E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE, m_bondMngr.getNativeBondingStateOverrides(), UNDISCOVERED, false, DISCOVERED, true, ADVERTISING, origin==BleDeviceOrigin.FROM_DISCOVERY, DISCONNECTED, true);
+
+		if( m_pollMngr != null )  m_pollMngr.rescheduleAll();
 	}
 
-	void onRediscovered(List<UUID> advertisedServices_nullable, int rssi, byte[] scanRecord_nullable, final BleDeviceOrigin origin)
+	/**
+	 * Returns <code>false</code> if the rediscovery was absorbed by {@link BleDeviceConfig#rediscoveryThrottle}, in which case
+	 * no {@link BleManager.DiscoveryListener.LifeCycle#REDISCOVERED} event should be sent.
+	 */
+	boolean onRediscovered(List<UUID> advertisedServices_nullable, int rssi, byte[] scanRecord_nullable, final BleDeviceOrigin origin)
 	{
-		onDiscovered_private(advertisedServices_nullable, rssi, scanRecord_nullable);
+		onDiscovered_private(advertisedServices_nullable, rssi, scanRecord_nullable, origin);
+
+		final Interval throttle = BleDeviceConfig.interval(conf_device().rediscoveryThrottle, conf_mngr().rediscoveryThrottle);
+
+		if( !Interval.isDisabled(throttle) && m_lastDiscoveryTime.toMilliseconds() - m_lastRediscoveryReportTime < throttle.millis() )
+		{
+			return false;
+		}
+
+		endRediscoveryWindow();
 
 		stateTracker_main().update(PA_StateTracker.E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE, m_bondMngr.getNativeBondingStateOverrides(), ADVERTISING, origin == BleDeviceOrigin.FROM_DISCOVERY);
+
+		return true;
+	}
+
+	private void endRediscoveryWindow()
+	{
+		m_lastRediscoveryReportTime = m_lastDiscoveryTime.toMilliseconds();
+
+		m_rssiMean = m_rssiWindow_count > 0 ? (double) m_rssiWindow_sum / m_rssiWindow_count : m_rssi;
+		m_rssiMax = m_rssiWindow_count > 0 ? m_rssiWindow_max : m_rssi;
+		m_rssiSampleCount = m_rssiWindow_count;
+
+		m_rssiWindow_sum = 0;
+		m_rssiWindow_max = 0;
+		m_rssiWindow_count = 0;
 	}
 
 	void onUndiscovered(E_Intent intent)
@@ -4728,19 +5707,65 @@ public class BleDevice implements UsesCustomNull
 		if( m_rssiPollMngr != null )  m_rssiPollMngr.stop();
 		if( m_rssiPollMngr_auto != null )  m_rssiPollMngr_auto.stop();
 
+		if( m_mngr != null )
+		{
+			m_mngr.m_regionMngr.onUndiscovered(this);
+
+			//--- DRK > Cached devices can come back as this same instance so their polls stay around, otherwise they'd sit in the scheduler forever.
+			if( m_pollMngr != null && !m_mngr.m_deviceMngr_cache.has(this) )  m_pollMngr.unscheduleAll();
+		}
+
 		stateTracker_main().set(intent, BleStatuses.GATT_STATUS_NOT_APPLICABLE, UNDISCOVERED, true, DISCOVERED, false, ADVERTISING, false, m_bondMngr.getNativeBondingStateOverrides(), DISCONNECTED, true);
 	}
 
+	void onEvictedFromCache()
+	{
+		clear_common();
+
+		if( m_pollMngr != null )  m_pollMngr.unscheduleAll();
+
+		m_nativeWrapper.closeGattIfNeeded(/*disconnectAlso=*/false);
+
+		if( m_historicalDataMngr != null )
+		{
+			m_historicalDataMngr.clearMemory();
+		}
+	}
+
 	double getTimeSinceLastDiscovery()
 	{
 		return m_timeSinceLastDiscovery;
 	}
 
-	private void onDiscovered_private(List<UUID> advertisedServices_nullable, final int rssi, byte[] scanRecord_nullable)
+	double getUndiscoveryKeepAlive(final Interval keepAlive_fixed)
+	{
+		final int missedAdvertisementCount = BleDeviceConfig.integerOrZero(BleDeviceConfig.integer(conf_device().undiscoveryMissedAdvertisementCount, conf_mngr().undiscoveryMissedAdvertisementCount));
+
+		if( missedAdvertisementCount <= 0 || !m_advertisingIntervalEstimator.isReady() )
+		{
+			return keepAlive_fixed.secs();
+		}
+
+		final double expectedInterval = m_advertisingIntervalEstimator.getMean() + 2.0 * m_advertisingIntervalEstimator.getStandardDeviation();
+
+		return Math.max(expectedInterval * missedAdvertisementCount, MIN_ADAPTIVE_UNDISCOVERY_KEEP_ALIVE);
+	}
+
+	private void onDiscovered_private(List<UUID> advertisedServices_nullable, final int rssi, byte[] scanRecord_nullable, final BleDeviceOrigin origin)
 	{
 		m_lastDiscoveryTime = EpochTime.now();
+
+		if( origin == BleDeviceOrigin.FROM_DISCOVERY )
+		{
+			m_advertisingIntervalEstimator.addEvent(m_lastDiscoveryTime.toSeconds());
+		}
+
 		m_timeSinceLastDiscovery = 0.0;
 		updateRssi(rssi);
+
+		m_rssiWindow_sum += rssi;
+		m_rssiWindow_max = m_rssiWindow_count == 0 ? rssi : Math.max(m_rssiWindow_max, rssi);
+		m_rssiWindow_count++;
 		m_advertisedServices = advertisedServices_nullable == null || advertisedServices_nullable.size() == 0 ? m_advertisedServices : advertisedServices_nullable;
 		m_scanRecord = scanRecord_nullable != null ? scanRecord_nullable : m_scanRecord;
 	}
@@ -4748,13 +5773,26 @@ public class BleDevice implements UsesCustomNull
 	void updateRssi(final int rssi)
 	{
 		m_rssi = rssi;
+
+		final BleDeviceConfig.RssiFilterMode filterMode = BleDeviceConfig.filter(conf_device().rssiFilterMode, conf_mngr().rssiFilterMode);
+
+		if( filterMode != m_rssiFilterMode )
+		{
+			m_rssiFilterMode = filterMode;
+			m_rssiFilter = filterMode != null ? filterMode.newFilter() : null;
+		}
+
+		m_rssi_smoothed = m_rssiFilter != null ? m_rssiFilter.add(rssi) : rssi;
+
+		P_ProximityIndex.onRssiChanged(this);
 	}
 
 	void update(double timeStep)
 	{
 		m_timeSinceLastDiscovery += timeStep;
 
-		m_pollMngr.update(timeStep);
+		if( !m_promoted )  return;
+
 		m_txnMngr.update(timeStep);
 		m_reconnectMngr_longTerm.update(timeStep);
 		m_reconnectMngr_shortTerm.update(timeStep);
@@ -4763,7 +5801,7 @@ public class BleDevice implements UsesCustomNull
 
 	void bond_justAddTheTask(E_TransactionLockBehavior lockBehavior)
 	{
-		m_queue.add(new P_Task_Bond(this, /*explicit=*/true, /*partOfConnection=*/false, m_taskStateListener, lockBehavior));
+		m_queue.add(new P_Task_Bond(this, /*explicit=*/true, /*partOfConnection=*/false, getListeners().m_taskStateListener, lockBehavior));
 	}
 
 	void unbond_justAddTheTask()
@@ -4773,7 +5811,7 @@ public class BleDevice implements UsesCustomNull
 
 	void unbond_justAddTheTask(final PE_TaskPriority priority_nullable)
 	{
-		m_queue.add(new P_Task_Unbond(this, m_taskStateListener, priority_nullable));
+		m_queue.add(new P_Task_Unbond(this, getListeners().m_taskStateListener, priority_nullable));
 	}
 
 	void unbond_internal(final PE_TaskPriority priority_nullable, final BondListener.Status status)
@@ -4819,7 +5857,7 @@ public class BleDevice implements UsesCustomNull
 			return;
 		}
 
-		connect_private(m_txnMngr.m_authTxn, m_txnMngr.m_initTxn, /*isReconnect=*/true);
+		connect_private(txnMngr().m_authTxn, txnMngr().m_initTxn, /*isReconnect=*/true);
 	}
 
 	private void connect_private(BleTransaction.Auth authenticationTxn, BleTransaction.Init initTxn, final boolean isReconnect)
@@ -4831,7 +5869,7 @@ public class BleDevice implements UsesCustomNull
 			return;
 		}
 
-		m_txnMngr.onConnect(authenticationTxn, initTxn);
+		txnMngr().onConnect(authenticationTxn, initTxn);
 
 		final Object[] extraBondingStates;
 
@@ -4864,7 +5902,7 @@ public class BleDevice implements UsesCustomNull
 			return;
 		}
 
-		m_queue.add(new P_Task_Connect(this, m_taskStateListener));
+		m_queue.add(new P_Task_Connect(this, getListeners().m_taskStateListener));
 
 		onConnecting(/* definitelyExplicit= */true, isReconnect, extraBondingStates, /*bleConnect=*/true);
 	}
@@ -4892,7 +5930,7 @@ public class BleDevice implements UsesCustomNull
 				//--- DRK > We're stopping the reconnect process (if it's running) because the user has decided to explicitly connect
 				//--- for whatever reason. Making a judgement call that the user would then expect reconnect to stop.
 				//--- In other words it's not stopped for any hard technical reasons...it could go on.
-				m_reconnectMngr_longTerm.stop();
+				reconnectMngr_longTerm().stop();
 				intent = E_Intent.INTENTIONAL;
 				stateTracker().update(intent, BluetoothGatt.GATT_SUCCESS, RECONNECTING_LONG_TERM, false, CONNECTING, bleConnect, CONNECTING_OVERALL, true, DISCONNECTED, false, ADVERTISING, false, extraBondingStates);
 			}
@@ -4913,6 +5951,13 @@ public class BleDevice implements UsesCustomNull
 	{
 		m_lastDisconnectWasBecauseOfBleTurnOff = false; // DRK > Just being anal.
 
+		m_mngr.m_connectionSlotMngr.onActivity(this);
+
+		if( m_mngr.m_config.manageDeviceRegistryOnDisk )
+		{
+			m_mngr.m_deviceRegistry.onSeen(this, /*add=*/true);
+		}
+
 		E_Intent intent = explicit && !is(RECONNECTING_LONG_TERM) ? E_Intent.INTENTIONAL : E_Intent.UNINTENTIONAL;
 		m_lastConnectOrDisconnectWasUserExplicit = intent == E_Intent.INTENTIONAL;
 
@@ -4956,6 +6001,12 @@ public class BleDevice implements UsesCustomNull
 		}
 		m_logger.d(m_logger.gattBondState(m_nativeWrapper.getNativeBondState()));
 
+		final int mtuSize = BleDeviceConfig.integer(conf_device().mtuSize, conf_mngr().mtuSize, BleDeviceConfig.DEFAULT_MTU_SIZE);
+		if (mtuSize > BleDeviceConfig.DEFAULT_MTU_SIZE && android.os.Build.VERSION.SDK_INT >= 21)
+		{
+			m_queue.add(new P_Task_RequestMtu(this, mtuSize));
+		}
+
 		boolean autoGetServices = BleDeviceConfig.bool(conf_device().autoGetServices, conf_mngr().autoGetServices);
 		if (autoGetServices)
 		{
@@ -4963,7 +6014,7 @@ public class BleDevice implements UsesCustomNull
 		}
 		else
 		{
-			m_txnMngr.runAuthOrInitTxnIfNeeded(BluetoothGatt.GATT_SUCCESS, DISCONNECTED, false, CONNECTING_OVERALL, true, CONNECTING, false, CONNECTED, true, ADVERTISING, false);
+			txnMngr().runAuthOrInitTxnIfNeeded(BluetoothGatt.GATT_SUCCESS, DISCONNECTED, false, CONNECTING_OVERALL, true, CONNECTING, false, CONNECTED, true, ADVERTISING, false);
 		}
 	}
 
@@ -4974,8 +6025,8 @@ public class BleDevice implements UsesCustomNull
 			return;
 		}
 
-		m_serviceMngr.clear();
-		m_queue.add(new P_Task_DiscoverServices(this, m_taskStateListener));
+		getServiceManager().clear();
+		m_queue.add(new P_Task_DiscoverServices(this, getListeners().m_taskStateListener));
 
 		//--- DRK > We check up top, but check again here cause we might have been disconnected on another thread in the mean time.
 		//--- Even without this check the library should still be in a goodish state. Might send some weird state
@@ -5013,7 +6064,7 @@ public class BleDevice implements UsesCustomNull
 			setStateToDisconnected(attemptingReconnect, E_Intent.UNINTENTIONAL, gattStatus, /*forceMainStateTracker=*/false, P_BondManager.OVERRIDE_EMPTY_STATES);
 		}
 
-		m_txnMngr.cancelAllTransactions();
+		txnMngr().cancelAllTransactions();
 
 		if (wasConnecting)
 		{
@@ -5043,17 +6094,18 @@ public class BleDevice implements UsesCustomNull
 
 	void onServicesDiscovered()
 	{
-		m_serviceMngr.clear();
-		m_serviceMngr.loadDiscoveredServices();
+		getServiceManager().clear();
+		getServiceManager().loadDiscoveredServices();
 
-		m_txnMngr.runAuthOrInitTxnIfNeeded(BluetoothGatt.GATT_SUCCESS, DISCOVERING_SERVICES, false, SERVICES_DISCOVERED, true);
+		txnMngr().runAuthOrInitTxnIfNeeded(BluetoothGatt.GATT_SUCCESS, DISCOVERING_SERVICES, false, SERVICES_DISCOVERED, true);
 	}
 
 	void onFullyInitialized(final int gattStatus, Object... extraFlags)
 	{
-		m_reconnectMngr_longTerm.stop();
-		m_reconnectMngr_shortTerm.stop();
+		reconnectMngr_longTerm().stop();
+		reconnectMngr_shortTerm().stop();
 		m_connectionFailMngr.onFullyInitialized();
+		m_lastInitializedTime = System.currentTimeMillis();
 
 		//--- DRK > Saving last disconnect as unintentional here in case for some
 		//--- reason app is hard killed or something and we never get a disconnect callback.
@@ -5063,6 +6115,8 @@ public class BleDevice implements UsesCustomNull
 		stateTracker().update(lastConnectDisconnectIntent(), gattStatus, extraFlags, RECONNECTING_LONG_TERM, false, CONNECTING_OVERALL, false, AUTHENTICATING, false, AUTHENTICATED, true, INITIALIZING, false, INITIALIZED, true);
 
 		stateTracker_main().remove(BleDeviceState.RECONNECTING_SHORT_TERM, E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
+
+		updateConnectionPriority(null);
 	}
 
 	private void setStateToDisconnected(final boolean attemptingReconnect_longTerm, final E_Intent intent, final int gattStatus, final boolean forceMainStateTracker, final Object[] overrideBondingStates)
@@ -5070,9 +6124,13 @@ public class BleDevice implements UsesCustomNull
 		//--- DRK > Device probably wasn't advertising while connected so here we reset the timer to keep
 		//--- it from being immediately undiscovered after disconnection.
 		m_timeSinceLastDiscovery = 0.0;
+		m_mtu = BleDeviceConfig.DEFAULT_MTU_SIZE;
+		m_connectionPriority = BleConnectionPriority.MEDIUM;
+		m_connectionPriority_requested = BleConnectionPriority.MEDIUM;
+		m_activeStreamCount = 0;
 
-		m_serviceMngr.clear();
-		m_txnMngr.clearQueueLock();
+		getServiceManager().clear();
+		txnMngr().clearQueueLock();
 
 		final P_DeviceStateTracker tracker = forceMainStateTracker ? stateTracker_main() : stateTracker();
 
@@ -5119,7 +6177,7 @@ public class BleDevice implements UsesCustomNull
 
 		if( explicit )
 		{
-			m_reconnectMngr_shortTerm.stop();
+			if( m_reconnectMngr_shortTerm != null )  m_reconnectMngr_shortTerm.stop();
 		}
 
 		if (cancelled)
@@ -5153,19 +6211,19 @@ public class BleDevice implements UsesCustomNull
 
 			final boolean saveLastDisconnectAfterTaskCompletes = connectionFailReasonIfConnecting != Status.ROGUE_DISCONNECT;
 
-			m_queue.add(new P_Task_Disconnect(this, m_taskStateListener, /*explicit=*/true, disconnectPriority_nullable, taskIsCancellable, saveLastDisconnectAfterTaskCompletes));
+			m_queue.add(new P_Task_Disconnect(this, getListeners().m_taskStateListener, /*explicit=*/true, disconnectPriority_nullable, taskIsCancellable, saveLastDisconnectAfterTaskCompletes));
 
 			final Object[] overrideBondingStates = m_bondMngr.getOverrideBondStatesForDisconnect(connectionFailReasonIfConnecting);
 			final boolean forceMainStateTracker = explicit;
 
 			setStateToDisconnected(attemptingReconnect_longTerm, intent, gattStatus, forceMainStateTracker, overrideBondingStates);
 
-			m_txnMngr.cancelAllTransactions();
+			txnMngr().cancelAllTransactions();
 			// m_txnMngr.clearAllTxns();
 
 			if (!attemptingReconnect_longTerm)
 			{
-				m_reconnectMngr_longTerm.stop();
+				if( m_reconnectMngr_longTerm != null )  m_reconnectMngr_longTerm.stop();
 			}
 		}
 		else
@@ -5174,7 +6232,7 @@ public class BleDevice implements UsesCustomNull
 			{
 				stateTracker().update(intent, gattStatus, RECONNECTING_LONG_TERM, false);
 
-				m_reconnectMngr_longTerm.stop();
+				if( m_reconnectMngr_longTerm != null )  m_reconnectMngr_longTerm.stop();
 			}
 		}
 
@@ -5226,7 +6284,7 @@ public class BleDevice implements UsesCustomNull
 			saveLastDisconnect(wasExplicit);
 		}
 
-		m_pollMngr.resetNotifyStates();
+		getPollManager().resetNotifyStates();
 
 		if( attemptShortTermReconnect )
 		{
@@ -5239,12 +6297,12 @@ public class BleDevice implements UsesCustomNull
 
 		if (attemptShortTermReconnect)
 		{
-			if (!wasExplicit && wasInitialized && !m_reconnectMngr_shortTerm.isRunning())
+			if (!wasExplicit && wasInitialized && !reconnectMngr_shortTerm().isRunning())
 			{
-				m_stateTracker_shortTermReconnect.sync(stateTracker_main());
-				m_reconnectMngr_shortTerm.attemptStart(gattStatus);
+				stateTracker_shortTermReconnect().sync(stateTracker_main());
+				reconnectMngr_shortTerm().attemptStart(gattStatus);
 
-				if (m_reconnectMngr_shortTerm.isRunning())
+				if (reconnectMngr_shortTerm().isRunning())
 				{
 					stateTracker_main().append(BleDeviceState.RECONNECTING_SHORT_TERM, E_Intent.INTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 				}
@@ -5303,7 +6361,7 @@ public class BleDevice implements UsesCustomNull
 		final boolean isConnectingOverall_1 = is_internal(CONNECTING_OVERALL);
 		final boolean isStillAttemptingReconnect_longTerm = is_internal(RECONNECTING_LONG_TERM);
 		final ConnectionFailListener.Status connectionFailReason_nullable;
-		if (!m_reconnectMngr_shortTerm.isRunning() && wasConnectingOverall)
+		if (!reconnectMngr_shortTerm().isRunning() && wasConnectingOverall)
 		{
 			if (m_mngr.isAny(BleManagerState.TURNING_OFF, BleManagerState.OFF))
 			{
@@ -5327,7 +6385,7 @@ public class BleDevice implements UsesCustomNull
 		//---		task has to run (even if it's redundant), and services have to be discovered.
 //						if (is_internal(DISCONNECTED))
 		{
-			m_txnMngr.cancelAllTransactions();
+			txnMngr().cancelAllTransactions();
 		}
 
 		//--- DRK > This was originally where cancelTasks = true; is now placed, before disconnected state change. Putting it after because of the following scenario:
@@ -5340,7 +6398,7 @@ public class BleDevice implements UsesCustomNull
 		}
 
 		final Please.PE_Please retrying;
-		if (!isConnectingOverall_1 && !m_reconnectMngr_shortTerm.isRunning())
+		if (!isConnectingOverall_1 && !reconnectMngr_shortTerm().isRunning())
 		{
 			if (connectionFailReason_nullable != null)
 			{
@@ -5359,11 +6417,11 @@ public class BleDevice implements UsesCustomNull
 		//--- DRK > Again, technically user could have called connect() in callbacks above....bad form but we need to account for it.
 		final boolean isConnectingOverall_2 = is_internal(CONNECTING_OVERALL);
 
-		if (!m_reconnectMngr_shortTerm.isRunning() && !m_reconnectMngr_longTerm.isRunning() && !wasExplicit && wasInitialized && !isConnectingOverall_2)
+		if (!reconnectMngr_shortTerm().isRunning() && !reconnectMngr_longTerm().isRunning() && !wasExplicit && wasInitialized && !isConnectingOverall_2)
 		{
-			m_reconnectMngr_longTerm.attemptStart(gattStatus);
+			reconnectMngr_longTerm().attemptStart(gattStatus);
 
-			if (m_reconnectMngr_longTerm.isRunning())
+			if (reconnectMngr_longTerm().isRunning())
 			{
 				stateTracker_main().append(RECONNECTING_LONG_TERM, E_Intent.INTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 			}
@@ -5372,11 +6430,11 @@ public class BleDevice implements UsesCustomNull
 		//--- DRK > Throwing in one last disconnect if it looks like we just came out of a short term reconnect
 		//---		that was connected and (e.g.) getting services and so this method was called but no long term reconnect was started
 		//---		so we have to bail out.
-		if( is(DISCONNECTED) && !is(RECONNECTING_LONG_TERM) && m_reconnectMngr_longTerm.isRunning() == false && m_reconnectMngr_shortTerm.isRunning() == false )
+		if( is(DISCONNECTED) && !is(RECONNECTING_LONG_TERM) && reconnectMngr_longTerm().isRunning() == false && reconnectMngr_shortTerm().isRunning() == false )
 		{
 			if( m_nativeWrapper.isNativelyConnecting() ||  m_nativeWrapper.isNativelyConnected() )
 			{
-				m_queue.add(new P_Task_Disconnect(this, m_taskStateListener, /*explicit=*/false, null, /*cancellable=*/true));
+				m_queue.add(new P_Task_Disconnect(this, getListeners().m_taskStateListener, /*explicit=*/false, null, /*cancellable=*/true));
 			}
 		}
 
@@ -5391,18 +6449,18 @@ public class BleDevice implements UsesCustomNull
 
 	private void softlyCancelTasks(final int overrideOrdinal)
 	{
-		m_dummyDisconnectTask.setOverrideOrdinal(overrideOrdinal);
-		m_queue.softlyCancelTasks(m_dummyDisconnectTask);
+		dummyDisconnectTask().setOverrideOrdinal(overrideOrdinal);
+		m_queue.softlyCancelTasks(dummyDisconnectTask());
 	}
 
 	private void stopPoll_private(final UUID serviceUuid, final UUID characteristicUuid, final Double interval, final ReadWriteListener listener)
 	{
-		m_pollMngr.stopPoll(serviceUuid, characteristicUuid, interval, listener, /* usingNotify= */false);
+		getPollManager().stopPoll(serviceUuid, characteristicUuid, interval, listener, /* usingNotify= */false);
 	}
 
 	ReadWriteListener.ReadWriteEvent read_internal(final UUID serviceUuid, final UUID characteristicUuid, final Type type, final ReadWriteListener listener)
 	{
-		final ReadWriteEvent earlyOutResult = m_serviceMngr.getEarlyOutResult(serviceUuid, characteristicUuid, EMPTY_BYTE_ARRAY, type, ReadWriteListener.Target.CHARACTERISTIC);
+		final ReadWriteEvent earlyOutResult = getServiceManager().getEarlyOutResult(serviceUuid, characteristicUuid, EMPTY_BYTE_ARRAY, type, ReadWriteListener.Target.CHARACTERISTIC);
 
 		if (earlyOutResult != null)
 		{
@@ -5411,18 +6469,18 @@ public class BleDevice implements UsesCustomNull
 			return earlyOutResult;
 		}
 
-		final P_Characteristic characteristic = m_serviceMngr.getCharacteristic(serviceUuid, characteristicUuid);
+		final P_Characteristic characteristic = getServiceManager().getCharacteristic(serviceUuid, characteristicUuid);
 
 		final boolean requiresBonding = m_bondMngr.bondIfNeeded(characteristic, BondFilter.CharacteristicEventType.READ);
 
-		m_queue.add(new P_Task_Read(this, characteristic, type, requiresBonding, listener, m_txnMngr.getCurrent(), getOverrideReadWritePriority()));
+		m_queue.add(new P_Task_Read(this, characteristic, type, requiresBonding, listener, txnMngr().getCurrent(), getOverrideReadWritePriority()));
 
 		return NULL_READWRITE_EVENT();
 	}
 
 	ReadWriteListener.ReadWriteEvent write_internal(final UUID serviceUuid, final UUID characteristicUuid, final byte[] data, final P_WrappingReadWriteListener listener)
 	{
-		final ReadWriteEvent earlyOutResult = m_serviceMngr.getEarlyOutResult(serviceUuid, characteristicUuid, data, Type.WRITE, ReadWriteListener.Target.CHARACTERISTIC);
+		final ReadWriteEvent earlyOutResult = getServiceManager().getEarlyOutResult(serviceUuid, characteristicUuid, data, Type.WRITE, ReadWriteListener.Target.CHARACTERISTIC);
 
 		if (earlyOutResult != null)
 		{
@@ -5431,18 +6489,18 @@ public class BleDevice implements UsesCustomNull
 			return earlyOutResult;
 		}
 
-		P_Characteristic characteristic = m_serviceMngr.getCharacteristic(serviceUuid, characteristicUuid);
+		P_Characteristic characteristic = getServiceManager().getCharacteristic(serviceUuid, characteristicUuid);
 
 		boolean requiresBonding = m_bondMngr.bondIfNeeded(characteristic, BondFilter.CharacteristicEventType.WRITE);
 
-		m_queue.add(new P_Task_Write(this, characteristic, data, requiresBonding, listener, m_txnMngr.getCurrent(), getOverrideReadWritePriority()));
+		m_queue.add(new P_Task_Write(this, characteristic, data, requiresBonding, listener, txnMngr().getCurrent(), getOverrideReadWritePriority()));
 
 		return NULL_READWRITE_EVENT();
 	}
 
 	private ReadWriteListener.ReadWriteEvent disableNotify_private(UUID serviceUuid, UUID characteristicUuid, Double forceReadTimeout, ReadWriteListener listener)
 	{
-		final ReadWriteEvent earlyOutResult = m_serviceMngr.getEarlyOutResult(serviceUuid, characteristicUuid, EMPTY_BYTE_ARRAY, Type.DISABLING_NOTIFICATION, ReadWriteListener.Target.CHARACTERISTIC);
+		final ReadWriteEvent earlyOutResult = getServiceManager().getEarlyOutResult(serviceUuid, characteristicUuid, EMPTY_BYTE_ARRAY, Type.DISABLING_NOTIFICATION, ReadWriteListener.Target.CHARACTERISTIC);
 
 		if (earlyOutResult != null)
 		{
@@ -5451,7 +6509,7 @@ public class BleDevice implements UsesCustomNull
 			return earlyOutResult;
 		}
 
-		P_Characteristic characteristic = m_serviceMngr.getCharacteristic(serviceUuid, characteristicUuid);
+		P_Characteristic characteristic = getServiceManager().getCharacteristic(serviceUuid, characteristicUuid);
 
 		if (characteristic != null && is(CONNECTED))
 		{
@@ -5459,7 +6517,7 @@ public class BleDevice implements UsesCustomNull
 			m_queue.add(new P_Task_ToggleNotify(this, characteristic, /* enable= */false, wrappingListener));
 		}
 
-		m_pollMngr.stopPoll(serviceUuid, characteristicUuid, forceReadTimeout, listener, /* usingNotify= */true);
+		getPollManager().stopPoll(serviceUuid, characteristicUuid, forceReadTimeout, listener, /* usingNotify= */true);
 
 		return NULL_READWRITE_EVENT();
 	}
@@ -5480,7 +6538,7 @@ public class BleDevice implements UsesCustomNull
 	{
 		if (isAny(AUTHENTICATING, INITIALIZING))
 		{
-			m_mngr.ASSERT(m_txnMngr.getCurrent() != null);
+			m_mngr.ASSERT(txnMngr().getCurrent() != null);
 
 			return PE_TaskPriority.FOR_PRIORITY_READS_WRITES;
 		}
@@ -5497,10 +6555,12 @@ public class BleDevice implements UsesCustomNull
 			final EpochTime timestamp = new EpochTime();
 			final BleDeviceConfig.HistoricalDataLogFilter.Source source = event.type().toHistoricalDataSource();
 
-			m_historicalDataMngr.add_single(event.charUuid(), event.data(), timestamp, source);
+			historicalDataMngr().add_single(event.charUuid(), event.data(), timestamp, source);
 		}
 
-		m_txnMngr.onReadWriteResult(event);
+		txnMngr().onReadWriteResult(event);
+
+		m_mngr.m_connectionSlotMngr.onActivity(this);
 
 		if (listener_nullable != null)
 		{
@@ -5517,7 +6577,7 @@ public class BleDevice implements UsesCustomNull
 			getManager().m_defaultReadWriteListener.onEvent(event);
 		}
 
-		m_txnMngr.onReadWriteResultCallbacksCalled();
+		txnMngr().onReadWriteResultCallbacksCalled();
 	}
 
 	ReadWriteListener.ReadWriteEvent NULL_READWRITE_EVENT()
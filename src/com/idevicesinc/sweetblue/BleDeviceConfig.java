@@ -59,6 +59,13 @@ public class BleDeviceConfig implements Cloneable
 	 * Default value for {@link #defaultTxPower}.
 	 */
 	public static final int DEFAULT_TX_POWER							= -50;
+
+	/**
+	 * The MTU every connection starts out with as defined by the spec, which leaves 20 bytes for the payload of a single write.
+	 *
+	 * @see #mtuSize
+	 */
+	public static final int DEFAULT_MTU_SIZE							= 23;
 	
 	/**
 	 * @deprecated Use {@link BleStatuses#GATT_STATUS_NOT_APPLICABLE}.
@@ -374,6 +381,39 @@ public class BleDeviceConfig implements Cloneable
 		}
 	}
 	
+	/**
+	 * Enumerates the ways RSSI samples can be smoothed, see {@link BleDeviceConfig#rssiFilterMode}.
+	 */
+	public static enum RssiFilterMode
+	{
+		/**
+		 * No smoothing, the latest sample is used as-is.
+		 */
+		NONE,
+
+		/**
+		 * Smooths with {@link RssiFilter#newExponentialMovingAverage(double)} using {@link RssiFilter#DEFAULT_EMA_ALPHA}.
+		 */
+		EXPONENTIAL_MOVING_AVERAGE,
+
+		/**
+		 * Smooths with {@link RssiFilter#newKalman(double, double)} using {@link RssiFilter#DEFAULT_KALMAN_PROCESS_NOISE}
+		 * and {@link RssiFilter#DEFAULT_KALMAN_MEASUREMENT_NOISE}. Tracks a stationary device more tightly than
+		 * {@link #EXPONENTIAL_MOVING_AVERAGE} but is slower to follow a moving one.
+		 */
+		KALMAN;
+
+		RssiFilter newFilter()
+		{
+			switch(this)
+			{
+				case EXPONENTIAL_MOVING_AVERAGE:	return RssiFilter.newExponentialMovingAverage(RssiFilter.DEFAULT_EMA_ALPHA);
+				case KALMAN:						return RssiFilter.newKalman(RssiFilter.DEFAULT_KALMAN_PROCESS_NOISE, RssiFilter.DEFAULT_KALMAN_MEASUREMENT_NOISE);
+				default:							return null;
+			}
+		}
+	}
+
 	/**
 	 * An optional interface you can implement on {@link BleDeviceConfig#reconnectRequestFilter_longTerm} 
 	 * and/or {@link BleDeviceConfig#reconnectRequestFilter_shortTerm} to control reconnection behavior.
@@ -747,7 +787,13 @@ public class BleDeviceConfig implements Cloneable
 	{
 		public static final double DEFAULT_TASK_TIMEOUT						= 12.5;
 		
+		/**
+		 * Some remote devices never answer an MTU request, and since a timeout here holds up the rest of the connection process it's kept short.
+		 */
+		public static final double DEFAULT_MTU_TIMEOUT						= 5.0;
+		
 		private static final Please DEFAULT_RETURN_VALUE = Please.setTimeoutFor(Interval.secs(DEFAULT_TASK_TIMEOUT));
+		private static final Please DEFAULT_RETURN_VALUE_MTU = Please.setTimeoutFor(Interval.secs(DEFAULT_MTU_TIMEOUT));
 		
 		@Override public Please onEvent(TimeoutRequestEvent e)
 		{
@@ -755,6 +801,10 @@ public class BleDeviceConfig implements Cloneable
 			{
 				return DEFAULT_RETURN_VALUE;
 			}
+			else if( e.task() == BleTask.REQUEST_MTU )
+			{
+				return DEFAULT_RETURN_VALUE_MTU;
+			}
 			else
 			{
 				return DEFAULT_RETURN_VALUE;
@@ -1092,6 +1142,40 @@ public class BleDeviceConfig implements Cloneable
 	 */
 	@Nullable(Prevalence.NORMAL)
 	public Boolean autoGetServices								= true;
+
+	/**
+	 * Default is <code>null</code> - if set to something bigger than {@link #DEFAULT_MTU_SIZE}, a bigger MTU is requested right after a
+	 * {@link BleDevice} becomes {@link BleDeviceState#CONNECTED}, before services are discovered. Writes bigger than what fits in one packet,
+	 * i.e. {@link BleDevice#getMtu()} minus 3 bytes, are split into chunks of that size and sent as one reliable write, so a bigger MTU
+	 * means a lot fewer round trips for big payloads. The spec allows up to 517, but what you actually get is whatever both sides support,
+	 * see {@link BleDevice#getMtu()}. If the request fails the connection carries on with {@link #DEFAULT_MTU_SIZE}.
+	 * Requires Lollipop (API 21) or higher, ignored otherwise.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	@Nullable(Prevalence.NORMAL)
+	public Integer mtuSize										= null;
+
+	/**
+	 * Default is <code>null</code> - if set, this {@link BleConnectionPriority} is requested once a {@link BleDevice} becomes
+	 * {@link BleDeviceState#INITIALIZED}, and gone back to after every transfer that {@link #connectionPriorityDuringTransfers} bumped up.
+	 * For example {@link BleConnectionPriority#LOW} for a device that you mostly just monitor. <code>null</code> leaves the stack's default
+	 * of {@link BleConnectionPriority#MEDIUM}. {@link BleDevice#requestConnectionPriority(BleConnectionPriority)} overrides this.
+	 * Requires Lollipop (API 21) or higher, ignored otherwise.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	@Nullable(Prevalence.NORMAL)
+	public BleConnectionPriority connectionPriority				= null;
+	
+	/**
+	 * Default is <code>null</code> - if set, this {@link BleConnectionPriority} is requested for as long as a {@link BleDevice} is
+	 * {@link BleDeviceState#PERFORMING_OTA} or is writing a stream with {@link BleDevice#writeStream(UUID, java.io.InputStream, BleStreamOptions, BleDevice.ReadWriteListener)},
+	 * after which the device goes back to {@link #connectionPriority}. {@link BleConnectionPriority#HIGH} is the usual choice, and can
+	 * cut the time a firmware update takes by a lot - see {@link BleDevice#getThroughput(BleConnectionPriority)}.
+	 * Requires Lollipop (API 21) or higher, ignored otherwise.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	@Nullable(Prevalence.NORMAL)
+	public BleConnectionPriority connectionPriorityDuringTransfers	= null;
 	
 	/**
 	 * Default is <code>false</code>se - if true and you call {@link BleDevice#startPoll(UUID, Interval, BleDevice.ReadWriteListener)}
@@ -1250,6 +1334,33 @@ public class BleDeviceConfig implements Cloneable
 	 */
 	@Nullable(Prevalence.NORMAL)
 	public Interval	undiscoveryKeepAlive						= Interval.secs(DEFAULT_SCAN_KEEP_ALIVE);
+
+	/**
+	 * Default is <code>null</code> - if set, a device becomes a candidate for being undiscovered after it misses roughly this many of
+	 * its own expected advertisements, instead of after the fixed {@link #undiscoveryKeepAlive}. The expected time between advertisements
+	 * is learned per-device as it's rediscovered - see {@link BleDevice#getAdvertisingInterval()}. This lets fast-advertising devices be undiscovered
+	 * quickly once they leave while giving slow advertisers the time they need. Until a device has been rediscovered enough times to
+	 * estimate its advertising interval, {@link #undiscoveryKeepAlive} is used as before.
+	 * <br><br>
+	 * NOTE: {@link #undiscoveryKeepAlive} and {@link #minScanTimeNeededForUndiscovery} must still be enabled for any undiscovery to happen.
+	 *
+	 * @see BleDevice#getAdvertisingInterval()
+	 * @see #undiscoveryKeepAlive
+	 */
+	@Nullable(Prevalence.NORMAL)
+	public Integer		undiscoveryMissedAdvertisementCount		= null;
+
+	/**
+	 * Default is {@link Interval#DISABLED} - if set, a device that's already discovered will update its advertising-related state
+	 * and send {@link BleManager.DiscoveryListener.LifeCycle#REDISCOVERED} at most once per this interval, no matter how often it advertises.
+	 * Advertisements in between still update {@link BleDevice#getRssi()} and keep the device from being undiscovered, and their
+	 * RSSI values are aggregated into {@link BleDevice#getRssiMean()}, {@link BleDevice#getRssiMax()} and {@link BleDevice#getRssiSampleCount()}.
+	 * Useful in crowded environments where many devices advertising several times a second would otherwise flood your
+	 * {@link BleManager.DiscoveryListener} and keep the update thread busy.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	@Nullable(Prevalence.NORMAL)
+	public Interval		rediscoveryThrottle						= Interval.DISABLED;
 	
 	/**
 	 * Default is {@link #DEFAULT_RSSI_AUTO_POLL_RATE} - The rate at which a {@link BleDevice} will automatically poll for its {@link BleDevice#getRssi()} value
@@ -1301,6 +1412,15 @@ public class BleDeviceConfig implements Cloneable
 	 */
 	@Nullable(Prevalence.NORMAL)
 	public Integer		rssi_max								= DEFAULT_RSSI_MAX;
+
+	/**
+	 * Default is {@link RssiFilterMode#NONE} - how RSSI samples from advertisements and RSSI reads are smoothed before being used
+	 * for {@link BleDevice#getSmoothedRssi()}, {@link BleDevice#getDistance()} and {@link BleDevice#getRssiPercent()}.
+	 * {@link BleDevice#getRssi()} always returns the raw value of the latest sample.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	@Nullable(Prevalence.NORMAL)
+	public RssiFilterMode	rssiFilterMode						= RssiFilterMode.NONE;
 	
 	/**
 	 * Default is instance of {@link DefaultBondFilter}.
@@ -2,6 +2,8 @@ package com.idevicesinc.sweetblue;
 
 import static com.idevicesinc.sweetblue.BleManagerState.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
@@ -236,6 +238,163 @@ public class BleManager
 		void onEvent(final DiscoveryEvent e);
 	}
 
+	/**
+	 * Provide an implementation to {@link com.idevicesinc.sweetblue.BleManager#setListener_Region(com.idevicesinc.sweetblue.BleManager.RegionListener)}
+	 * to receive callbacks when devices enter, exit, or dwell in a {@link BleRegion} passed to {@link BleManager#startMonitoring(BleRegion)}.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Lambda
+	public static interface RegionListener
+	{
+		/**
+		 * Enumerates the ways a device's relationship to a {@link BleRegion} can change.
+		 * Used at {@link com.idevicesinc.sweetblue.BleManager.RegionListener.RegionEvent#type()}.
+		 */
+		public static enum Type
+		{
+			/**
+			 * The device passed the region's filters and crossed inside its boundary for at least {@link BleRegion#withDebounce(Interval)}.
+			 */
+			ENTER,
+
+			/**
+			 * The device crossed back outside the region's boundary for at least {@link BleRegion#withDebounce(Interval)},
+			 * or was {@link com.idevicesinc.sweetblue.BleManager.DiscoveryListener.LifeCycle#UNDISCOVERED}.
+			 */
+			EXIT,
+
+			/**
+			 * The device has been inside the region for {@link BleRegion#withDwellTime(Interval)}. Sent at most once per {@link #ENTER}.
+			 */
+			DWELL;
+		}
+
+		/**
+		 * Struct passed to {@link com.idevicesinc.sweetblue.BleManager.RegionListener#onEvent(com.idevicesinc.sweetblue.BleManager.RegionListener.RegionEvent)}.
+		 */
+		@Immutable
+		public static class RegionEvent
+		{
+			/**
+			 * The {@link com.idevicesinc.sweetblue.BleManager} monitoring the region.
+			 */
+			public BleManager manager(){  return m_manager;  }
+			private final BleManager m_manager;
+
+			/**
+			 * The device in question.
+			 */
+			public BleDevice device(){  return m_device;  }
+			private final BleDevice m_device;
+
+			/**
+			 * The region in question.
+			 */
+			public BleRegion region(){  return m_region;  }
+			private final BleRegion m_region;
+
+			/**
+			 * What happened.
+			 */
+			public Type type(){  return m_type;  }
+			private final Type m_type;
+
+			public RegionEvent(BleManager manager, BleDevice device, BleRegion region, Type type)
+			{
+				m_manager = manager;
+				m_device = device;
+				m_region = region;
+				m_type = type;
+			}
+
+			/**
+			 * Convenience method for checking equality of given {@link com.idevicesinc.sweetblue.BleManager.RegionListener.Type} and {@link #type()}.
+			 */
+			public boolean was(Type type)
+			{
+				return type == type();
+			}
+
+			@Override public String toString()
+			{
+				return Utils.toString
+				(
+					this.getClass(),
+					"device",				device().getName_debug(),
+					"region",				region().getName(),
+					"type",					type()
+				);
+			}
+		}
+
+		/**
+		 * Called when a device enters, exits, or dwells in a monitored region.
+		 */
+		void onEvent(final RegionEvent e);
+	}
+
+	/**
+	 * Provide an implementation to {@link com.idevicesinc.sweetblue.BleManager#connectAll(List, BleConnectAllOptions, ConnectAllListener)}
+	 * to find out how a batch of connections went once all of them have finished one way or another.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Lambda
+	public static interface ConnectAllListener
+	{
+		/**
+		 * Struct passed to {@link com.idevicesinc.sweetblue.BleManager.ConnectAllListener#onEvent(com.idevicesinc.sweetblue.BleManager.ConnectAllListener.ConnectAllEvent)}.
+		 */
+		@Immutable
+		public static class ConnectAllEvent
+		{
+			/**
+			 * The {@link com.idevicesinc.sweetblue.BleManager} that did the connecting.
+			 */
+			public BleManager manager(){  return m_manager;  }
+			private final BleManager m_manager;
+
+			/**
+			 * The devices that became {@link BleDeviceState#INITIALIZED} (or already were), in the order they got there.
+			 */
+			public List<BleDevice> connected(){  return m_connected;  }
+			private final List<BleDevice> m_connected;
+
+			/**
+			 * The devices that failed to connect or ran out of time, in the order they were given up on.
+			 */
+			public List<BleDevice> failed(){  return m_failed;  }
+			private final List<BleDevice> m_failed;
+
+			public ConnectAllEvent(BleManager manager, List<BleDevice> connected, List<BleDevice> failed)
+			{
+				m_manager = manager;
+				m_connected = Collections.unmodifiableList(connected);
+				m_failed = Collections.unmodifiableList(failed);
+			}
+
+			/**
+			 * Returns <code>true</code> if every device connected.
+			 */
+			public boolean wasSuccess()
+			{
+				return failed().isEmpty();
+			}
+
+			@Override public String toString()
+			{
+				return Utils.toString
+				(
+					this.getClass(),
+					"connected",			connected().size(),
+					"failed",				failed().size()
+				);
+			}
+		}
+
+		/**
+		 * Called once every device in the batch has either connected or failed.
+		 */
+		void onEvent(final ConnectAllEvent e);
+	}
+
 	/**
 	 * Provide an implementation to {@link com.idevicesinc.sweetblue.BleManager#setListener_State(com.idevicesinc.sweetblue.BleManager.StateListener)} to receive callbacks
 	 * when the {@link com.idevicesinc.sweetblue.BleManager} undergoes a {@link BleManagerState} change.
@@ -717,11 +876,20 @@ public class BleManager
 	final Handler m_mainThreadHandler;
 	private final BluetoothManager m_btMngr;
 	private final P_ScanFilterManager m_filterMngr;
-	private final P_BluetoothCrashResolver m_crashResolver;
+	private volatile P_BluetoothCrashResolver m_crashResolver;
+	private final P_StartupProfiler m_startupProfiler = new P_StartupProfiler();
 	private			P_Logger m_logger;
 			  BleManagerConfig m_config;
 		final P_DeviceManager m_deviceMngr;
-		final P_DeviceManager m_deviceMngr_cache;
+		final P_DeviceManager m_deviceMngr_sessions;
+		final P_DeviceCache m_deviceMngr_cache;
+		final P_RegionManager m_regionMngr;
+		final P_ScanScheduler m_scanScheduler;
+		final P_ScanSessionManager m_scanSessionMngr;
+		final P_DeviceRegistry m_deviceRegistry;
+		final P_ConnectionSlotManager m_connectionSlotMngr;
+		final P_PollScheduler m_pollScheduler;
+	private final ArrayList<P_ConnectAllOperation> m_connectAllOps = new ArrayList<P_ConnectAllOperation>();
 	private final P_BleManager_Listeners m_listeners;
 	private final P_BleStateTracker m_stateTracker;
 	private final P_NativeBleStateTracker m_nativeStateTracker;
@@ -745,6 +913,10 @@ public class BleManager
 	private double m_timeForegrounded = 0.0;
 	private double m_timeNotScanning = 0.0;
 	private boolean m_doingInfiniteScan = false;
+	private boolean m_scanningForSessions = false;
+
+	//--- DRK > How much is left of a finite scan the app asked for itself, so that scan sessions holding the radio don't swallow it.
+	private double m_appScanTimeLeft = 0.0;
 	
 	private boolean m_isForegrounded = false;
 	private boolean m_triedToStartScanAfterResume = false;
@@ -767,8 +939,10 @@ public class BleManager
 		m_context = context.getApplicationContext();
 		m_config = config.clone();
 		initLogger();
+		m_startupProfiler.mark("config and logger");
 		m_historicalDatabase = PU_HistoricalData.newDatabase(context, this);
 		m_diskOptionsMngr = new P_DiskOptionsManager(m_context);
+		m_startupProfiler.mark("databases");
 		m_filterMngr = new P_ScanFilterManager(m_config.defaultScanFilter);
 		m_btMngr = (BluetoothManager) m_context.getApplicationContext().getSystemService(Context.BLUETOOTH_SERVICE);
         // Account for unit testing. When using robolectric, the bluetooth manager comes back null. However, it includes
@@ -779,20 +953,74 @@ public class BleManager
         } else {
             nativeState = BleManagerState.get(m_btMngr.getAdapter().getState());
         }
+		m_startupProfiler.mark("native adapter state");
 		m_stateTracker = new P_BleStateTracker(this);
 		m_stateTracker.append(nativeState, E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 		m_nativeStateTracker = new P_NativeBleStateTracker(this);
 		m_nativeStateTracker.append(nativeState, E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 		m_mainThreadHandler = new Handler(m_context.getMainLooper());
 		m_taskQueue = new P_TaskQueue(this);
-		m_crashResolver = new P_BluetoothCrashResolver(m_context);
 		m_deviceMngr = new P_DeviceManager(this);
-		m_deviceMngr_cache = new P_DeviceManager(this);
+		m_deviceMngr_sessions = new P_DeviceManager(this, /*sessionOnly=*/true);
+		m_deviceMngr_cache = new P_DeviceCache(this);
+		m_regionMngr = new P_RegionManager(this);
+		m_scanScheduler = new P_ScanScheduler(this);
+		m_scanSessionMngr = new P_ScanSessionManager(this);
+		m_deviceRegistry = new P_DeviceRegistry(this);
+		m_connectionSlotMngr = new P_ConnectionSlotManager(this);
+		m_pollScheduler = new P_PollScheduler();
 		m_listeners = new P_BleManager_Listeners(this);
+		m_startupProfiler.mark("managers and listeners");
+
+		//--- DRK > Only pay for the crash resolver up front if it's going to be used, otherwise it's created on the first scan result.
+		if( m_config.enableCrashResolver )
+		{
+			getCrashResolver();
+			m_startupProfiler.mark("crash resolver");
+		}
 
 		initConfigDependentMembers();
+		m_startupProfiler.mark("config-dependent members");
+
+		if( m_config.manageDeviceRegistryOnDisk )
+		{
+			m_deviceRegistry.load();
+			m_startupProfiler.mark("device registry (load started)");
+		}
 		
 		m_logger.printBuildInfo();
+		m_startupProfiler.mark("build info");
+		m_startupProfiler.ready();
+
+		if( m_logger.isEnabled() )
+		{
+			m_logger.i(m_startupProfiler.toString());
+		}
+	}
+
+	/**
+	 * Returns a human-readable breakdown of how long it took to create this manager, phase by phase, plus when subsystems that are created
+	 * lazily were first needed and how long they took. Useful for tracking down cold-start latency in widgets, notifications, and the like.
+	 * The same report is logged once construction finishes if {@link BleManagerConfig#loggingEnabled} is <code>true</code>.
+	 */
+	@Advanced
+	public String getStartupProfile()
+	{
+		return m_startupProfiler.toString();
+	}
+
+	private synchronized P_BluetoothCrashResolver newCrashResolver()
+	{
+		if( m_crashResolver == null )
+		{
+			final long startTime = System.nanoTime();
+
+			m_crashResolver = new P_BluetoothCrashResolver(m_context);
+
+			m_startupProfiler.lazy("crash resolver", startTime);
+		}
+
+		return m_crashResolver;
 	}
 	
 	/**
@@ -1036,6 +1264,49 @@ public class BleManager
 		m_stateTracker.setListener(listener_nullable);
 	}
 
+	/**
+	 * Set a listener here to be notified whenever a {@link BleDevice} enters, exits, or dwells in a {@link BleRegion}
+	 * passed to {@link #startMonitoring(BleRegion)}.
+	 */
+	public void setListener_Region(@Nullable(Prevalence.NORMAL) RegionListener listener_nullable)
+	{
+		if( listener_nullable != null )
+		{
+			m_regionMngr.setListener(new P_WrappingRegionListener(listener_nullable, m_mainThreadHandler, m_config.postCallbacksToMainThread));
+		}
+		else
+		{
+			m_regionMngr.setListener(null);
+		}
+	}
+
+	/**
+	 * Starts evaluating the given region against every advertisement received while scanning,
+	 * resulting in calls to the listener set with {@link #setListener_Region(RegionListener)}.
+	 * Returns <code>false</code> if the region is already monitored or too many regions are monitored already.
+	 */
+	public boolean startMonitoring(final BleRegion region)
+	{
+		return m_regionMngr.startMonitoring(region);
+	}
+
+	/**
+	 * Stops monitoring a region passed to {@link #startMonitoring(BleRegion)}. No {@link RegionListener.Type#EXIT} events are
+	 * sent for devices that were inside it. Returns <code>false</code> if the region wasn't being monitored.
+	 */
+	public boolean stopMonitoring(final BleRegion region)
+	{
+		return m_regionMngr.stopMonitoring(region);
+	}
+
+	/**
+	 * Returns whether the given region was passed to {@link #startMonitoring(BleRegion)} and hasn't been stopped since.
+	 */
+	public boolean isMonitoring(final BleRegion region)
+	{
+		return m_regionMngr.isMonitoring(region);
+	}
+
 	/**
 	 * Convenience method to listen for all changes in {@link BleDeviceState} for all devices.
 	 * The listener provided will get called in addition to and after the listener, if any, provided
@@ -1161,6 +1432,7 @@ public class BleManager
 
 		m_config.autoScanTime = scanActiveTime;
 		m_config.autoScanInterval = scanPauseTime;
+		m_scanScheduler.reset();
 
 		if( Interval.isEnabled(m_config.autoScanTime) )
 		{
@@ -1252,6 +1524,7 @@ public class BleManager
 		if( !is(ON) )  return;
 
 		m_doingInfiniteScan = scanTime.equals(Interval.INFINITE);
+		m_appScanTimeLeft = m_doingInfiniteScan ? 0.0 : scanTime.secs();
 
 		if( discoveryListener != null )
 		{
@@ -1260,11 +1533,20 @@ public class BleManager
 
 		m_filterMngr.add(filter);
 
+		startScan_private(scanTime.secs());
+	}
+
+	private void startScan_private(final double scanTime)
+	{
 		P_Task_Scan scanTask = m_taskQueue.get(P_Task_Scan.class, this);
 
 		if( scanTask != null )
 		{
-			scanTask.resetTimeout(scanTime.secs());
+			//--- DRK > Scan sessions own the radio until they're all paused, so a shorter scan request can't cut them off.
+			if( !m_scanningForSessions || scanTime == Interval.INFINITE.secs() )
+			{
+				scanTask.resetTimeout(scanTime);
+			}
 		}
 		else
 		{
@@ -1272,7 +1554,90 @@ public class BleManager
 
 			m_stateTracker.append(BleManagerState.SCANNING, E_Intent.INTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 
-			m_taskQueue.add(new P_Task_Scan(this, m_listeners.getScanTaskListener(), scanTime.secs()));
+			m_taskQueue.add(new P_Task_Scan(this, m_listeners.getScanTaskListener(), scanTime));
+		}
+	}
+
+	/**
+	 * Starts a {@link BleScanSession}. Sessions are independent of each other and of {@link #startScan()}, {@link #stopScan()},
+	 * and periodic scanning - the native scan is kept running for as long as any session is in a scan phase, and calling {@link #stopScan()}
+	 * or {@link #onPause()} won't stop it until every session is paused or stopped through {@link #stopScanSession(BleScanSession)}.
+	 * Returns <code>false</code> if the session is already running or too many sessions are running already.
+	 * <br><br>
+	 * Devices that only a session's filter accepted, and not {@link BleManagerConfig#defaultScanFilter} or a filter passed to {@link #startScan()}
+	 * and friends, are reported to that session's listener alone. They don't show up in {@link #getDevices_List()} and similar methods
+	 * or in {@link #setListener_Discovery(DiscoveryListener)} unless you create them yourself with {@link #newDevice(String)}.
+	 */
+	public boolean startScanSession(final BleScanSession session)
+	{
+		if( !m_scanSessionMngr.start(session) )  return false;
+
+		updateScanForSessions();
+
+		return true;
+	}
+
+	/**
+	 * Stops a session passed to {@link #startScanSession(BleScanSession)}. The native scan stops too if no other session or explicit scan
+	 * needs it. Returns <code>false</code> if the session wasn't running.
+	 */
+	public boolean stopScanSession(final BleScanSession session)
+	{
+		if( !m_scanSessionMngr.stop(session) )  return false;
+
+		//--- DRK > Nobody is left to hear about devices that only sessions wanted.
+		if( !m_scanSessionMngr.hasSessions() )
+		{
+			m_deviceMngr_sessions.undiscoverAndRemoveIdle(null, E_Intent.INTENTIONAL);
+		}
+
+		updateScanForSessions();
+
+		return true;
+	}
+
+	/**
+	 * Returns whether the given session was passed to {@link #startScanSession(BleScanSession)} and hasn't been stopped since.
+	 */
+	public boolean isScanSessionActive(final BleScanSession session)
+	{
+		return m_scanSessionMngr.isActive(session);
+	}
+
+	private void updateScanForSessions()
+	{
+		if( m_scanSessionMngr.isScanNeeded() )
+		{
+			if( !is(ON) )  return;
+
+			if( !m_scanningForSessions || !is(SCANNING) )
+			{
+				m_scanningForSessions = true;
+				m_timeNotScanning = 0.0;
+
+				startScan_private(Interval.INFINITE.secs());
+			}
+		}
+		else if( m_scanningForSessions )
+		{
+			m_scanningForSessions = false;
+
+			if( !is(SCANNING) || m_doingInfiniteScan )  return;
+
+			if( m_appScanTimeLeft > 0.0 )
+			{
+				//--- DRK > The app's own scan is still going, so it gets whatever was left of its window back.
+				final P_Task_Scan scanTask = m_taskQueue.get(P_Task_Scan.class, this);
+
+				if( scanTask != null )
+				{
+					scanTask.resetTimeout(m_appScanTimeLeft);
+				}
+			}
+			else
+			{
+				stopScan_private(E_Intent.INTENTIONAL);
+			}
 		}
 	}
 
@@ -1417,6 +1782,41 @@ public class BleManager
 		m_deviceMngr.unbondAll(null, Status.CANCELLED_FROM_UNBOND);
 	}
 
+	/**
+	 * Overload of {@link #connectAll(List, BleConnectAllOptions, ConnectAllListener)} that uses default options.
+	 */
+	public void connectAll(final List<BleDevice> devices, @Nullable(Prevalence.NORMAL) final ConnectAllListener listener_nullable)
+	{
+		connectAll(devices, null, listener_nullable);
+	}
+
+	/**
+	 * Connects to a batch of devices, keeping at most {@link BleConnectAllOptions#withConcurrency(int)} of them connecting at once, in the order
+	 * given by {@link BleConnectAllOptions#withOrdering(BleConnectAllOptions.Ordering)}. Each device gets {@link BleConnectAllOptions#withAttemptTimeout(Interval)}
+	 * to become {@link BleDeviceState#INITIALIZED} once its turn actually comes, after which it's disconnected and skipped, so one unreachable device doesn't hold
+	 * up the rest of the batch. The listener is called once when every device has either connected or failed. Each device still goes through
+	 * {@link BleDevice#connect()}, so any {@link BleDevice.StateListener} and {@link BleDevice.ConnectionFailListener} you've set on them are called as usual.
+	 */
+	public void connectAll(final List<BleDevice> devices, @Nullable(Prevalence.NORMAL) final BleConnectAllOptions options_nullable, @Nullable(Prevalence.NORMAL) final ConnectAllListener listener_nullable)
+	{
+		if( devices == null )  return;
+
+		final BleConnectAllOptions options = options_nullable != null ? options_nullable : new BleConnectAllOptions();
+		final ConnectAllListener listener = listener_nullable != null ? new P_WrappingConnectAllListener(listener_nullable, m_mainThreadHandler, m_config.postCallbacksToMainThread) : null;
+		final P_ConnectAllOperation operation = new P_ConnectAllOperation(this, devices, options, listener);
+
+		getUpdateLoop().postIfNeeded(new Runnable()
+		{
+			@Override public void run()
+			{
+				if( !operation.update(0.0) )
+				{
+					m_connectAllOps.add(operation);
+				}
+			}
+		});
+	}
+
 	/**
 	 * Disconnects all devices that are {@link BleDeviceState#CONNECTED}.
 	 * Essentially a convenience method for calling {@link com.idevicesinc.sweetblue.BleDevice#disconnect()},
@@ -1469,6 +1869,7 @@ public class BleManager
 		m_triedToStartScanAfterResume = false;
 		m_isForegrounded = true;
 		m_timeForegrounded = 0.0;
+		m_scanScheduler.reset();
 
 		if( m_doingInfiniteScan )
 		{
@@ -1494,6 +1895,7 @@ public class BleManager
 		m_triedToStartScanAfterResume = false;
 		m_isForegrounded = false;
 		m_timeForegrounded = 0.0;
+		m_scanScheduler.reset();
 
 		if( m_config.stopScanOnPause && is(SCANNING) )
 		{
@@ -1548,6 +1950,9 @@ public class BleManager
 	private void stopScan_private(E_Intent intent)
 	{
 		m_timeNotScanning = 0.0;
+		m_appScanTimeLeft = 0.0;
+
+		if( m_scanningForSessions && m_scanSessionMngr.isScanNeeded() )  return;
 
 		if( !m_taskQueue.succeed(P_Task_Scan.class, this) )
 		{
@@ -1594,6 +1999,16 @@ public class BleManager
 		return m_deviceMngr.has(device);
 	}
 
+	/**
+	 * Like {@link #hasDevice_private(BleDevice)} but also counts devices only a scan session knows about.
+	 */
+	boolean isManaging(final BleDevice device)
+	{
+		final String macAddress = device.getMacAddress();
+
+		return m_deviceMngr.get(macAddress) == device || m_deviceMngr_sessions.get(macAddress) == device;
+	}
+
 	/**
 	 * Returns the first device that is in the given state, or {@link BleDevice#NULL} if no match is found.
 	 */
@@ -1734,6 +2149,42 @@ public class BleManager
 		return (List<BleDevice>) m_deviceMngr.getList().clone();
 	}
 
+	/**
+	 * Returns all devices sorted by {@link BleDevice#getSmoothedRssi()}, strongest signal first.
+	 * The sort order is maintained incrementally as RSSI values come in, so unlike sorting {@link #getDevices_List()}
+	 * yourself there's no sort involved here.
+	 * <br><br>
+	 * NOTE: The returned list is a snapshot, copied while holding the lock that RSSI updates from discovery also take.
+	 * It's safe to iterate and modify from any thread but won't reflect later RSSI changes. Each call allocates a new
+	 * list and costs O(n) in the number of devices, so prefer {@link #getDevices_nearest(int)} or
+	 * {@link #getDevices_aboveRssi(double)} if you only need the top of the list, especially when calling every frame.
+	 */
+	@Advanced
+	public @Nullable(Prevalence.NEVER) List<BleDevice> getDevices_byProximity()
+	{
+		return m_deviceMngr.getProximityIndex().getAll();
+	}
+
+	/**
+	 * Same as {@link #getDevices_byProximity()} but only includes up to the given number of devices with the strongest signal.
+	 * Also a snapshot copied under the same lock, but only costs O(count) regardless of how many devices are discovered.
+	 */
+	@Advanced
+	public @Nullable(Prevalence.NEVER) List<BleDevice> getDevices_nearest(final int count)
+	{
+		return m_deviceMngr.getProximityIndex().getNearest(count);
+	}
+
+	/**
+	 * Same as {@link #getDevices_byProximity()} but only includes devices whose {@link BleDevice#getSmoothedRssi()} is at least the given value.
+	 * Also a snapshot copied under the same lock, costing O(log n) to find the cutoff plus O(k) in the number of devices returned.
+	 */
+	@Advanced
+	public @Nullable(Prevalence.NEVER) List<BleDevice> getDevices_aboveRssi(final double rssi)
+	{
+		return m_deviceMngr.getProximityIndex().getAtLeast(rssi);
+	}
+
 	/**
 	 * Returns the total number of devices this manager is...managing.
 	 * This includes all devices that are {@link BleDeviceState#DISCOVERED}.
@@ -1760,6 +2211,77 @@ public class BleManager
 		return m_deviceMngr.getCount(query);
 	}
 
+	/**
+	 * Returns the number of {@link BleDeviceState#UNDISCOVERED} devices currently held in memory because of {@link BleDeviceConfig#cacheDeviceOnUndiscovery}.
+	 *
+	 * @see BleManagerConfig#maxCachedDevices
+	 */
+	@Advanced
+	public int getCachedDeviceCount()
+	{
+		return m_deviceMngr_cache.getCount();
+	}
+
+	/**
+	 * Returns how many times a device was rediscovered or created with {@link #newDevice(String)} and the instance was reused from
+	 * the cache described in {@link BleDeviceConfig#cacheDeviceOnUndiscovery}.
+	 *
+	 * @see #getDeviceCacheMissCount()
+	 * @see #getDeviceCacheEvictionCount()
+	 */
+	@Advanced
+	public long getDeviceCacheHitCount()
+	{
+		return m_deviceMngr_cache.getHitCount();
+	}
+
+	/**
+	 * Returns how many times a new {@link BleDevice} instance had to be created because none was found in the cache.
+	 *
+	 * @see #getDeviceCacheHitCount()
+	 */
+	@Advanced
+	public long getDeviceCacheMissCount()
+	{
+		return m_deviceMngr_cache.getMissCount();
+	}
+
+	/**
+	 * Returns how many devices have been evicted from the cache because of {@link BleManagerConfig#maxCachedDevices}
+	 * or {@link BleManagerConfig#maxCachedDeviceAge}. If this climbs steadily while {@link #getDeviceCacheHitCount()} stays low,
+	 * the cache is probably churning through devices you'll never see again and can be made smaller.
+	 *
+	 * @see #getDeviceCacheHitCount()
+	 */
+	@Advanced
+	public long getDeviceCacheEvictionCount()
+	{
+		return m_deviceMngr_cache.getEvictionCount();
+	}
+
+	/**
+	 * Returns how many devices are currently waiting for a connection slot because of {@link BleManagerConfig#maxConnections}.
+	 *
+	 * @see #getConnectionSlotEvictionCount()
+	 */
+	@Advanced
+	public int getConnectionSlotWaitingCount()
+	{
+		return m_connectionSlotMngr.getWaitingCount();
+	}
+
+	/**
+	 * Returns how many idle devices have been disconnected to make room for another connection because of {@link BleManagerConfig#maxConnections}.
+	 * If this climbs quickly you're probably rotating through more devices than the limit comfortably allows.
+	 *
+	 * @see #getConnectionSlotWaitingCount()
+	 */
+	@Advanced
+	public long getConnectionSlotEvictionCount()
+	{
+		return m_connectionSlotMngr.getEvictionCount();
+	}
+
 	/**
 	 * Accessor into the underlying array used to store {@link BleDevice} instances.
 	 * Combine with {@link #getDeviceCount()} to iterate, or you may want to use the
@@ -2008,6 +2530,23 @@ public class BleManager
 
 		return newDevice;
 	}
+
+	/**
+	 * Recreates a device from {@link P_DeviceRegistry} without an explicit name override, so the native name and advertisement behave
+	 * as if they came from a scan. Does nothing if the device already exists, e.g. it was discovered before the registry finished loading.
+	 */
+	void newDevice_restored(final String macAddress, final String name_native, final byte[] scanRecord, final int rssi)
+	{
+		if( !this.getDevice(macAddress).isNull() )  return;
+
+		final BluetoothDevice device_native = newNativeDevice(macAddress);
+
+		if( device_native == null )  return;
+
+		final BleDevice newDevice = newDevice_private(device_native, Utils.normalizeDeviceName(name_native), name_native, BleDeviceOrigin.EXPLICIT, null);
+
+		onDiscovered_wrapItUp(newDevice, /*newlyDiscovered=*/true, Utils_ScanRecord.parseServiceUuids(scanRecord), scanRecord, rssi, BleDeviceOrigin.EXPLICIT);
+	}
 	
 	BluetoothDevice newNativeDevice(final String macAddress)
 	{
@@ -2026,7 +2565,7 @@ public class BleManager
 	{
 		if( device == null )							return false;
 		if( device.isNull() )							return false;
-		if( !hasDevice(device) )						return false;
+		if( !hasDevice(device) && !m_deviceMngr_sessions.has(device) )	return false;
 		if( device.is(BleDeviceState.UNDISCOVERED) )	return false;
 
 		if( device.is(BleDeviceState.CONNECTED) )
@@ -2034,7 +2573,17 @@ public class BleManager
 			device.disconnect();
 		}
 
-		m_deviceMngr.undiscoverAndRemove(device, m_discoveryListener, m_deviceMngr_cache, E_Intent.INTENTIONAL);
+		m_deviceRegistry.forget(device.getMacAddress());
+		m_connectionSlotMngr.cancel(device);
+
+		if( m_deviceMngr_sessions.has(device) )
+		{
+			m_deviceMngr_sessions.undiscoverAndRemove(device, /*discoveryListener=*/null, /*cache=*/null, E_Intent.INTENTIONAL);
+		}
+		else
+		{
+			m_deviceMngr.undiscoverAndRemove(device, m_discoveryListener, m_deviceMngr_cache, E_Intent.INTENTIONAL);
+		}
 
 		return true;
 	}
@@ -2055,11 +2604,13 @@ public class BleManager
 	 * @see com.idevicesinc.sweetblue.BleDeviceConfig#manageLastDisconnectOnDisk
 	 * @see com.idevicesinc.sweetblue.BleDeviceConfig#tryBondingWhileDisconnected_manageOnDisk
 	 * @see com.idevicesinc.sweetblue.BleDeviceConfig#saveNameChangesToDisk
+	 * @see com.idevicesinc.sweetblue.BleManagerConfig#manageDeviceRegistryOnDisk
 	 * @see #clearSharedPreferences()
 	 */
 	public void clearSharedPreferences(final String macAddress)
 	{
 		m_diskOptionsMngr.clear(macAddress);
+		m_deviceRegistry.forget(macAddress);
 	}
 
 	/**
@@ -2068,18 +2619,21 @@ public class BleManager
 	 * @see com.idevicesinc.sweetblue.BleDeviceConfig#manageLastDisconnectOnDisk
 	 * @see com.idevicesinc.sweetblue.BleDeviceConfig#tryBondingWhileDisconnected_manageOnDisk
 	 * @see com.idevicesinc.sweetblue.BleDeviceConfig#saveNameChangesToDisk
+	 * @see com.idevicesinc.sweetblue.BleManagerConfig#manageDeviceRegistryOnDisk
 	 * @see #clearSharedPreferences(String)
 	 */
 	public void clearSharedPreferences()
 	{
 		m_diskOptionsMngr.clear();
+		m_deviceRegistry.clear();
 	}
 
 	//--- DRK > Smooshing together a bunch of package-private accessors here.
 	P_BleStateTracker			getStateTracker(){				return m_stateTracker;				}
 	P_NativeBleStateTracker		getNativeStateTracker(){		return m_nativeStateTracker;		}
 	public UpdateLoop			getUpdateLoop(){				return m_updateLoop;				}
-	P_BluetoothCrashResolver	getCrashResolver(){				return m_crashResolver;				}
+	P_BluetoothCrashResolver	getCrashResolver(){				return m_crashResolver != null ? m_crashResolver : newCrashResolver();	}
+	P_StartupProfiler			getStartupProfiler(){			return m_startupProfiler;			}
 	P_TaskQueue					getTaskQueue(){					return m_taskQueue;					}
 	P_Logger					getLogger(){					return m_logger;					}
 
@@ -2117,7 +2671,7 @@ public class BleManager
 						m_nativeStateTracker.append(RESETTING, E_Intent.INTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 					}
 
-					m_deviceMngr.undiscoverAllForTurnOff(m_deviceMngr_cache, E_Intent.INTENTIONAL);
+					undiscoverAllForTurnOff(E_Intent.INTENTIONAL);
 				}
 			}
 		});
@@ -2148,7 +2702,7 @@ public class BleManager
 
 		if( m_config.enableCrashResolverForReset )
 		{
-			m_taskQueue.add(new P_Task_CrashResolver(BleManager.this, m_crashResolver));
+			m_taskQueue.add(new P_Task_CrashResolver(BleManager.this, getCrashResolver()));
 		}
 
 		turnOff(/*removeAllBonds=*/true);
@@ -2283,7 +2837,7 @@ public class BleManager
 			
 			if( m_config.enableCrashResolver )
 			{
-				m_crashResolver.start();
+				getCrashResolver().start();
 			}
 
 			m_nativeStateTracker.append(BleManagerState.SCANNING, intent, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
@@ -2343,6 +2897,18 @@ public class BleManager
 		String macAddress = device_native.getAddress();
 		BleDevice device = m_deviceMngr.get(macAddress);
 
+		if( device == null )
+		{
+			final BleDevice device_sessionOnly = m_deviceMngr_sessions.get(macAddress);
+
+			if( device_sessionOnly != null )
+			{
+				onDiscovered_sessionOnly(device_sessionOnly, /*newlyDiscovered=*/false, null, scanRecord_nullable, rssi);
+
+				return;
+			}
+		}
+
 		if ( device == null )
     	{
 //    		m_logger.i("Discovered device " + loggedDeviceName + " " + macAddress + " not in list.");
@@ -2375,9 +2941,26 @@ public class BleManager
 	    	deviceName = deviceName != null ? deviceName : "";
 	    	boolean hitDisk = BleDeviceConfig.boolOrDefault(m_config.manageLastDisconnectOnDisk);
 	    	State.ChangeIntent lastDisconnectIntent = m_diskOptionsMngr.loadLastDisconnect(macAddress, hitDisk);
-	    	please = m_filterMngr.allow(m_logger, device_native, services_nullable, deviceName, normalizedDeviceName, scanRecord, rssi, lastDisconnectIntent);
+	    	final Please please_filterMngr = m_filterMngr.allow(m_logger, device_native, services_nullable, deviceName, normalizedDeviceName, scanRecord, rssi, lastDisconnectIntent);
+
+	    	if( please_filterMngr != null && !please_filterMngr.ack() )
+	    	{
+	    		final Please please_session = m_scanSessionMngr.allow(device_native, services_nullable, deviceName, normalizedDeviceName, scanRecord, rssi, lastDisconnectIntent);
+
+	    		if( please_session == null )  return;
+
+	    		//--- DRK > The app-wide filters said no, so only the sessions that asked for this device get to hear about it.
+	    		final BleDevice device_sessionOnly = new BleDevice(BleManager.this, device_native, normalizedDeviceName, device_native.getName(), BleDeviceOrigin.FROM_DISCOVERY, please_session.getConfig(), /*isNull=*/false);
+	    		m_deviceMngr_sessions.add(device_sessionOnly);
 
-	    	if( please != null && !please.ack() )  return;
+	    		onDiscovered_sessionOnly(device_sessionOnly, /*newlyDiscovered=*/true, services_nullable, scanRecord_nullable, rssi);
+
+	    		return;
+	    	}
+	    	else
+	    	{
+	    		please = please_filterMngr;
+	    	}
 		}
 		else
 		{
@@ -2407,13 +2990,22 @@ public class BleManager
 		
 		final BleDevice device_cached;
 		
-		if( hitCache )
+		//--- DRK > A device so far only known to scan sessions is moved over rather than duplicated, e.g. when the app creates it explicitly.
+		final BleDevice device_sessionOnly = m_deviceMngr_sessions.get(device_native.getAddress());
+		
+		if( device_sessionOnly != null )
+		{
+			m_deviceMngr_sessions.remove(device_sessionOnly, /*cache=*/null);
+			device_sessionOnly.setConfig(config_nullable);
+			
+			device_cached = device_sessionOnly;
+		}
+		else if( hitCache )
 		{
-			device_cached = m_deviceMngr_cache.get(device_native.getAddress());
+			device_cached = m_deviceMngr_cache.take(device_native.getAddress());
 			
 			if( device_cached != null )
 			{
-				m_deviceMngr_cache.remove(device_cached, null);
 				device_cached.setConfig(config_nullable);
 			}
 		}
@@ -2439,28 +3031,60 @@ public class BleManager
 		onDiscovered_wrapItUp(device, newlyDiscovered, services_nullable, scanRecord_nullable, rssi, BleDeviceOrigin.FROM_DISCOVERY);
 	}
 
+	private void onDiscovered_sessionOnly(final BleDevice device, final boolean newlyDiscovered, final List<UUID> services_nullable, final byte[] scanRecord_nullable, final int rssi)
+	{
+		if( newlyDiscovered )
+		{
+			device.onNewlyDiscovered(services_nullable, rssi, scanRecord_nullable, BleDeviceOrigin.FROM_DISCOVERY);
+
+			m_scanSessionMngr.onEvent(device, LifeCycle.DISCOVERED);
+		}
+		else if( device.onRediscovered(services_nullable, rssi, scanRecord_nullable, BleDeviceOrigin.FROM_DISCOVERY) )
+		{
+			m_scanSessionMngr.onEvent(device, LifeCycle.REDISCOVERED);
+		}
+	}
+
     private void onDiscovered_wrapItUp(final BleDevice device, final boolean newlyDiscovered, final List<UUID> services_nullable, final byte[] scanRecord_nullable, final int rssi, final BleDeviceOrigin origin)
     {
     	if( newlyDiscovered )
     	{
     		device.onNewlyDiscovered(services_nullable, rssi, scanRecord_nullable, origin);
 
+    		if( origin == BleDeviceOrigin.FROM_DISCOVERY )
+    		{
+    			m_scanScheduler.onActivity();
+    		}
+
     		if( m_discoveryListener != null )
     		{
     			DiscoveryEvent event = new DiscoveryEvent(this, device, LifeCycle.DISCOVERED);
     			m_discoveryListener.onEvent(event);
     		}
+
+    		m_scanSessionMngr.onEvent(device, LifeCycle.DISCOVERED);
     	}
     	else
     	{
-    		device.onRediscovered(services_nullable, rssi, scanRecord_nullable, BleDeviceOrigin.FROM_DISCOVERY);
+    		final boolean reported = device.onRediscovered(services_nullable, rssi, scanRecord_nullable, BleDeviceOrigin.FROM_DISCOVERY);
 
-    		if( m_discoveryListener != null )
+    		if( reported )
     		{
-    			DiscoveryEvent event = new DiscoveryEvent(this, device, LifeCycle.REDISCOVERED);
-    			m_discoveryListener.onEvent(event);
+    			if( m_discoveryListener != null )
+    			{
+    				DiscoveryEvent event = new DiscoveryEvent(this, device, LifeCycle.REDISCOVERED);
+    				m_discoveryListener.onEvent(event);
+    			}
+
+    			m_scanSessionMngr.onEvent(device, LifeCycle.REDISCOVERED);
     		}
     	}
+
+    	if( origin == BleDeviceOrigin.FROM_DISCOVERY )
+    	{
+    		m_regionMngr.onAdvertisement(device);
+    		m_deviceRegistry.onSeen(device, /*add=*/false);
+    	}
     }
 
 	void stopNativeScan(final P_Task_Scan scanTask)
@@ -2496,17 +3120,26 @@ public class BleManager
 
 		if( m_config.enableCrashResolver )
 		{
-			m_crashResolver.stop();
+			getCrashResolver().stop();
 		}
 
 		m_nativeStateTracker.remove(BleManagerState.SCANNING, scanTask.isExplicit() ? E_Intent.INTENTIONAL : E_Intent.UNINTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 	}
 
+	void undiscoverAllForTurnOff(final E_Intent intent)
+	{
+		m_deviceMngr.undiscoverAllForTurnOff(m_deviceMngr_cache, intent);
+		m_deviceMngr_sessions.undiscoverAllForTurnOff(null, intent);
+	}
+
 	void clearScanningRelatedMembers(final E_Intent intent)
 	{
 //		m_filterMngr.clear();
 
 		m_timeNotScanning = 0.0;
+		m_scanningForSessions = false;
+		m_appScanTimeLeft = 0.0;
+		m_scanScheduler.onScanEnded();
 
 		m_stateTracker.remove(BleManagerState.SCANNING, intent, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 	}
@@ -2514,6 +3147,7 @@ public class BleManager
 	void tryPurgingStaleDevices(final double scanTime)
 	{
 		m_deviceMngr.purgeStaleDevices(scanTime, m_deviceMngr_cache, m_discoveryListener);
+		m_deviceMngr_sessions.purgeStaleDevices(scanTime, null, null);
 	}
 
 	/**
@@ -2542,6 +3176,32 @@ public class BleManager
 		}
 
 		m_deviceMngr.update(timeStep);
+		m_deviceMngr_sessions.update(timeStep);
+		m_deviceMngr_cache.update(timeStep);
+		m_pollScheduler.update(timeStep);
+		m_regionMngr.update(timeStep);
+		m_connectionSlotMngr.update(timeStep);
+
+		for( int i = m_connectAllOps.size()-1; i >= 0; i-- )
+		{
+			if( m_connectAllOps.get(i).update(timeStep) )
+			{
+				m_connectAllOps.remove(i);
+			}
+		}
+
+		if( m_appScanTimeLeft > 0.0 )
+		{
+			m_appScanTimeLeft = Math.max(0.0, m_appScanTimeLeft - timeStep);
+		}
+
+		m_scanSessionMngr.update(timeStep);
+		updateScanForSessions();
+
+		if( m_config.manageDeviceRegistryOnDisk )
+		{
+			m_deviceRegistry.update(timeStep);
+		}
 
 		if( !is(SCANNING) )
 		{
@@ -2563,7 +3223,7 @@ public class BleManager
 			}
 			else if( !is(SCANNING) )
 			{
-				double scanInterval = Interval.secs(m_isForegrounded ? m_config.autoScanInterval : m_config.autoScanIntervalWhileAppIsPaused);
+				double scanInterval = m_scanScheduler.getInterval(m_isForegrounded);
 
 				if( Interval.isEnabled(scanInterval) && m_timeNotScanning >= scanInterval )
 				{
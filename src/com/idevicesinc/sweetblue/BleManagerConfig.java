@@ -35,6 +35,7 @@ public class BleManagerConfig extends BleDeviceConfig
 	public static final double DEFAULT_AUTO_SCAN_DELAY_AFTER_RESUME 	= 0.5;
 	public static final double DEFAULT_AUTO_UPDATE_RATE					= 1.01/30.0;
 	public static final double DEFAULT_UH_OH_CALLBACK_THROTTLE			= 30.0;
+	public static final int DEFAULT_MAX_CACHED_DEVICES					= 256;
 	
 	static final BleManagerConfig NULL = new BleManagerConfig();
 	
@@ -285,6 +286,17 @@ public class BleManagerConfig extends BleDeviceConfig
 	@com.idevicesinc.sweetblue.annotations.Advanced
 	public boolean enableCrashResolverForReset			= true;
 	
+	/**
+	 * Default is <code>false</code> - if <code>true</code>, devices that you connect to are remembered in a small file along with their
+	 * last name, advertisement, rssi, bonding need, and last disconnect intent. The next time the app process starts, that file is
+	 * read in the background and each device is recreated with {@link BleDeviceOrigin#EXPLICIT} right after {@link BleManager#get(android.content.Context)},
+	 * so you can call {@link BleDevice#connect()} on it without having to scan for it first. Listen for {@link BleManager.DiscoveryListener.LifeCycle#DISCOVERED}
+	 * to know when they're available. {@link BleManager#undiscover(BleDevice)} and {@link BleManager#clearSharedPreferences()} (and overloads) remove
+	 * devices from the file.
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public boolean manageDeviceRegistryOnDisk			= false;
+	
 	/**
 	 * Default is <code>true</code> - makes it so {@link BleManager#stopScan()} is called automatically after {@link BleManager#onPause()}.
 	 * If you're doing an infinite scan (e.g. by calling {@link BleManager#startScan()}, i.e. no timeout), then the scan
@@ -399,6 +411,20 @@ public class BleManagerConfig extends BleDeviceConfig
 	@Nullable(Prevalence.NORMAL)
 	public Interval autoScanIntervalWhileAppIsPaused	= Interval.DISABLED;
 
+	/**
+	 * Default is {@link Interval#DISABLED} - If enabled, the pause between automatic scan pulses adapts to what's going on around you.
+	 * Every pulse that finds no new devices and causes no {@link BleManager.RegionListener} transitions doubles the pause, up to this value,
+	 * starting from {@link #autoScanInterval} (or {@link #autoScanIntervalWhileAppIsPaused} while the app is paused). As soon as something new
+	 * shows up the pause drops back down to that starting value. This keeps discovery latency low while devices are coming and going,
+	 * at a fraction of the radio-on time once things settle down.
+	 *
+	 * @see #autoScanInterval
+	 * @see #autoScanIntervalWhileAppIsPaused
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	@Nullable(Prevalence.NORMAL)
+	public Interval autoScanIntervalMax					= Interval.DISABLED;
+
 	/**
 	 * Default is {@link #DEFAULT_MINIMUM_SCAN_TIME} seconds - Minimum amount of time in seconds that the library strives to give to a scanning operation.
 	 */
@@ -415,6 +441,42 @@ public class BleManagerConfig extends BleDeviceConfig
 	@Nullable(Prevalence.RARE)
 	public Interval autoUpdateRate						= Interval.secs(DEFAULT_AUTO_UPDATE_RATE);
 
+	/**
+	 * Default is {@link #DEFAULT_MAX_CACHED_DEVICES} - the maximum number of undiscovered devices kept around in memory
+	 * when {@link BleDeviceConfig#cacheDeviceOnUndiscovery} is <code>true</code>. When the cache is full, the device that was
+	 * undiscovered the longest time ago is evicted and its resources released. Use {@link BleManager#getDeviceCacheEvictionCount()}
+	 * and friends to tune this for your environment. A value of zero or less disables caching altogether.
+	 *
+	 * @see #maxCachedDeviceAge
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public int maxCachedDevices							= DEFAULT_MAX_CACHED_DEVICES;
+
+	/**
+	 * Default is <code>0</code> - the maximum number of devices that can be connected or connecting at the same time. Android stacks
+	 * generally top out somewhere around 7, after which further connections fail in ways that are hard to tell apart from a device just
+	 * being out of range. When the limit is hit, {@link BleDevice#connect()} (and overloads) first disconnects the least recently used
+	 * device that's {@link BleDeviceState#INITIALIZED} and idle, meaning it has no queued reads, writes, or other tasks, nothing being polled
+	 * or notified, and no running {@link BleTransaction}. If no device is idle, the connect waits in a first-come-first-served queue and
+	 * starts automatically once a slot frees up. Calling {@link BleDevice#disconnect()} takes a device out of that queue. Reconnects handled
+	 * by SweetBlue itself don't wait but do count against the limit. A value of zero or less means no limit.
+	 *
+	 * @see BleManager#getConnectionSlotWaitingCount()
+	 * @see BleManager#getConnectionSlotEvictionCount()
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	public int maxConnections							= 0;
+
+	/**
+	 * Default is {@link Interval#DISABLED} - if enabled, undiscovered devices are evicted from the cache described in
+	 * {@link BleDeviceConfig#cacheDeviceOnUndiscovery} after they have been in it for this long, regardless of {@link #maxCachedDevices}.
+	 *
+	 * @see #maxCachedDevices
+	 */
+	@com.idevicesinc.sweetblue.annotations.Advanced
+	@Nullable(Prevalence.NORMAL)
+	public Interval maxCachedDeviceAge					= Interval.DISABLED;
+
 	/**
 	 * Default is <code>null</code>, meaning no filtering - all discovered devices will
 	 * be piped through your {@link BleManager.DiscoveryListener} instance
@@ -0,0 +1,229 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.idevicesinc.sweetblue.annotations.Nullable;
+import com.idevicesinc.sweetblue.annotations.Nullable.Prevalence;
+import com.idevicesinc.sweetblue.utils.Distance;
+import com.idevicesinc.sweetblue.utils.Interval;
+import com.idevicesinc.sweetblue.utils.LongKeyedMap;
+import com.idevicesinc.sweetblue.utils.Utils;
+import com.idevicesinc.sweetblue.utils.Utils_ScanRecord;
+
+/**
+ * Describes a set of devices plus a signal strength or distance boundary to pass to {@link BleManager#startMonitoring(BleRegion)}.
+ * A device is in the region while it passes all of the given filters and is inside the boundary, see {@link BleManager.RegionListener}
+ * for the events you'll get as devices come and go. Configure a region with the various <code>with*()</code> methods before you
+ * start monitoring it - changing it afterwards has undefined results.
+ * <br><br>
+ * Filters that aren't set match every device. If neither {@link #withRssi(int, int)} nor {@link #withDistance(Distance, Distance)} is
+ * used then a device is in the region for as long as it's {@link BleDeviceState#DISCOVERED}.
+ */
+public class BleRegion
+{
+	private final String m_name;
+
+	private UUID[] m_serviceUuids = null;
+	private int m_manufacturerId = -1;
+	private byte[] m_manufacturerDataPrefix = null;
+	private LongKeyedMap<Boolean> m_macAddresses = null;
+
+	private boolean m_useRssi = false;
+	private int m_enterRssi;
+	private int m_exitRssi;
+
+	private boolean m_useDistance = false;
+	private double m_enterMeters;
+	private double m_exitMeters;
+
+	private Interval m_debounce = Interval.ZERO;
+	private Interval m_dwellTime = Interval.DISABLED;
+
+	/**
+	 * Creates a region that initially matches every device. The name is just for your own identification and logging purposes.
+	 */
+	public BleRegion(@Nullable(Prevalence.NORMAL) final String name)
+	{
+		m_name = name != null ? name : "";
+	}
+
+	/**
+	 * Returns the name passed to {@link #BleRegion(String)}.
+	 */
+	public @Nullable(Prevalence.NEVER) String getName()
+	{
+		return m_name;
+	}
+
+	/**
+	 * Only devices advertising at least one of the given service uuids will be in the region.
+	 */
+	public BleRegion withServiceUuids(final UUID ... serviceUuids)
+	{
+		m_serviceUuids = serviceUuids != null && serviceUuids.length > 0 ? serviceUuids.clone() : null;
+
+		return this;
+	}
+
+	/**
+	 * Only devices whose scan record contains manufacturer-specific data for the given company identifier will be in the region.
+	 * If a prefix is given, the manufacturer data (not including the company identifier) must also start with it.
+	 */
+	public BleRegion withManufacturerData(final int companyId, @Nullable(Prevalence.NORMAL) final byte[] dataPrefix_nullable)
+	{
+		m_manufacturerId = companyId;
+		m_manufacturerDataPrefix = dataPrefix_nullable != null ? dataPrefix_nullable.clone() : null;
+
+		return this;
+	}
+
+	/**
+	 * Only devices with one of the given mac addresses will be in the region.
+	 */
+	public BleRegion withMacAddresses(final String ... macAddresses)
+	{
+		if( macAddresses == null || macAddresses.length == 0 )
+		{
+			m_macAddresses = null;
+		}
+		else
+		{
+			m_macAddresses = new LongKeyedMap<Boolean>(macAddresses.length);
+
+			for( int i = 0; i < macAddresses.length; i++ )
+			{
+				m_macAddresses.put(Utils.macAddressToLong(macAddresses[i]), Boolean.TRUE);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * A device enters the region once its {@link BleDevice#getSmoothedRssi()} is at least <code>enterRssi</code>, and exits once it drops
+	 * below <code>exitRssi</code>. Make <code>exitRssi</code> a few dBm lower than <code>enterRssi</code> so that a device sitting right at the
+	 * boundary doesn't keep flapping in and out. Overrides {@link #withDistance(Distance, Distance)}.
+	 */
+	public BleRegion withRssi(final int enterRssi, final int exitRssi)
+	{
+		m_useRssi = true;
+		m_useDistance = false;
+		m_enterRssi = enterRssi;
+		m_exitRssi = Math.min(exitRssi, enterRssi);
+
+		return this;
+	}
+
+	/**
+	 * Same idea as {@link #withRssi(int, int)} but using {@link BleDevice#getDistance()}. A device enters the region once it's within
+	 * <code>enterDistance</code> and exits once it's further away than <code>exitDistance</code>.
+	 */
+	public BleRegion withDistance(final Distance enterDistance, final Distance exitDistance)
+	{
+		m_useDistance = true;
+		m_useRssi = false;
+		m_enterMeters = enterDistance.meters();
+		m_exitMeters = Math.max(exitDistance.meters(), m_enterMeters);
+
+		return this;
+	}
+
+	/**
+	 * A device has to stay on the other side of the boundary for this long before {@link BleManager.RegionListener.Type#ENTER}
+	 * or {@link BleManager.RegionListener.Type#EXIT} is sent. Default is {@link Interval#ZERO}.
+	 */
+	public BleRegion withDebounce(final Interval debounce)
+	{
+		m_debounce = debounce != null ? debounce : Interval.ZERO;
+
+		return this;
+	}
+
+	/**
+	 * If set, {@link BleManager.RegionListener.Type#DWELL} is sent once a device has been in the region for this long.
+	 * Default is {@link Interval#DISABLED}.
+	 */
+	public BleRegion withDwellTime(final Interval dwellTime)
+	{
+		m_dwellTime = dwellTime != null ? dwellTime : Interval.DISABLED;
+
+		return this;
+	}
+
+	boolean matchesFilter(final BleDevice device)
+	{
+		if( m_macAddresses != null && !m_macAddresses.containsKey(Utils.macAddressToLong(device.getMacAddress())) )
+		{
+			return false;
+		}
+
+		if( m_serviceUuids != null && !matchesServiceUuids(device.getAdvertisedServices_internal()) )
+		{
+			return false;
+		}
+
+		if( m_manufacturerId >= 0 && !Utils_ScanRecord.hasManufacturerData(device.getScanRecord(), m_manufacturerId, m_manufacturerDataPrefix) )
+		{
+			return false;
+		}
+
+		return true;
+	}
+
+	private boolean matchesServiceUuids(final List<UUID> advertisedServices)
+	{
+		for( int i = 0; i < m_serviceUuids.length; i++ )
+		{
+			if( advertisedServices.contains(m_serviceUuids[i]) )  return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Whether the device is inside the signal boundary, taking hysteresis into account based on whether it was inside before.
+	 */
+	boolean isInsideBoundary(final BleDevice device, final boolean wasInside)
+	{
+		if( m_useRssi )
+		{
+			final double rssi = device.getSmoothedRssi();
+
+			return wasInside ? rssi >= m_exitRssi : rssi >= m_enterRssi;
+		}
+		else if( m_useDistance )
+		{
+			final double meters = device.getDistance().meters();
+
+			if( meters < 0.0 )  return false;
+
+			return wasInside ? meters <= m_exitMeters : meters <= m_enterMeters;
+		}
+		else
+		{
+			return true;
+		}
+	}
+
+	long getDebounceMillis()
+	{
+		return Interval.isDisabled(m_debounce) ? 0 : m_debounce.millis();
+	}
+
+	long getDwellMillis()
+	{
+		return Interval.isDisabled(m_dwellTime) ? -1 : m_dwellTime.millis();
+	}
+
+	@Override public String toString()
+	{
+		return Utils.toString
+		(
+			this.getClass(),
+			"name",				getName(),
+			"debounce",			m_debounce,
+			"dwellTime",		m_dwellTime
+		);
+	}
+}
@@ -0,0 +1,121 @@
+package com.idevicesinc.sweetblue;
+
+import com.idevicesinc.sweetblue.BleManager.DiscoveryListener;
+import com.idevicesinc.sweetblue.BleManagerConfig.ScanFilter;
+import com.idevicesinc.sweetblue.annotations.Nullable;
+import com.idevicesinc.sweetblue.annotations.Nullable.Prevalence;
+import com.idevicesinc.sweetblue.utils.Interval;
+import com.idevicesinc.sweetblue.utils.Utils;
+
+/**
+ * One consumer's interest in scanning, to pass to {@link BleManager#startScanSession(BleScanSession)}. Different parts of an app
+ * (a pairing screen, a background sync, some proximity feature) can each run their own session with their own filter, listener,
+ * and duty cycle without stepping on each other through {@link BleManager#startScan()} and {@link BleManager#stopScan()}.
+ * {@link BleManager} merges all active sessions into a single native scan that runs whenever at least one of them wants it to,
+ * and only routes discovery events to sessions whose filter accepted the device. Configure a session with the various
+ * <code>with*()</code> methods before you start it - changing it afterwards has undefined results.
+ */
+public class BleScanSession
+{
+	private final String m_name;
+
+	private ScanFilter m_filter = null;
+	private DiscoveryListener m_listener = null;
+
+	private Interval m_scanTime = Interval.INFINITE;
+	private Interval m_pauseTime = Interval.DISABLED;
+
+	//--- DRK > Runtime state owned by P_ScanSessionManager.
+	DiscoveryListener m_listener_wrapped = null;
+	boolean m_inScanPhase = false;
+	double m_timeInPhase = 0.0;
+
+	/**
+	 * Creates a session that scans continuously and accepts every device. The name is just for your own identification and logging purposes.
+	 */
+	public BleScanSession(@Nullable(Prevalence.NORMAL) final String name)
+	{
+		m_name = name != null ? name : "";
+	}
+
+	/**
+	 * Returns the name passed to {@link #BleScanSession(String)}.
+	 */
+	public @Nullable(Prevalence.NEVER) String getName()
+	{
+		return m_name;
+	}
+
+	/**
+	 * Only devices acknowledged by this filter are routed to this session's listener. A session without a filter gets events for every device.
+	 * Devices rejected by {@link BleManagerConfig#defaultScanFilter} and any filter passed to {@link BleManager#startScan(ScanFilter)} are still
+	 * discovered if a session's filter acknowledges them.
+	 */
+	public BleScanSession withFilter(@Nullable(Prevalence.NORMAL) final ScanFilter filter_nullable)
+	{
+		m_filter = filter_nullable;
+
+		return this;
+	}
+
+	/**
+	 * Sets the listener that gets {@link DiscoveryListener.DiscoveryEvent}s for devices accepted by {@link #withFilter(ScanFilter)}.
+	 * This is independent of {@link BleManager#setListener_Discovery(DiscoveryListener)}, which keeps getting events for every device.
+	 */
+	public BleScanSession withListener(@Nullable(Prevalence.NORMAL) final DiscoveryListener listener_nullable)
+	{
+		m_listener = listener_nullable;
+
+		return this;
+	}
+
+	/**
+	 * Makes this session ask for scanning for <code>scanTime</code>, then not for <code>pauseTime</code>, repeating until it's stopped.
+	 * Default is to scan continuously, which is also what you get if either value is <code>null</code> or {@link Interval#DISABLED}, or if
+	 * <code>scanTime</code> is {@link Interval#INFINITE}. Note that a session still gets events during its pauses if another session keeps
+	 * the radio on - they're free at that point.
+	 */
+	public BleScanSession withDutyCycle(@Nullable(Prevalence.NORMAL) final Interval scanTime, @Nullable(Prevalence.NORMAL) final Interval pauseTime)
+	{
+		m_scanTime = scanTime != null ? scanTime : Interval.INFINITE;
+		m_pauseTime = pauseTime != null ? pauseTime : Interval.DISABLED;
+
+		return this;
+	}
+
+	ScanFilter getFilter()
+	{
+		return m_filter;
+	}
+
+	DiscoveryListener getListener()
+	{
+		return m_listener;
+	}
+
+	boolean isContinuous()
+	{
+		return Interval.isDisabled(m_scanTime) || m_scanTime.equals(Interval.INFINITE) || Interval.isDisabled(m_pauseTime);
+	}
+
+	double getScanTime()
+	{
+		return m_scanTime.secs();
+	}
+
+	double getPauseTime()
+	{
+		return m_pauseTime.secs();
+	}
+
+	@Override public String toString()
+	{
+		return Utils.toString
+		(
+			this.getClass(),
+			"name",				getName(),
+			"scanTime",			m_scanTime,
+			"pauseTime",		m_pauseTime
+		);
+	}
+}
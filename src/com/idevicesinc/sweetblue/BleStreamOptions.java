@@ -0,0 +1,80 @@
+package com.idevicesinc.sweetblue;
+
+import com.idevicesinc.sweetblue.annotations.Nullable;
+import com.idevicesinc.sweetblue.annotations.Nullable.Prevalence;
+import com.idevicesinc.sweetblue.utils.Utils;
+
+/**
+ * Tunes how {@link BleDevice#writeStream(java.util.UUID, java.io.InputStream, BleStreamOptions, BleDevice.ReadWriteListener)} (and overloads)
+ * pushes data out. Configure with the various <code>with*()</code> methods before passing it in - changing it afterwards has undefined results.
+ */
+public class BleStreamOptions
+{
+	/**
+	 * Default value for {@link #withWindow(int)}.
+	 */
+	public static final int DEFAULT_WINDOW						= 4;
+
+	private int m_window = DEFAULT_WINDOW;
+	private int m_checkpointBytes = 0;
+	private BleDevice.StreamListener m_progressListener = null;
+
+	/**
+	 * The maximum number of packets handed to the native stack that it hasn't yet confirmed with a write callback. Each callback returns
+	 * one credit. Note that many Android versions only accept one outstanding operation per connection no matter what, in which case a
+	 * refused packet is simply retried on the next update instead of failing the stream. Values less than one are treated as one.
+	 */
+	public BleStreamOptions withWindow(final int window)
+	{
+		m_window = Math.max(1, window);
+
+		return this;
+	}
+
+	/**
+	 * If bigger than zero, roughly every this many bytes one packet is sent as a normal acknowledged write, and streaming pauses until the
+	 * remote device confirms it. Useful so a slow receiver can't silently fall behind, at the cost of a round trip per checkpoint.
+	 * Only applies if the characteristic supports normal writes too. Default is zero, meaning no checkpoints.
+	 */
+	public BleStreamOptions withCheckpointEvery(final int bytes)
+	{
+		m_checkpointBytes = Math.max(0, bytes);
+
+		return this;
+	}
+
+	/**
+	 * Gets periodic {@link BleDevice.StreamListener.StreamEvent}s with how far along the stream is and the throughput achieved so far.
+	 */
+	public BleStreamOptions withProgressListener(@Nullable(Prevalence.NORMAL) final BleDevice.StreamListener listener_nullable)
+	{
+		m_progressListener = listener_nullable;
+
+		return this;
+	}
+
+	int getWindow()
+	{
+		return m_window;
+	}
+
+	int getCheckpointBytes()
+	{
+		return m_checkpointBytes;
+	}
+
+	BleDevice.StreamListener getProgressListener()
+	{
+		return m_progressListener;
+	}
+
+	@Override public String toString()
+	{
+		return Utils.toString
+		(
+			this.getClass(),
+			"window",				m_window,
+			"checkpointBytes",		m_checkpointBytes
+		);
+	}
+}
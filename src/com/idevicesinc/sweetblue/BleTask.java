@@ -69,7 +69,18 @@ public enum BleTask
 	/**
 	 * Associated with discovering services after a {@link BleDevice} becomes {@link BleDeviceState#CONNECTED}.
 	 */
-	DISCOVER_SERVICES;
+	DISCOVER_SERVICES,
+	
+	/**
+	 * Associated with negotiating a bigger MTU after a {@link BleDevice} becomes {@link BleDeviceState#CONNECTED}, see {@link BleDeviceConfig#mtuSize}.
+	 */
+	REQUEST_MTU,
+	
+	/**
+	 * Associated with {@link BleDevice#requestConnectionPriority(BleConnectionPriority)}, {@link BleDeviceConfig#connectionPriority},
+	 * and {@link BleDeviceConfig#connectionPriorityDuringTransfers}.
+	 */
+	SET_CONNECTION_PRIORITY;
 	
 	/**
 	 * Returns whether <code>this</code> is associated with a {@link BleDevice}.
@@ -193,7 +193,7 @@ public abstract class BleTransaction
 	 */
 	protected final boolean fail()
 	{
-		final ReadWriteListener.ReadWriteEvent failReason = m_device.m_txnMngr.m_failReason;
+		final ReadWriteListener.ReadWriteEvent failReason = m_device.txnMngr().m_failReason;
 		
 		return this.end(EndReason.FAILED, failReason);
 	}
@@ -360,6 +360,15 @@ class P_BleDevice_Listeners extends BluetoothGattCallback
 		{
 			@Override public void run_nested()
 			{
+				P_Task_ReadMany readManyTask = m_queue.getCurrent(P_Task_ReadMany.class, m_device);
+				
+				if (readManyTask != null)
+				{
+					readManyTask.onCharacteristicRead(gatt, uuid, value, status);
+					
+					return;
+				}
+				
 				P_Task_Read readTask = m_queue.getCurrent(P_Task_Read.class, m_device);
 		
 				if (readTask == null)  return;
@@ -381,6 +390,15 @@ class P_BleDevice_Listeners extends BluetoothGattCallback
 		{
 			@Override public void run_nested()
 			{
+				P_Task_WriteStream task_stream = m_queue.getCurrent(P_Task_WriteStream.class, m_device);
+				
+				if (task_stream != null)
+				{
+					task_stream.onCharacteristicWrite(gatt, uuid, status);
+					
+					return;
+				}
+				
 				P_Task_Write task = m_queue.getCurrent(P_Task_Write.class, m_device);
 		
 				if (task == null)  return;
@@ -431,6 +449,32 @@ class P_BleDevice_Listeners extends BluetoothGattCallback
 		});
 	}
 	
+	//--- DRK > Not marked @Override since BluetoothGattCallback only declares this as of API 21, which is newer than what we build
+	//---		against. Signature matches exactly, so the stack still calls it on devices that have it.
+	public void onMtuChanged(final BluetoothGatt gatt, final int mtu, final int gattStatus)
+	{
+		m_logger.log_status(gattStatus, "mtu=" + mtu);
+		
+		UpdateLoop updater = m_device.getManager().getUpdateLoop();
+		
+		updater.postIfNeeded(new SynchronizedRunnable()
+		{
+			@Override public void run_nested()
+			{
+				if( Utils.isSuccess(gattStatus) )
+				{
+					m_device.updateMtu(mtu);
+				}
+				
+				P_Task_RequestMtu task = m_queue.getCurrent(P_Task_RequestMtu.class, m_device);
+				
+				if (task == null)  return;
+		
+				task.onMtuChanged(gatt, mtu, gattStatus);
+			}
+		});
+	}
+	
 	@Override public void onDescriptorWrite(final BluetoothGatt gatt, BluetoothGattDescriptor descriptor, final int status)
 	{
 		final UUID uuid = descriptor.getUuid();
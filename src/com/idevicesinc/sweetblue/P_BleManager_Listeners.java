@@ -236,7 +236,7 @@ class P_BleManager_Listeners
 			//--- DRK > Should have already been handled by the "turning off" event, but this is just to be 
 			//---		sure all devices are cleared in case something weird happens and we go straight
 			//---		from ON to OFF or something.
-			m_mngr.m_deviceMngr.undiscoverAllForTurnOff(m_mngr.m_deviceMngr_cache, intent);
+			m_mngr.undiscoverAllForTurnOff(intent);
 		}
 		else if( newNativeState == BluetoothAdapter.STATE_TURNING_ON )
 		{
@@ -259,7 +259,7 @@ class P_BleManager_Listeners
 		{
 			if( !m_taskQueue.isCurrent(P_Task_TurnBleOff.class, m_mngr) )
 			{
-				m_mngr.m_deviceMngr.undiscoverAllForTurnOff(m_mngr.m_deviceMngr_cache, E_Intent.UNINTENTIONAL);
+				m_mngr.undiscoverAllForTurnOff(E_Intent.UNINTENTIONAL);
 				m_taskQueue.add(new P_Task_TurnBleOff(m_mngr, /*implicit=*/true));
 				intent = E_Intent.UNINTENTIONAL;
 			}
@@ -375,9 +375,13 @@ class P_BleManager_Listeners
 			//--- DRK > Got an NPE here when restarting the app through the debugger. Pretty sure it's an impossible case
 			//---		for actual app usage cause the listeners member of the device is final. So some memory corruption issue
 			//---		associated with debugging most likely...still gating it for the hell of it.
-			if( device.getListeners() != null )
+			//--- DRK > Also null for devices that have only advertised so far. Those pick up bond state from the native
+			//---		device on their next discovery, so no need to promote every device in range just to tell them.
+			final P_BleDevice_Listeners listeners = device.getListeners_ifPromoted();
+
+			if( listeners != null )
 			{
-				device.getListeners().onNativeBondStateChanged(previousState, newState, failReason);
+				listeners.onNativeBondStateChanged(previousState, newState, failReason);
 			}
 		}
 		
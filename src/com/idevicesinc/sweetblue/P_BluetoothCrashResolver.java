@@ -1,14 +1,19 @@
 package com.idevicesinc.sweetblue;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
 
 import android.annotation.TargetApi;
 import android.bluetooth.BluetoothAdapter;
@@ -20,6 +25,9 @@ import android.content.IntentFilter;
 import android.os.AsyncTask;
 import android.util.Log;
 
+import com.idevicesinc.sweetblue.utils.LongKeyedMap;
+import com.idevicesinc.sweetblue.utils.Utils;
+
 /**
  *
  * This class provides relief for Android Bug 67272.  This bug in the Bluedroid stack causes crashes
@@ -45,9 +53,24 @@ class P_BluetoothCrashResolver {
     private static final boolean PREEMPTIVE_ACTION_ENABLED = true;
     private boolean debugEnabled = false;
     /**
-     * This is not the same file that bluedroid uses.  This is just to maintain state of this module
+     * This is not the same file that bluedroid uses.  This is just to maintain state of this module.
+     * It's a snapshot of the counters plus every distinct address packed into 6 bytes.
+     */
+    private static final String STATE_FILE = "BluetoothCrashResolverState.bin";
+    /**
+     * Addresses seen since the last snapshot, appended 6 bytes at a time so that new devices don't
+     * require rewriting the whole set.  Folded back into the snapshot once it grows too long.
      */
-    private static final String DISTINCT_BLUETOOTH_ADDRESSES_FILE = "BluetoothCrashResolverState.txt";
+    private static final String JOURNAL_FILE = "BluetoothCrashResolverState.journal";
+    /**
+     * Text format used by older versions, migrated to the binary format the first time it's found.
+     */
+    private static final String LEGACY_STATE_FILE = "BluetoothCrashResolverState.txt";
+    private static final int STATE_FILE_MAGIC = 0x53424352;
+    private static final int STATE_FILE_VERSION = 1;
+    private static final int MAC_ADDRESS_BYTES = 6;
+    private static final int JOURNAL_FLUSH_COUNT = 32;
+    private static final int JOURNAL_COMPACTION_COUNT = 512;
     private boolean recoveryInProgress = false;
     private boolean discoveryStartConfirmed = false;
 
@@ -62,7 +85,18 @@ class P_BluetoothCrashResolver {
 
     private Context context = null;
     private UpdateNotifier updateNotifier;
-    private Set<String> distinctBluetoothAddresses = new HashSet<String>();
+    // keyed by packed mac address so that tracking every scan result doesn't hash strings; used as a set.
+    // also serves as the lock for everything to do with persisting it.
+    private final LongKeyedMap<Boolean> distinctBluetoothAddresses = new LongKeyedMap<Boolean>();
+    // addresses added since the last journal write. until loading finishes this just keeps growing.
+    private long[] pendingJournal = new long[JOURNAL_FLUSH_COUNT];
+    private int pendingJournalCount = 0;
+    private int journalCount = 0;
+    private boolean stateLoaded = false;
+    // set while a background journal write is queued, so a burst of scan results only starts one.
+    private boolean journalFlushScheduled = false;
+    // bumped whenever a recovery forgets the addresses, so a load that started earlier knows not to bring them back.
+    private int recoveryGeneration = 0;
     private DiscoveryCanceller discoveryCanceller = new DiscoveryCanceller();
     /**
      // It is very likely a crash if Bluetooth turns off and comes
@@ -105,7 +139,7 @@ class P_BluetoothCrashResolver {
     public P_BluetoothCrashResolver(Context context) {
         this.context = context.getApplicationContext();
         if (isDebugEnabled()) Log.d(TAG, "constructed");
-        loadState();
+        loadStateAsync();
     }
 
     /**
@@ -139,7 +173,10 @@ class P_BluetoothCrashResolver {
 		}
     	
         if (isDebugEnabled()) Log.d(TAG, "stopped listening for BluetoothAdapter events");
-        saveState();
+        // this happens every time a scan stops, so just append what's new instead of rewriting everything, and not on the caller's thread.
+        synchronized (distinctBluetoothAddresses) {
+            if (stateLoaded) flushJournalAsync();
+        }
     }
 
     /**
@@ -175,20 +212,23 @@ class P_BluetoothCrashResolver {
      */
     @TargetApi(18)
     public void notifyScannedDevice(BluetoothDevice device, BluetoothAdapter.LeScanCallback scanner) {
-        int oldSize = 0, newSize = 0;
+        final long mac = Utils.macAddressToLong(device.getAddress());
+        final int size;
 
-        if (isDebugEnabled()) oldSize = distinctBluetoothAddresses.size();
+        synchronized (distinctBluetoothAddresses) {
+            if (distinctBluetoothAddresses.put(mac, Boolean.TRUE) == null) {
+                journal(mac);
 
-        distinctBluetoothAddresses.add(device.getAddress());
-        if (isDebugEnabled()) {
-            newSize = distinctBluetoothAddresses.size();
-            if (oldSize != newSize && newSize % 100 == 0) {
-                if (isDebugEnabled()) Log.d(TAG, "Distinct bluetooth devices seen: "+distinctBluetoothAddresses.size());
+                if (isDebugEnabled() && distinctBluetoothAddresses.size() % 100 == 0) {
+                    Log.d(TAG, "Distinct bluetooth devices seen: "+distinctBluetoothAddresses.size());
+                }
             }
+            size = distinctBluetoothAddresses.size();
         }
-        if (distinctBluetoothAddresses.size()  > getCrashRiskDeviceCount()) {
+
+        if (size > getCrashRiskDeviceCount()) {
             if (PREEMPTIVE_ACTION_ENABLED && !recoveryInProgress) {
-                Log.w(TAG, "Large number of bluetooth devices detected: "+distinctBluetoothAddresses.size()+" Proactively attempting to clear out address list to prevent a crash");
+                Log.w(TAG, "Large number of bluetooth devices detected: "+size+" Proactively attempting to clear out address list to prevent a crash");
                 Log.w(TAG, "Stopping LE Scan");
                 BluetoothAdapter.getDefaultAdapter().stopLeScan(scanner);
                 startRecovery();
@@ -306,8 +346,14 @@ class P_BluetoothCrashResolver {
     }
     private void finishRecovery() {
         Log.w(TAG, "Recovery attempt finished");
-        distinctBluetoothAddresses.clear();
+        synchronized (distinctBluetoothAddresses) {
+            distinctBluetoothAddresses.clear();
+            pendingJournalCount = 0;
+            recoveryGeneration++;
+        }
         recoveryInProgress = false;
+        // the journal still holds the addresses we just forgot, so compact right away.
+        saveState();
     }
 
     private final BroadcastReceiver receiver = new BroadcastReceiver() {
@@ -365,83 +411,324 @@ class P_BluetoothCrashResolver {
 
 
     private void saveState() {
-        FileOutputStream outputStream = null;
-        OutputStreamWriter writer = null;
         lastStateSaveTime = new Date().getTime();
 
-        try {
-            outputStream = context.openFileOutput(DISTINCT_BLUETOOTH_ADDRESSES_FILE, Context.MODE_PRIVATE);
-            writer = new OutputStreamWriter(outputStream);
-            writer.write(lastBluetoothCrashDetectionTime+"\n");
-            writer.write(detectedCrashCount+"\n");
-            writer.write(recoveryAttemptCount+"\n");
-            writer.write(lastRecoverySucceeded ? "1\n" : "0\n");
-            synchronized (distinctBluetoothAddresses) {
-                for (String mac : distinctBluetoothAddresses) {
-                    writer.write(mac);
-                    writer.write("\n");
+        synchronized (distinctBluetoothAddresses) {
+            // nothing to compact into until the existing state is read back in.
+            if (!stateLoaded) return;
+
+            writeSnapshot();
+        }
+    }
+
+    private void journal(final long mac) {
+        // keeps growing until loading finishes or the background write gets to it.
+        if (pendingJournalCount == pendingJournal.length) {
+            pendingJournal = Arrays.copyOf(pendingJournal, pendingJournal.length * 2);
+        }
+
+        pendingJournal[pendingJournalCount++] = mac;
+
+        if (pendingJournalCount >= JOURNAL_FLUSH_COUNT && stateLoaded) {
+            flushJournalAsync();
+        }
+    }
+
+    // this gets called from the scan callback, so the file write is handed off to a background thread like the load.
+    private void flushJournalAsync() {
+        if (journalFlushScheduled || pendingJournalCount == 0) return;
+
+        journalFlushScheduled = true;
+
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (distinctBluetoothAddresses) {
+                    journalFlushScheduled = false;
+                    flushJournal();
                 }
             }
+        }, TAG);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void flushJournal() {
+        if (pendingJournalCount == 0) return;
+
+        if (journalCount + pendingJournalCount > JOURNAL_COMPACTION_COUNT) {
+            writeSnapshot();
+
+            return;
+        }
+
+        OutputStream outputStream = null;
+
+        try {
+            final byte[] bytes = new byte[pendingJournalCount * MAC_ADDRESS_BYTES];
+            for (int i = 0; i < pendingJournalCount; i++) {
+                writeMacAddress(bytes, i * MAC_ADDRESS_BYTES, pendingJournal[i]);
+            }
+            outputStream = context.openFileOutput(JOURNAL_FILE, Context.MODE_PRIVATE | Context.MODE_APPEND);
+            outputStream.write(bytes);
+            journalCount += pendingJournalCount;
+            pendingJournalCount = 0;
         } catch (IOException e) {
-//            Log.w(TAG, "Can't write macs to "+DISTINCT_BLUETOOTH_ADDRESSES_FILE);
+//            Log.w(TAG, "Can't append macs to "+JOURNAL_FILE);
         }
         finally {
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch (IOException e1) { }
+            close(outputStream);
+        }
+    }
+
+    private void writeSnapshot() {
+        final File file = context.getFileStreamPath(STATE_FILE);
+        final File file_temp = context.getFileStreamPath(STATE_FILE + ".tmp");
+        DataOutputStream writer = null;
+        boolean written = false;
+
+        try {
+            final long[] macs = distinctBluetoothAddresses.keys();
+            final byte[] bytes = new byte[macs.length * MAC_ADDRESS_BYTES];
+            for (int i = 0; i < macs.length; i++) {
+                writeMacAddress(bytes, i * MAC_ADDRESS_BYTES, macs[i]);
             }
+
+            writer = new DataOutputStream(new BufferedOutputStream(context.openFileOutput(file_temp.getName(), Context.MODE_PRIVATE)));
+            writer.writeInt(STATE_FILE_MAGIC);
+            writer.writeInt(STATE_FILE_VERSION);
+            writer.writeLong(lastBluetoothCrashDetectionTime);
+            writer.writeInt(detectedCrashCount);
+            writer.writeInt(recoveryAttemptCount);
+            writer.writeBoolean(lastRecoverySucceeded);
+            writer.writeInt(macs.length);
+            writer.write(bytes);
+            writer.close();
+            writer = null;
+
+            // renaming over the old snapshot means a crash mid-write can't leave a truncated file behind.
+            written = file_temp.renameTo(file);
+        } catch (IOException e) {
+//            Log.w(TAG, "Can't write macs to "+STATE_FILE);
+        }
+        finally {
+            close(writer);
         }
-        if (isDebugEnabled()) Log.d(TAG, "Wrote "+distinctBluetoothAddresses.size()+" bluetooth addresses");
 
+        if (written) {
+            context.deleteFile(JOURNAL_FILE);
+            journalCount = 0;
+            pendingJournalCount = 0;
+
+            if (isDebugEnabled()) Log.d(TAG, "Wrote "+distinctBluetoothAddresses.size()+" bluetooth addresses");
+        }
+    }
+
+    private void loadStateAsync() {
+        // reading the state touches disk, so keep it off whatever thread is constructing BleManager.
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loadState();
+            }
+        }, TAG);
+        thread.setDaemon(true);
+        thread.start();
     }
 
     private void loadState() {
+        final LongKeyedMap<Boolean> macs = new LongKeyedMap<Boolean>();
+        final PersistedState state = new PersistedState();
+        boolean migrated = false;
+        final int generation;
+
+        synchronized (distinctBluetoothAddresses) {
+            generation = recoveryGeneration;
+        }
+
+        if (context.getFileStreamPath(STATE_FILE).exists()) {
+            readSnapshot(state, macs);
+        }
+        else if (context.getFileStreamPath(LEGACY_STATE_FILE).exists()) {
+            readLegacyState(state, macs);
+            migrated = true;
+        }
+
+        final int journalRecords = readJournal(state, macs);
+
+        synchronized (distinctBluetoothAddresses) {
+            // anything that happened while we were loading takes precedence or is added on top.
+            lastBluetoothCrashDetectionTime = Math.max(lastBluetoothCrashDetectionTime, state.lastBluetoothCrashDetectionTime);
+            detectedCrashCount += state.detectedCrashCount;
+            recoveryAttemptCount += state.recoveryAttemptCount;
+            lastRecoverySucceeded |= state.lastRecoverySucceeded;
+
+            // a recovery that finished while we were reading already forgot these addresses, and so did the bluetooth stack.
+            final boolean recovered = generation != recoveryGeneration;
+
+            if (!recovered) {
+                final long[] keys = macs.keys();
+                for (int i = 0; i < keys.length; i++) {
+                    distinctBluetoothAddresses.put(keys[i], Boolean.TRUE);
+                }
+            }
+
+            journalCount = journalRecords;
+            stateLoaded = true;
+
+            // recovery couldn't compact while we were loading, so the files on disk still hold what it dropped.
+            // a torn journal has to be rewritten too, since appending after the fragment would misalign every record that follows.
+            if (migrated || recovered || state.journalTorn) {
+                writeSnapshot();
+                if (migrated) context.deleteFile(LEGACY_STATE_FILE);
+            }
+            else {
+                flushJournal();
+            }
+        }
+
+        if (isDebugEnabled()) Log.d(TAG, "Read "+macs.size()+" bluetooth addresses");
+    }
+
+    private static class PersistedState {
+        long lastBluetoothCrashDetectionTime = 0l;
+        int detectedCrashCount = 0;
+        int recoveryAttemptCount = 0;
+        boolean lastRecoverySucceeded = false;
+        boolean journalTorn = false;
+    }
+
+    private void readSnapshot(final PersistedState state, final LongKeyedMap<Boolean> macs) {
+        DataInputStream reader = null;
+
+        try {
+            reader = new DataInputStream(new BufferedInputStream(context.openFileInput(STATE_FILE)));
+            if (reader.readInt() != STATE_FILE_MAGIC || reader.readInt() != STATE_FILE_VERSION) {
+                Log.w(TAG, "Unrecognized file "+STATE_FILE);
+                return;
+            }
+            state.lastBluetoothCrashDetectionTime = reader.readLong();
+            state.detectedCrashCount = reader.readInt();
+            state.recoveryAttemptCount = reader.readInt();
+            state.lastRecoverySucceeded = reader.readBoolean();
+            final int count = reader.readInt();
+            final byte[] record = new byte[MAC_ADDRESS_BYTES];
+            for (int i = 0; i < count; i++) {
+                reader.readFully(record);
+                macs.put(readMacAddress(record, 0), Boolean.TRUE);
+            }
+        } catch (EOFException e) {
+            Log.w(TAG, "Truncated file "+STATE_FILE);
+        } catch (IOException e) {
+//            Log.w(TAG, "Can't read macs from "+STATE_FILE);
+        }
+        finally {
+            close(reader);
+        }
+    }
+
+    private int readJournal(final PersistedState state, final LongKeyedMap<Boolean> macs) {
+        InputStream reader = null;
+        int records = 0;
+
+        try {
+            reader = new BufferedInputStream(context.openFileInput(JOURNAL_FILE));
+            final byte[] record = new byte[MAC_ADDRESS_BYTES];
+            int read;
+            while ((read = readRecord(reader, record)) == record.length) {
+                macs.put(readMacAddress(record, 0), Boolean.TRUE);
+                records++;
+            }
+            // leftover bytes are a record that was only partly appended, e.g. the process died mid-write.
+            if (read > 0) {
+                Log.w(TAG, "Dropped partial record at end of "+JOURNAL_FILE);
+                state.journalTorn = true;
+            }
+        } catch (IOException e) {
+//            Log.w(TAG, "Can't read macs from "+JOURNAL_FILE);
+        }
+        finally {
+            close(reader);
+        }
+
+        return records;
+    }
+
+    private void readLegacyState(final PersistedState state, final LongKeyedMap<Boolean> macs) {
         FileInputStream inputStream = null;
         BufferedReader reader = null;
 
         try {
-            inputStream = context.openFileInput(DISTINCT_BLUETOOTH_ADDRESSES_FILE);
+            inputStream = context.openFileInput(LEGACY_STATE_FILE);
             reader = new BufferedReader(new InputStreamReader(inputStream));
             String line;
             line = reader.readLine();
             if (line != null) {
-                lastBluetoothCrashDetectionTime = Long.parseLong(line);
+                state.lastBluetoothCrashDetectionTime = Long.parseLong(line);
             }
             line = reader.readLine();
             if (line != null) {
-                detectedCrashCount = Integer.parseInt(line);
+                state.detectedCrashCount = Integer.parseInt(line);
             }
             line = reader.readLine();
             if (line != null) {
-                recoveryAttemptCount = Integer.parseInt(line);
+                state.recoveryAttemptCount = Integer.parseInt(line);
             }
             line = reader.readLine();
             if (line != null) {
-                lastRecoverySucceeded = false;
-                if (line.equals("1")) {
-                    lastRecoverySucceeded = true;
-                }
+                state.lastRecoverySucceeded = line.equals("1");
             }
 
             String mac;
             while ((mac = reader.readLine()) != null) {
-                distinctBluetoothAddresses.add(mac);
+                final long mac_packed = Utils.macAddressToLong(mac);
+                if (mac_packed != Utils.INVALID_MAC_ADDRESS) {
+                    macs.put(mac_packed, Boolean.TRUE);
+                }
             }
 
         } catch (IOException e) {
-//            Log.w(TAG, "Can't read macs from "+DISTINCT_BLUETOOTH_ADDRESSES_FILE);
+//            Log.w(TAG, "Can't read macs from "+LEGACY_STATE_FILE);
         } catch (NumberFormatException e) {
-            Log.w(TAG, "Can't parse file "+DISTINCT_BLUETOOTH_ADDRESSES_FILE);
+            Log.w(TAG, "Can't parse file "+LEGACY_STATE_FILE);
         }
         finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e1) { }
-            }
+            close(reader);
+        }
+    }
+
+    // returns false on a clean end of stream. a partial trailing record, e.g. from dying mid-append, is dropped.
+    // returns how many bytes were read, which is less than the buffer's length only at the end of the stream.
+    private static int readRecord(final InputStream stream, final byte[] buffer) throws IOException {
+        int offset = 0;
+        while (offset < buffer.length) {
+            final int read = stream.read(buffer, offset, buffer.length - offset);
+            if (read < 0) break;
+            offset += read;
+        }
+        return offset;
+    }
+
+    private static void writeMacAddress(final byte[] buffer, final int offset, final long mac) {
+        for (int i = 0; i < MAC_ADDRESS_BYTES; i++) {
+            buffer[offset + i] = (byte) (mac >>> (8 * (MAC_ADDRESS_BYTES - 1 - i)));
+        }
+    }
+
+    private static long readMacAddress(final byte[] buffer, final int offset) {
+        long mac = 0;
+        for (int i = 0; i < MAC_ADDRESS_BYTES; i++) {
+            mac = (mac << 8) | (buffer[offset + i] & 0xFF);
+        }
+        return mac;
+    }
+
+    private static void close(final java.io.Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e1) { }
         }
-        if (isDebugEnabled()) Log.d(TAG, "Read "+distinctBluetoothAddresses.size()+" bluetooth addresses");
     }
 
     private class DiscoveryCanceller extends AsyncTask<Void, Void, Void> {
@@ -0,0 +1,99 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.idevicesinc.sweetblue.utils.LongKeyedMap;
+
+/**
+ * Flat lookup of every characteristic a device has, keyed by (service uuid, characteristic uuid) and by characteristic uuid alone.
+ * UUIDs are folded down to a <code>long</code> so a lookup is one probe into a {@link LongKeyedMap} plus a single equality check to
+ * confirm the hit. Immutable once built - {@link P_ServiceManager} builds a new one after each service discovery and drops it when
+ * services are cleared.
+ */
+class P_CharacteristicIndex
+{
+	/**
+	 * Returned from {@link #get(UUID, UUID)} when two different uuids folded to the same key, in which case the caller has to search the slow way.
+	 */
+	static final Object COLLISION = new Object();
+
+	private final LongKeyedMap<Object> m_byPair;
+	private final LongKeyedMap<Object> m_byCharacteristic;
+
+	P_CharacteristicIndex(final List<P_Service> services)
+	{
+		int count = 0;
+
+		for( int i = 0; i < services.size(); i++ )
+		{
+			count += services.get(i).getCount();
+		}
+
+		m_byPair = new LongKeyedMap<Object>(count);
+		m_byCharacteristic = new LongKeyedMap<Object>(count);
+
+		for( int i = 0; i < services.size(); i++ )
+		{
+			final P_Service service_ith = services.get(i);
+			final long serviceKey = fold(service_ith.getUuid());
+
+			for( int j = 0; j < service_ith.getCount(); j++ )
+			{
+				final P_Characteristic char_jth = service_ith.get(j);
+				final long charKey = fold(char_jth.getUuid());
+
+				put(m_byPair, pairKey(serviceKey, charKey), char_jth, true);
+
+				//--- DRK > Same characteristic uuid under more than one service is legal, and the first service wins just like the linear search.
+				put(m_byCharacteristic, charKey, char_jth, false);
+			}
+		}
+	}
+
+	private static void put(final LongKeyedMap<Object> map, final long key, final P_Characteristic characteristic, final boolean checkService)
+	{
+		final Object existing = map.get(key);
+
+		if( existing == null )
+		{
+			map.put(key, characteristic);
+		}
+		else if( existing != COLLISION && !matches((P_Characteristic) existing, checkService ? characteristic.getServiceUuid() : null, characteristic.getUuid()) )
+		{
+			map.put(key, COLLISION);
+		}
+	}
+
+	private static boolean matches(final P_Characteristic characteristic, final UUID serviceUuid_nullable, final UUID charUuid)
+	{
+		if( !characteristic.getUuid().equals(charUuid) )  return false;
+
+		return serviceUuid_nullable == null || characteristic.getServiceUuid().equals(serviceUuid_nullable);
+	}
+
+	/**
+	 * Returns the matching {@link P_Characteristic}, <code>null</code> if the device doesn't have it, or {@link #COLLISION}.
+	 */
+	Object get(final UUID serviceUuid_nullable, final UUID charUuid)
+	{
+		final long charKey = fold(charUuid);
+		final Object hit = serviceUuid_nullable == null ? m_byCharacteristic.get(charKey) : m_byPair.get(pairKey(fold(serviceUuid_nullable), charKey));
+
+		if( hit == null || hit == COLLISION )  return hit;
+
+		//--- DRK > Anything that shared this key with a different uuid would have been marked as a collision, so a mismatch here means a miss.
+		return matches((P_Characteristic) hit, serviceUuid_nullable, charUuid) ? hit : null;
+	}
+
+	private static long fold(final UUID uuid)
+	{
+		//--- DRK > Uuids built off the Bluetooth base uuid all share the same lower half, so it's scrambled before mixing it in.
+		return uuid.getMostSignificantBits() ^ (uuid.getLeastSignificantBits() * 0x9E3779B97F4A7C15L);
+	}
+
+	private static long pairKey(final long serviceKey, final long charKey)
+	{
+		return Long.rotateLeft(serviceKey, 31) * 0xC2B2AE3D27D4EB4FL ^ charKey;
+	}
+}
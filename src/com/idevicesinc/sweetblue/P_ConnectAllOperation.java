@@ -0,0 +1,189 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.idevicesinc.sweetblue.BleManager.ConnectAllListener;
+import com.idevicesinc.sweetblue.BleManager.ConnectAllListener.ConnectAllEvent;
+import com.idevicesinc.sweetblue.utils.Interval;
+
+/**
+ * One call to {@link BleManager#connectAll(List, BleConnectAllOptions, ConnectAllListener)}, driven from the update loop.
+ * Keeps up to {@link BleConnectAllOptions#withConcurrency(int)} devices connecting and watches their states rather than
+ * taking over their {@link BleDevice.ConnectionFailListener}s, which still belong to the app.
+ */
+class P_ConnectAllOperation
+{
+	private static class Attempt
+	{
+		final BleDevice m_device;
+		double m_time = 0.0;
+
+		Attempt(final BleDevice device)
+		{
+			m_device = device;
+		}
+	}
+
+	//--- DRK > Smoothed rssi keeps changing on the update thread while we sort on the app's, so it's read once per device up front.
+	private static class RssiSnapshot
+	{
+		final BleDevice m_device;
+		final double m_rssi;
+
+		RssiSnapshot(final BleDevice device)
+		{
+			m_device = device;
+
+			//--- DRK > An rssi of zero means we never actually heard from the device.
+			m_rssi = device.getRssi() != 0 ? device.getSmoothedRssi() : Double.NEGATIVE_INFINITY;
+		}
+	}
+
+	private static final Comparator<RssiSnapshot> RSSI_FIRST = new Comparator<RssiSnapshot>()
+	{
+		@Override public int compare(final RssiSnapshot lhs, final RssiSnapshot rhs)
+		{
+			return lhs.m_rssi > rhs.m_rssi ? -1 : (lhs.m_rssi == rhs.m_rssi ? 0 : 1);
+		}
+	};
+
+	private static final Comparator<BleDevice> LAST_SUCCESS_FIRST = new Comparator<BleDevice>()
+	{
+		@Override public int compare(final BleDevice lhs, final BleDevice rhs)
+		{
+			return lhs.m_lastInitializedTime > rhs.m_lastInitializedTime ? -1 : (lhs.m_lastInitializedTime == rhs.m_lastInitializedTime ? 0 : 1);
+		}
+	};
+
+	private static void sortByRssi(final ArrayList<BleDevice> devices)
+	{
+		final ArrayList<RssiSnapshot> snapshots = new ArrayList<RssiSnapshot>(devices.size());
+
+		for( int i = 0; i < devices.size(); i++ )
+		{
+			snapshots.add(new RssiSnapshot(devices.get(i)));
+		}
+
+		Collections.sort(snapshots, RSSI_FIRST);
+
+		for( int i = 0; i < snapshots.size(); i++ )
+		{
+			devices.set(i, snapshots.get(i).m_device);
+		}
+	}
+
+	private final BleManager m_mngr;
+	private final BleConnectAllOptions m_options;
+	private final ConnectAllListener m_listener;
+
+	private final ArrayList<BleDevice> m_pending;
+	private final ArrayList<Attempt> m_inFlight = new ArrayList<Attempt>();
+	private final ArrayList<BleDevice> m_connected = new ArrayList<BleDevice>();
+	private final ArrayList<BleDevice> m_failed = new ArrayList<BleDevice>();
+
+	P_ConnectAllOperation(final BleManager mngr, final List<BleDevice> devices, final BleConnectAllOptions options, final ConnectAllListener listener_nullable)
+	{
+		m_mngr = mngr;
+		m_options = options;
+		m_listener = listener_nullable;
+		m_pending = new ArrayList<BleDevice>(devices.size());
+
+		for( int i = 0; i < devices.size(); i++ )
+		{
+			final BleDevice ith = devices.get(i);
+
+			if( ith != null && !m_pending.contains(ith) )
+			{
+				m_pending.add(ith);
+			}
+		}
+
+		if( options.getOrdering() == BleConnectAllOptions.Ordering.RSSI_FIRST )
+		{
+			sortByRssi(m_pending);
+		}
+		else if( options.getOrdering() == BleConnectAllOptions.Ordering.LAST_SUCCESS_FIRST )
+		{
+			Collections.sort(m_pending, LAST_SUCCESS_FIRST);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> once every device has either connected or failed and the listener has been called.
+	 */
+	boolean update(final double timeStep)
+	{
+		final Interval timeout = m_options.getAttemptTimeout();
+
+		for( int i = m_inFlight.size()-1; i >= 0; i-- )
+		{
+			final Attempt ith = m_inFlight.get(i);
+			final BleDevice device = ith.m_device;
+
+			if( device.is(BleDeviceState.INITIALIZED) )
+			{
+				m_inFlight.remove(i);
+				m_connected.add(device);
+
+				continue;
+			}
+
+			final boolean waitingForSlot = m_mngr.m_connectionSlotMngr.isWaiting(device);
+
+			if( !waitingForSlot && !device.isAny(BleDeviceState.CONNECTING_OVERALL, BleDeviceState.CONNECTED, BleDeviceState.RECONNECTING_SHORT_TERM) )
+			{
+				m_inFlight.remove(i);
+				m_failed.add(device);
+
+				continue;
+			}
+
+			//--- DRK > Time spent waiting behind other devices doesn't count against this one.
+			if( waitingForSlot || m_mngr.getTaskQueue().isInQueue(P_Task_Connect.class, device) )  continue;
+
+			ith.m_time += timeStep;
+
+			if( Interval.isEnabled(timeout) && !timeout.equals(Interval.INFINITE) && ith.m_time >= timeout.secs() )
+			{
+				m_mngr.getLogger().i("Giving up on " + device.getName_debug() + " after " + ith.m_time + " seconds.");
+
+				m_inFlight.remove(i);
+				m_failed.add(device);
+
+				device.disconnect();
+			}
+		}
+
+		while( m_inFlight.size() < m_options.getConcurrency() && !m_pending.isEmpty() )
+		{
+			final BleDevice next = m_pending.remove(0);
+
+			if( next.isNull() )
+			{
+				m_failed.add(next);
+			}
+			else if( next.is(BleDeviceState.INITIALIZED) )
+			{
+				m_connected.add(next);
+			}
+			else
+			{
+				next.connect();
+
+				m_inFlight.add(new Attempt(next));
+			}
+		}
+
+		if( !m_inFlight.isEmpty() || !m_pending.isEmpty() )  return false;
+
+		if( m_listener != null )
+		{
+			m_listener.onEvent(new ConnectAllEvent(m_mngr, m_connected, m_failed));
+		}
+
+		return true;
+	}
+}
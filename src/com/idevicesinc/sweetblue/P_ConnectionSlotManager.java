@@ -0,0 +1,222 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enforces {@link BleManagerConfig#maxConnections}. When all slots are taken, an explicit connect first tries to evict the least
+ * recently used idle connected device, and otherwise waits in a FIFO queue until a slot frees up. "Used" means connected or got a
+ * read/write/notify result, tracked as an ever-increasing counter on each device so no clock is involved.
+ */
+class P_ConnectionSlotManager
+{
+	private static class Waiting
+	{
+		final BleDevice m_device;
+		final BleTransaction.Auth m_authTxn;
+		final BleTransaction.Init m_initTxn;
+
+		Waiting(final BleDevice device, final BleTransaction.Auth authTxn, final BleTransaction.Init initTxn)
+		{
+			m_device = device;
+			m_authTxn = authTxn;
+			m_initTxn = initTxn;
+		}
+	}
+
+	private final BleManager m_mngr;
+	private final ArrayList<Waiting> m_waiting = new ArrayList<Waiting>();
+	private long m_activityCounter = 0;
+	private long m_evictionCount = 0;
+
+	P_ConnectionSlotManager(final BleManager mngr)
+	{
+		m_mngr = mngr;
+	}
+
+	private int getMax()
+	{
+		return m_mngr.m_config.maxConnections;
+	}
+
+	void onActivity(final BleDevice device)
+	{
+		device.m_connectionSlotActivity = ++m_activityCounter;
+	}
+
+	/**
+	 * Returns <code>true</code> if the device can go ahead and connect, possibly after evicting another device, or <code>false</code>
+	 * if it was put in the wait queue instead or was already waiting there, in which case it keeps its place.
+	 */
+	boolean acquire(final BleDevice device, final BleTransaction.Auth authTxn, final BleTransaction.Init initTxn)
+	{
+		if( getMax() <= 0 )  return true;
+
+		//--- DRK > Calling connect() again while waiting shouldn't cut ahead of anyone, or lose the device its place either.
+		if( isWaiting(device) )  return false;
+
+		if( getOccupiedCount(device) < getMax() )  return true;
+
+		final BleDevice evictee = findEvictee(device);
+
+		if( evictee != null )
+		{
+			evict(evictee, device);
+
+			return true;
+		}
+
+		synchronized (m_waiting)
+		{
+			if( isWaiting(device) )  return false;
+
+			m_waiting.add(new Waiting(device, authTxn, initTxn));
+
+			m_mngr.getLogger().i("No connection slot for " + device.getName_debug() + ", waiting behind " + (m_waiting.size()-1) + " other(s).");
+		}
+
+		return false;
+	}
+
+	/**
+	 * Removes the device from the wait queue, returning <code>true</code> if it was there.
+	 */
+	boolean cancel(final BleDevice device)
+	{
+		synchronized (m_waiting)
+		{
+			return cancel_private(device);
+		}
+	}
+
+	private boolean cancel_private(final BleDevice device)
+	{
+		for( int i = 0; i < m_waiting.size(); i++ )
+		{
+			if( m_waiting.get(i).m_device == device )
+			{
+				m_waiting.remove(i);
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	boolean isWaiting(final BleDevice device)
+	{
+		synchronized (m_waiting)
+		{
+			for( int i = 0; i < m_waiting.size(); i++ )
+			{
+				if( m_waiting.get(i).m_device == device )  return true;
+			}
+
+			return false;
+		}
+	}
+
+	int getWaitingCount()
+	{
+		synchronized (m_waiting)
+		{
+			return m_waiting.size();
+		}
+	}
+
+	long getEvictionCount()
+	{
+		return m_evictionCount;
+	}
+
+	void update(final double timeStep)
+	{
+		while( true )
+		{
+			final Waiting next;
+
+			synchronized (m_waiting)
+			{
+				if( m_waiting.isEmpty() )  return;
+
+				next = m_waiting.get(0);
+
+				//--- DRK > Undiscovered or otherwise already handled, no need for a slot anymore.
+				if( next.m_device.isNull() || !m_mngr.hasDevice(next.m_device) || !next.m_device.is(BleDeviceState.DISCONNECTED) )
+				{
+					m_waiting.remove(0);
+
+					continue;
+				}
+
+				if( getMax() > 0 && getOccupiedCount(next.m_device) >= getMax() && findEvictee(next.m_device) == null )  return;
+
+				m_waiting.remove(0);
+			}
+
+			//--- DRK > Goes back through acquire(), which now succeeds, possibly by evicting.
+			next.m_device.connect(next.m_authTxn, next.m_initTxn);
+		}
+	}
+
+	private int getOccupiedCount(final BleDevice except)
+	{
+		final List<BleDevice> devices = m_mngr.m_deviceMngr.getList();
+
+		int count = 0;
+
+		for( int i = 0; i < devices.size(); i++ )
+		{
+			final BleDevice ith = devices.get(i);
+
+			if( ith != except && ith.isAny(BleDeviceState.CONNECTING_OVERALL, BleDeviceState.CONNECTED) )
+			{
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private BleDevice findEvictee(final BleDevice except)
+	{
+		final List<BleDevice> devices = m_mngr.m_deviceMngr.getList();
+
+		BleDevice lru = null;
+
+		for( int i = 0; i < devices.size(); i++ )
+		{
+			final BleDevice ith = devices.get(i);
+
+			if( ith == except || !isIdle(ith) )  continue;
+
+			if( lru == null || ith.m_connectionSlotActivity < lru.m_connectionSlotActivity )
+			{
+				lru = ith;
+			}
+		}
+
+		return lru;
+	}
+
+	private boolean isIdle(final BleDevice device)
+	{
+		if( !device.is(BleDeviceState.INITIALIZED) )							return false;
+		if( device.is(BleDeviceState.RECONNECTING_SHORT_TERM) )				return false;
+		if( device.txnMngr().getCurrent() != null )							return false;
+		if( device.getPollManager().hasEntries() )							return false;
+		if( m_mngr.getTaskQueue().hasTasksFor(device) )						return false;
+
+		return true;
+	}
+
+	private void evict(final BleDevice evictee, final BleDevice forDevice)
+	{
+		m_evictionCount++;
+
+		m_mngr.getLogger().i("Evicting idle " + evictee.getName_debug() + " to free a connection slot for " + forDevice.getName_debug() + ".");
+
+		evictee.disconnect();
+	}
+}
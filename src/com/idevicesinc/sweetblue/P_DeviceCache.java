@@ -0,0 +1,127 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import com.idevicesinc.sweetblue.utils.Interval;
+
+/**
+ * Bounded in-memory cache of undiscovered devices, see {@link BleDeviceConfig#cacheDeviceOnUndiscovery}.
+ */
+class P_DeviceCache
+{
+	private static class Entry
+	{
+		private final BleDevice m_device;
+		private final long m_timeCached;
+
+		Entry(final BleDevice device, final long timeCached)
+		{
+			m_device = device;
+			m_timeCached = timeCached;
+		}
+	}
+
+	//--- DRK > Devices are taken out of the cache on a hit, so insertion order is also least-recently-used order.
+	private final LinkedHashMap<String, Entry> m_map = new LinkedHashMap<String, Entry>();
+
+	private final BleManager m_mngr;
+
+	private long m_hitCount = 0;
+	private long m_missCount = 0;
+	private long m_evictionCount = 0;
+
+	P_DeviceCache(final BleManager mngr)
+	{
+		m_mngr = mngr;
+	}
+
+	synchronized void add(final BleDevice device)
+	{
+		final int maxSize = m_mngr.m_config.maxCachedDevices;
+
+		if( maxSize <= 0 )  return;
+
+		m_map.remove(device.getMacAddress());
+		m_map.put(device.getMacAddress(), new Entry(device, System.currentTimeMillis()));
+
+		while( m_map.size() > maxSize )
+		{
+			evictEldest();
+		}
+	}
+
+	/**
+	 * Removes and returns the cached device for the given mac address, or <code>null</code> if there isn't one.
+	 */
+	synchronized BleDevice take(final String macAddress)
+	{
+		final Entry entry = m_map.remove(macAddress);
+
+		if( entry != null )
+		{
+			m_hitCount++;
+
+			return entry.m_device;
+		}
+		else
+		{
+			m_missCount++;
+
+			return null;
+		}
+	}
+
+	synchronized boolean has(final BleDevice device)
+	{
+		final Entry entry = m_map.get(device.getMacAddress());
+
+		return entry != null && entry.m_device == device;
+	}
+
+	synchronized void update(final double timeStep)
+	{
+		final Interval maxAge = m_mngr.m_config.maxCachedDeviceAge;
+
+		if( Interval.isDisabled(maxAge) || m_map.isEmpty() )  return;
+
+		final long cutoff = System.currentTimeMillis() - maxAge.millis();
+
+		while( !m_map.isEmpty() && m_map.values().iterator().next().m_timeCached < cutoff )
+		{
+			evictEldest();
+		}
+	}
+
+	private void evictEldest()
+	{
+		final Iterator<Entry> iterator = m_map.values().iterator();
+		final Entry eldest = iterator.next();
+
+		iterator.remove();
+
+		m_evictionCount++;
+
+		eldest.m_device.onEvictedFromCache();
+	}
+
+	synchronized int getCount()
+	{
+		return m_map.size();
+	}
+
+	synchronized long getHitCount()
+	{
+		return m_hitCount;
+	}
+
+	synchronized long getMissCount()
+	{
+		return m_missCount;
+	}
+
+	synchronized long getEvictionCount()
+	{
+		return m_evictionCount;
+	}
+}
@@ -1,7 +1,6 @@
 package com.idevicesinc.sweetblue;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import com.idevicesinc.sweetblue.BleDevice.BondListener;
@@ -13,22 +12,40 @@ import com.idevicesinc.sweetblue.PA_StateTracker.E_Intent;
 import com.idevicesinc.sweetblue.utils.ForEach_Breakable;
 import com.idevicesinc.sweetblue.utils.ForEach_Void;
 import com.idevicesinc.sweetblue.utils.Interval;
+import com.idevicesinc.sweetblue.utils.LongKeyedMap;
 import com.idevicesinc.sweetblue.utils.State;
+import com.idevicesinc.sweetblue.utils.Utils;
 
 class P_DeviceManager
 {
-	private final HashMap<String, BleDevice> m_map = new HashMap<String, BleDevice>();
+	//--- DRK > Keyed by packed mac address so lookups from the discovery callback don't hash or compare strings.
+	private final LongKeyedMap<BleDevice> m_map = new LongKeyedMap<BleDevice>();
 	private final ArrayList<BleDevice> m_list = new ArrayList<BleDevice>();
+	private final P_ProximityIndex m_proximityIndex = new P_ProximityIndex();
 	
 	private final P_Logger m_logger;
 	private final BleManager m_mngr;
 	
 	private boolean m_updating = false;
 	
+	//--- DRK > True for the instance holding devices that only scan sessions accepted, which the app-wide discovery listener never hears about.
+	private final boolean m_sessionOnly;
+	
 	P_DeviceManager(BleManager mngr)
+	{
+		this(mngr, /*sessionOnly=*/false);
+	}
+	
+	P_DeviceManager(BleManager mngr, boolean sessionOnly)
 	{
 		m_mngr = mngr;
 		m_logger = m_mngr.getLogger();
+		m_sessionOnly = sessionOnly;
+	}
+	
+	BleManager.DiscoveryListener getDiscoveryListener()
+	{
+		return m_sessionOnly ? null : m_mngr.m_discoveryListener;
 	}
 	
 	public ArrayList<BleDevice> getList()
@@ -36,6 +53,11 @@ class P_DeviceManager
 		return m_list;
 	}
 
+	P_ProximityIndex getProximityIndex()
+	{
+		return m_proximityIndex;
+	}
+
 	void forEach(final Object forEach, final Object ... query)
 	{
 		final boolean isQueryValid = query != null && query.length > 0;
@@ -299,7 +321,9 @@ class P_DeviceManager
 	{
 		synchronized (m_list)
 		{
-			return m_map.get(uniqueId);
+			final long key = Utils.macAddressToLong(uniqueId);
+
+			return key != Utils.INVALID_MAC_ADDRESS ? m_map.get(key) : null;
 		}
 	}
 	
@@ -307,7 +331,9 @@ class P_DeviceManager
 	{
 		synchronized (m_list)
 		{
-			if( m_map.containsKey(device.getMacAddress()) )
+			final long key = Utils.macAddressToLong(device.getMacAddress());
+
+			if( m_map.containsKey(key) )
 			{
 				m_logger.e("Already registered device " + device.getMacAddress());
 				
@@ -315,19 +341,23 @@ class P_DeviceManager
 			}
 			
 			m_list.add(device);
-			m_map.put(device.getMacAddress(), device);
+			m_map.put(key, device);
+			m_proximityIndex.add(device);
 		}
 	}
 	
-	synchronized void remove(BleDevice device, P_DeviceManager cache)
+	synchronized void remove(BleDevice device, P_DeviceCache cache)
 	{
 		synchronized (m_list)
 		{
 			m_mngr.ASSERT(!m_updating, "Removing device while updating!");
-			m_mngr.ASSERT(m_map.containsKey(device.getMacAddress()));
+			final long key = Utils.macAddressToLong(device.getMacAddress());
+
+			m_mngr.ASSERT(m_map.containsKey(key));
 			
 			m_list.remove(device);
-			m_map.remove(device.getMacAddress());
+			m_map.remove(key);
+			m_proximityIndex.remove(device);
 			
 			final boolean cacheDevice = BleDeviceConfig.bool(device.conf_device().cacheDeviceOnUndiscovery, device.conf_mngr().cacheDeviceOnUndiscovery);
 			
@@ -460,6 +490,8 @@ class P_DeviceManager
 						DiscoveryEvent event = new DiscoveryEvent(m_mngr, device, LifeCycle.DISCOVERED);
 						m_mngr.m_discoveryListener.onEvent(event);
 		    		}
+
+					m_mngr.m_scanSessionMngr.onEvent(device, LifeCycle.DISCOVERED);
 				}
 			}
 		}
@@ -483,7 +515,7 @@ class P_DeviceManager
 		}
 	}
 
-	void undiscoverAllForTurnOff(final P_DeviceManager cache, final PA_StateTracker.E_Intent intent)
+	void undiscoverAllForTurnOff(final P_DeviceCache cache, final PA_StateTracker.E_Intent intent)
 	{
 		synchronized (m_list)
 		{
@@ -497,7 +529,7 @@ class P_DeviceManager
 				
 				if( !retainDeviceWhenBleTurnsOff )
 				{
-					undiscoverAndRemove(device_ith, m_mngr.m_discoveryListener, cache, intent);
+					undiscoverAndRemove(device_ith, getDiscoveryListener(), cache, intent);
 					
 					continue;
 				}
@@ -506,12 +538,32 @@ class P_DeviceManager
 				
 				if( undiscoverDeviceWhenBleTurnsOff)
 				{
-					undiscoverDevice(device_ith, m_mngr.m_discoveryListener, intent);
+					undiscoverDevice(device_ith, getDiscoveryListener(), intent);
 				}
 			}
 		}
 	}
 	
+	/**
+	 * Undiscovers and removes every device that isn't doing anything, i.e. whose state is within {@link BleDeviceState#PURGEABLE_MASK}.
+	 */
+	void undiscoverAndRemoveIdle(final P_DeviceCache cache, final E_Intent intent)
+	{
+		synchronized (m_list)
+		{
+			m_mngr.ASSERT(!m_updating, "Undiscovering devices while updating!");
+
+			for( int i = m_list.size()-1; i >= 0; i-- )
+			{
+				final BleDevice device_ith = m_list.get(i);
+
+				if( (device_ith.getStateMask() & ~BleDeviceState.PURGEABLE_MASK) != 0x0 )  continue;
+
+				undiscoverAndRemove(device_ith, getDiscoveryListener(), cache, intent);
+			}
+		}
+	}
+
 	private static void undiscoverDevice(BleDevice device, BleManager.DiscoveryListener listener, PA_StateTracker.E_Intent intent)
 	{
 		if( !device.is(BleDeviceState.DISCOVERED) )  return;
@@ -523,9 +575,11 @@ class P_DeviceManager
 			DiscoveryEvent event = new DiscoveryEvent(device.getManager(), device, LifeCycle.UNDISCOVERED);
 			listener.onEvent(event);
 		}
+
+		device.getManager().m_scanSessionMngr.onEvent(device, LifeCycle.UNDISCOVERED);
 	}
 	
-	void undiscoverAndRemove(BleDevice device, BleManager.DiscoveryListener discoveryListener, P_DeviceManager cache, E_Intent intent)
+	void undiscoverAndRemove(BleDevice device, BleManager.DiscoveryListener discoveryListener, P_DeviceCache cache, E_Intent intent)
 	{
 		synchronized (m_list)
 		{
@@ -535,7 +589,7 @@ class P_DeviceManager
 		}
 	}
 	
-	void purgeStaleDevices(final double scanTime, final P_DeviceManager cache, final BleManager.DiscoveryListener listener)
+	void purgeStaleDevices(final double scanTime, final P_DeviceCache cache, final BleManager.DiscoveryListener listener)
 	{
 		//--- DRK > Band-aid fix for a potential race condition where scan is stopped from main thread (e.g. by backgrounding).
 		//---		Thus we can start going through this list but then still get some discovery callbacks at the same time.
@@ -568,7 +622,7 @@ class P_DeviceManager
 						
 						if( purgeable )
 						{
-							if( device.getTimeSinceLastDiscovery() > scanKeepAlive_interval.secs() )
+							if( device.getTimeSinceLastDiscovery() > device.getUndiscoveryKeepAlive(scanKeepAlive_interval) )
 							{
 								undiscoverAndRemove(device, listener, cache, E_Intent.UNINTENTIONAL);
 							}
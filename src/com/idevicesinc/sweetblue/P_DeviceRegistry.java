@@ -0,0 +1,404 @@
+package com.idevicesinc.sweetblue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import android.content.Context;
+
+import com.idevicesinc.sweetblue.utils.LongKeyedMap;
+import com.idevicesinc.sweetblue.utils.State;
+import com.idevicesinc.sweetblue.utils.Utils;
+
+/**
+ * Remembers devices across process restarts when {@link BleManagerConfig#manageDeviceRegistryOnDisk} is <code>true</code>, so that
+ * they can be recreated with {@link BleDeviceOrigin#EXPLICIT} right away on the next launch and connected to without waiting for a scan.
+ * Everything is kept in one small binary file that's read on a background thread at startup and rewritten at most every
+ * {@link #SAVE_INTERVAL} seconds while something has changed. Devices are recorded and saved from the update thread, but the app can
+ * forget them or clear everything from its own thread through {@link BleManager#undiscover(BleDevice)} and friends, so everything
+ * touching {@link #m_entries} or {@link #m_dirty} synchronizes on {@link #m_entries}.
+ */
+class P_DeviceRegistry
+{
+	static final int MAX_ENTRIES = 128;
+	static final double SAVE_INTERVAL = 5.0;
+
+	private static final String FILE_NAME = "sweetblue_device_registry.bin";
+	private static final int FILE_MAGIC = 0x53424452;
+	private static final int FILE_VERSION = 1;
+	private static final int MAC_ADDRESS_BYTES = 6;
+
+	private static class Entry
+	{
+		final long m_macAddress;
+		String m_name_native = "";
+		byte[] m_scanRecord = BleDevice.EMPTY_BYTE_ARRAY;
+		int m_rssi = 0;
+		long m_lastSeen = 0;
+		boolean m_needsBonding = false;
+		int m_lastDisconnect = State.ChangeIntent.NULL.toDiskValue();
+
+		Entry(final long macAddress)
+		{
+			m_macAddress = macAddress;
+		}
+	}
+
+	private static final Comparator<Entry> MOST_RECENT_FIRST = new Comparator<Entry>()
+	{
+		@Override public int compare(final Entry lhs, final Entry rhs)
+		{
+			return lhs.m_lastSeen > rhs.m_lastSeen ? -1 : (lhs.m_lastSeen == rhs.m_lastSeen ? 0 : 1);
+		}
+	};
+
+	private final BleManager m_mngr;
+	private final LongKeyedMap<Entry> m_entries = new LongKeyedMap<Entry>();
+	private final Object m_fileLock = new Object();
+
+	private boolean m_loaded = false;
+	private boolean m_dirty = false;
+	private double m_timeSinceSave = 0.0;
+
+	P_DeviceRegistry(final BleManager mngr)
+	{
+		m_mngr = mngr;
+	}
+
+	/**
+	 * Reads the registry on a background thread, then recreates its devices on the update thread.
+	 */
+	void load()
+	{
+		final Thread thread = new Thread(new Runnable()
+		{
+			@Override public void run()
+			{
+				final Entry[] loaded = read();
+
+				m_mngr.getUpdateLoop().postIfNeeded(new Runnable()
+				{
+					@Override public void run()
+					{
+						onLoaded(loaded);
+					}
+				});
+			}
+		}, "P_DeviceRegistry");
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void onLoaded(final Entry[] loaded)
+	{
+		m_loaded = true;
+
+		for( int i = 0; i < loaded.length; i++ )
+		{
+			final Entry ith = loaded[i];
+
+			synchronized (m_entries)
+			{
+				//--- DRK > Whatever we've seen since startup is fresher than what's on disk.
+				if( m_entries.containsKey(ith.m_macAddress) )  continue;
+
+				m_entries.put(ith.m_macAddress, ith);
+			}
+
+			final String macAddress = Utils.longToMacAddress(ith.m_macAddress);
+
+			if( ith.m_needsBonding )
+			{
+				m_mngr.m_diskOptionsMngr.saveNeedsBonding(macAddress, /*hitDisk=*/false);
+			}
+
+			//--- DRK > Only seed real values, otherwise we'd shadow whatever's in shared preferences.
+			if( ith.m_lastDisconnect != State.ChangeIntent.NULL.toDiskValue() )
+			{
+				m_mngr.m_diskOptionsMngr.saveLastDisconnect(macAddress, State.ChangeIntent.fromDiskValue(ith.m_lastDisconnect), /*hitDisk=*/false);
+			}
+
+			m_mngr.newDevice_restored(macAddress, ith.m_name_native, ith.m_scanRecord, ith.m_rssi);
+		}
+
+		m_mngr.getLogger().i("Restored " + loaded.length + " devices from registry.");
+	}
+
+	/**
+	 * Records the device's latest name, advertisement, and rssi. Devices only get added when <code>add</code> is <code>true</code>, i.e. when
+	 * they connect, so the registry holds what the app actually talks to rather than everything that happens to be in range.
+	 * Rssi changes alone don't trigger a save.
+	 */
+	void onSeen(final BleDevice device, final boolean add)
+	{
+		final long macAddress = Utils.macAddressToLong(device.getMacAddress());
+
+		if( macAddress == Utils.INVALID_MAC_ADDRESS )  return;
+
+		final String name_native = device.getName_native();
+		final byte[] scanRecord = device.getScanRecord();
+
+		synchronized (m_entries)
+		{
+			Entry entry = m_entries.get(macAddress);
+
+			if( entry == null )
+			{
+				if( !add )  return;
+
+				entry = new Entry(macAddress);
+				m_entries.put(macAddress, entry);
+
+				m_dirty = true;
+			}
+
+			if( !entry.m_name_native.equals(name_native) || !Arrays.equals(entry.m_scanRecord, scanRecord) )
+			{
+				entry.m_name_native = name_native;
+				entry.m_scanRecord = scanRecord;
+
+				m_dirty = true;
+			}
+
+			entry.m_rssi = device.getRssi();
+			entry.m_lastSeen = System.currentTimeMillis();
+		}
+	}
+
+	void forget(final String macAddress)
+	{
+		synchronized (m_entries)
+		{
+			if( m_entries.remove(Utils.macAddressToLong(macAddress)) != null )
+			{
+				m_dirty = true;
+			}
+		}
+	}
+
+	void clear()
+	{
+		synchronized (m_entries)
+		{
+			m_entries.clear();
+			m_dirty = true;
+		}
+	}
+
+	void update(final double timeStep)
+	{
+		m_timeSinceSave += timeStep;
+
+		//--- DRK > Saving before loading finishes would throw away everything we haven't read yet.
+		if( !m_loaded || m_timeSinceSave < SAVE_INTERVAL )  return;
+
+		final byte[] bytes;
+
+		synchronized (m_entries)
+		{
+			if( !m_dirty )  return;
+
+			m_timeSinceSave = 0.0;
+			m_dirty = false;
+
+			bytes = serialize();
+		}
+
+		final Thread thread = new Thread(new Runnable()
+		{
+			@Override public void run()
+			{
+				write(bytes);
+			}
+		}, "P_DeviceRegistry");
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Must be called while synchronized on {@link #m_entries}.
+	 */
+	private byte[] serialize()
+	{
+		final long[] keys = m_entries.keys();
+		final Entry[] entries = new Entry[keys.length];
+
+		for( int i = 0; i < keys.length; i++ )
+		{
+			entries[i] = m_entries.get(keys[i]);
+		}
+
+		Arrays.sort(entries, MOST_RECENT_FIRST);
+
+		final int count = Math.min(entries.length, MAX_ENTRIES);
+
+		for( int i = count; i < entries.length; i++ )
+		{
+			m_entries.remove(entries[i].m_macAddress);
+		}
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		final byte[] macBytes = new byte[MAC_ADDRESS_BYTES];
+
+		try
+		{
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_VERSION);
+			out.writeInt(count);
+
+			for( int i = 0; i < count; i++ )
+			{
+				final Entry ith = entries[i];
+				final String macAddress = Utils.longToMacAddress(ith.m_macAddress);
+
+				//--- DRK > Bonding and disconnect info are owned by P_DiskOptionsManager, we just snapshot its in-memory values.
+				ith.m_needsBonding = m_mngr.m_diskOptionsMngr.loadNeedsBonding(macAddress, /*hitDisk=*/false);
+				ith.m_lastDisconnect = State.ChangeIntent.toDiskValue(m_mngr.m_diskOptionsMngr.loadLastDisconnect(macAddress, /*hitDisk=*/false));
+
+				for( int j = 0; j < MAC_ADDRESS_BYTES; j++ )
+				{
+					macBytes[j] = (byte) (ith.m_macAddress >>> (8 * (MAC_ADDRESS_BYTES - 1 - j)));
+				}
+
+				out.write(macBytes);
+				out.writeLong(ith.m_lastSeen);
+				out.writeByte(ith.m_rssi);
+				out.writeBoolean(ith.m_needsBonding);
+				out.writeByte(ith.m_lastDisconnect);
+				out.writeUTF(ith.m_name_native);
+				out.writeShort(ith.m_scanRecord.length);
+				out.write(ith.m_scanRecord);
+			}
+		}
+		catch(IOException e)
+		{
+			//--- DRK > Can't happen with a ByteArrayOutputStream.
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private void write(final byte[] bytes)
+	{
+		final Context context = m_mngr.getApplicationContext();
+
+		synchronized (m_fileLock)
+		{
+			final File file = context.getFileStreamPath(FILE_NAME);
+			final File file_temp = context.getFileStreamPath(FILE_NAME + ".tmp");
+
+			FileOutputStream out = null;
+
+			try
+			{
+				out = context.openFileOutput(file_temp.getName(), Context.MODE_PRIVATE);
+				out.write(bytes);
+				out.close();
+				out = null;
+
+				if( !file_temp.renameTo(file) )
+				{
+					m_mngr.getLogger().w("Couldn't replace " + FILE_NAME);
+				}
+			}
+			catch(IOException e)
+			{
+				m_mngr.getLogger().w("Couldn't write " + FILE_NAME + ": " + e);
+			}
+			finally
+			{
+				if( out != null )
+				{
+					try
+					{
+						out.close();
+					}
+					catch(IOException e)
+					{
+					}
+				}
+			}
+		}
+	}
+
+	private Entry[] read()
+	{
+		final Context context = m_mngr.getApplicationContext();
+		final ArrayList<Entry> entries = new ArrayList<Entry>();
+
+		synchronized (m_fileLock)
+		{
+			if( !context.getFileStreamPath(FILE_NAME).exists() )  return new Entry[0];
+
+			DataInputStream in = null;
+
+			try
+			{
+				in = new DataInputStream(new BufferedInputStream(context.openFileInput(FILE_NAME)));
+
+				if( in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION )
+				{
+					m_mngr.getLogger().w("Unrecognized " + FILE_NAME);
+
+					return new Entry[0];
+				}
+
+				final int count = in.readInt();
+				final byte[] macBytes = new byte[MAC_ADDRESS_BYTES];
+
+				for( int i = 0; i < count; i++ )
+				{
+					in.readFully(macBytes);
+
+					long macAddress = 0;
+
+					for( int j = 0; j < MAC_ADDRESS_BYTES; j++ )
+					{
+						macAddress = (macAddress << 8) | (macBytes[j] & 0xFF);
+					}
+
+					final Entry entry = new Entry(macAddress);
+					entry.m_lastSeen = in.readLong();
+					entry.m_rssi = in.readByte();
+					entry.m_needsBonding = in.readBoolean();
+					entry.m_lastDisconnect = in.readByte();
+					entry.m_name_native = in.readUTF();
+					entry.m_scanRecord = new byte[in.readUnsignedShort()];
+					in.readFully(entry.m_scanRecord);
+
+					entries.add(entry);
+				}
+			}
+			catch(IOException e)
+			{
+				//--- DRK > Keep whatever was read before the file turned out to be truncated or corrupt.
+				m_mngr.getLogger().w("Couldn't fully read " + FILE_NAME + ": " + e);
+			}
+			finally
+			{
+				if( in != null )
+				{
+					try
+					{
+						in.close();
+					}
+					catch(IOException e)
+					{
+					}
+				}
+			}
+		}
+
+		return entries.toArray(new Entry[entries.size()]);
+	}
+}
@@ -8,7 +8,9 @@ import android.content.Context;
 import android.content.SharedPreferences;
 
 import com.idevicesinc.sweetblue.utils.EmptyIterator;
+import com.idevicesinc.sweetblue.utils.LongKeyedMap;
 import com.idevicesinc.sweetblue.utils.State;
+import com.idevicesinc.sweetblue.utils.Utils;
 
 class P_DiskOptionsManager
 {
@@ -35,13 +37,64 @@ class P_DiskOptionsManager
 		}
 	}
 	
+	/**
+	 * In-memory DB keyed by packed mac address, see {@link Utils#macAddressToLong(String)}. Strings that don't pack all come out as
+	 * {@link Utils#INVALID_MAC_ADDRESS}, so those are kept by string instead of piling unrelated devices into one entry.
+	 */
+	private static class InMemoryDb<V>
+	{
+		private final LongKeyedMap<V> m_packed = new LongKeyedMap<V>();
+		private final HashMap<String, V> m_unpacked = new HashMap<String, V>();
+
+		V get(final String mac)
+		{
+			final long key = Utils.macAddressToLong(mac);
+
+			return key != Utils.INVALID_MAC_ADDRESS ? m_packed.get(key) : m_unpacked.get(mac);
+		}
+
+		void put(final String mac, final V value)
+		{
+			final long key = Utils.macAddressToLong(mac);
+
+			if( key != Utils.INVALID_MAC_ADDRESS )
+			{
+				m_packed.put(key, value);
+			}
+			else
+			{
+				m_unpacked.put(mac, value);
+			}
+		}
+
+		void remove(final String mac)
+		{
+			final long key = Utils.macAddressToLong(mac);
+
+			if( key != Utils.INVALID_MAC_ADDRESS )
+			{
+				m_packed.remove(key);
+			}
+			else
+			{
+				m_unpacked.remove(mac);
+			}
+		}
+
+		void clear()
+		{
+			m_packed.clear();
+			m_unpacked.clear();
+		}
+	}
+	
 	private final Context m_context;
 	
-	private final HashMap<String, Integer> m_inMemoryDb_lastDisconnect = new HashMap<String, Integer>();
-	private final HashMap<String, Boolean> m_inMemoryDb_needsBonding = new HashMap<String, Boolean>();
-	private final HashMap<String, String> m_inMemoryDb_name = new HashMap<String, String>();
+	private final InMemoryDb<Integer> m_inMemoryDb_lastDisconnect = new InMemoryDb<Integer>();
+	private final InMemoryDb<Boolean> m_inMemoryDb_needsBonding = new InMemoryDb<Boolean>();
+	private final InMemoryDb<String> m_inMemoryDb_name = new InMemoryDb<String>();
 
-	private final HashMap[] m_inMemoryDbs = new HashMap[E_Namespace.values().length];
+	private final InMemoryDb<?>[] m_inMemoryDbs = new InMemoryDb<?>[E_Namespace.values().length];
 	
 	public P_DiskOptionsManager(Context context)
 	{
@@ -168,7 +221,7 @@ class P_DiskOptionsManager
 			final SharedPreferences prefs = prefs(values[i]);
 			prefs.edit().clear().commit();
 
-			final HashMap ith = m_inMemoryDbs[i];
+			final InMemoryDb<?> ith = m_inMemoryDbs[i];
 
 			if( ith != null )
 			{
@@ -190,7 +243,7 @@ class P_DiskOptionsManager
 		final SharedPreferences prefs = prefs(namespace);
 		prefs.edit().remove(macAddress).commit();
 
-		final HashMap ith = m_inMemoryDbs[ordinal];
+		final InMemoryDb<?> ith = m_inMemoryDbs[ordinal];
 
 		if( ith != null )
 		{
@@ -0,0 +1,64 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.UUID;
+
+import com.idevicesinc.sweetblue.BleDevice.FrameListener;
+import com.idevicesinc.sweetblue.BleDevice.FrameListener.FrameEvent;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.ReadWriteEvent;
+import com.idevicesinc.sweetblue.utils.FrameAssembler;
+import com.idevicesinc.sweetblue.utils.FrameDecoder;
+
+/**
+ * Sits between a notify entry in {@link P_PollManager} and app-land for {@link BleDevice#enableNotify(UUID, FrameDecoder, FrameListener, BleDevice.ReadWriteListener)},
+ * feeding each notification to the {@link FrameDecoder} on the update thread and passing only whole messages (or reasons for dropping them) on.
+ */
+class P_FrameReassembler extends FrameAssembler
+{
+	private final BleDevice m_device;
+	private final UUID m_serviceUuid;
+	private final UUID m_charUuid;
+	private final FrameDecoder m_decoder;
+	private final FrameListener m_listener;
+
+	P_FrameReassembler(final BleDevice device, final UUID serviceUuid, final UUID charUuid, final FrameDecoder decoder, final FrameListener listener_nullable)
+	{
+		super(DEFAULT_MAX_FRAME_SIZE);
+
+		m_device = device;
+		m_serviceUuid = serviceUuid;
+		m_charUuid = charUuid;
+		m_decoder = decoder;
+		m_listener = listener_nullable != null ? new P_WrappingFrameListener(listener_nullable, device.getManager().m_mainThreadHandler, device.getManager().m_config.postCallbacksToMainThread) : null;
+	}
+
+	void onNotification(final ReadWriteEvent event)
+	{
+		//--- DRK > Empty and null notifications carry no fragment, so there's nothing to decode.
+		if( !event.wasSuccess() )  return;
+
+		m_decoder.onFragment(event.data(), this);
+	}
+
+	@Override public void reset()
+	{
+		super.reset();
+
+		m_decoder.reset();
+	}
+
+	@Override protected void onFrame(final byte[] frame)
+	{
+		if( m_listener == null )  return;
+
+		m_listener.onEvent(new FrameEvent(m_device, m_serviceUuid, m_charUuid, frame, FrameListener.Status.SUCCESS, 0, -1, -1, this));
+	}
+
+	@Override protected void onFailure(final FrameAssembler.Failure failure, final int droppedBytes, final int expectedSequence, final int receivedSequence)
+	{
+		m_device.getManager().getLogger().w("Dropped a " + failure + " message of " + droppedBytes + " bytes on " + m_device.getManager().getLogger().charName(m_charUuid) + ".");
+
+		if( m_listener == null )  return;
+
+		m_listener.onEvent(new FrameEvent(m_device, m_serviceUuid, m_charUuid, BleDevice.EMPTY_BYTE_ARRAY, FrameListener.Status.fromFailure(failure), droppedBytes, expectedSequence, receivedSequence, this));
+	}
+}
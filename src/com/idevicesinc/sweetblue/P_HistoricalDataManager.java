@@ -226,6 +226,21 @@ class P_HistoricalDataManager
 		m_previousUuidsWithDataAdded.clearAll();
 	}
 
+	void clearMemory()
+	{
+		synchronized(LIST_CREATE_MUTEX)
+		{
+			final Iterator<Backend_HistoricalDataList> lists = m_lists.values().iterator();
+
+			while( lists.hasNext() )
+			{
+				lists.next().delete_fromMemoryOnly(EpochTimeRange.FROM_MIN_TO_MAX, Long.MAX_VALUE);
+			}
+
+			m_lists.clear();
+		}
+	}
+
 	//GOOD
 	public void delete_all(final EpochTimeRange range, final long limit, final boolean memoryOnly)
 	{
@@ -1,21 +1,14 @@
 package com.idevicesinc.sweetblue;
 
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 
-import android.bluetooth.BluetoothAdapter;
-import android.bluetooth.BluetoothDevice;
-import android.bluetooth.BluetoothGatt;
-import android.bluetooth.BluetoothProfile;
 import android.os.Build;
 import android.os.Process;
 import android.util.Log;
 
-import com.idevicesinc.sweetblue.utils.ReflectionUuidNameMap;
 import com.idevicesinc.sweetblue.utils.Utils;
-import com.idevicesinc.sweetblue.utils.Utils_Reflection;
 import com.idevicesinc.sweetblue.utils.UuidNameMap;
 import com.idevicesinc.sweetblue.utils.UuidNameMap_ListWrapper;
 
@@ -24,11 +17,6 @@ class P_Logger
 	private String[] m_debugThreadNamePool;
 	private int m_poolIndex = 0;
 	private final HashMap<Integer, String> m_threadNames = new HashMap<Integer, String>();
-	private HashMap<Integer, String> m_gattStatusCodes = null;
-	private HashMap<Integer, String> m_gattConnStates = null;
-	private HashMap<Integer, String> m_gattBleStates = null;
-	private HashMap<Integer, String> m_gattBondStates = null;
-	private HashMap<Integer, String> m_unbondReasonCodes = null;
 	private boolean m_enabled;
 	private final UuidNameMap_ListWrapper m_nameMap;
 	
@@ -52,13 +40,17 @@ class P_Logger
 		
 		int level = Log.DEBUG;
 
-		for( Field field : Build.class.getFields() )
-		{
-			String fieldName = field.getName();
-			String fieldValue = Utils_Reflection.fieldStringValue(field);
-			
-			this.log(level, fieldName + ": " + fieldValue);
-		}
+		//--- DRK > Used to reflect over every Build field, which was slow enough to show up in startup times.
+		this.log(level, "MANUFACTURER: " + Build.MANUFACTURER);
+		this.log(level, "MODEL: " + Build.MODEL);
+		this.log(level, "PRODUCT: " + Build.PRODUCT);
+		this.log(level, "DEVICE: " + Build.DEVICE);
+		this.log(level, "BRAND: " + Build.BRAND);
+		this.log(level, "HARDWARE: " + Build.HARDWARE);
+		this.log(level, "DISPLAY: " + Build.DISPLAY);
+		this.log(level, "FINGERPRINT: " + Build.FINGERPRINT);
+		this.log(level, "VERSION.RELEASE: " + Build.VERSION.RELEASE);
+		this.log(level, "VERSION.SDK_INT: " + Build.VERSION.SDK_INT);
 	}
 	
 	public boolean isEnabled()
@@ -219,185 +211,32 @@ class P_Logger
 	
 	public String gattConn(int code)
 	{
-		String name = "NO_NAME";
-		
-		if( m_gattConnStates == null && m_enabled )
-		{
-			initConnStates();
-		}
-		
-		if( m_gattConnStates != null )
-		{
-			String actualName = m_gattConnStates.get(code);
-			name = actualName != null ? actualName : name;
-		}
-		
-		return name+"("+code+")";
+		return codeName(P_StatusNames.gattConn(code), "NO_NAME", code);
 	}
-	
-	private synchronized void initConnStates()
-	{
-		if( m_gattConnStates != null )  return;
-		
-		m_gattConnStates = new HashMap<Integer, String>();
-		
-		initFromReflection(BluetoothProfile.class, "STATE_", m_gattConnStates);
-	}
-	
-	
-	
-	
-	
+
 	public String gattStatus(int code)
 	{
-		String errorName = "UNKNOWN_STATUS";
-		
-		if( m_gattStatusCodes == null && m_enabled )
-		{
-			initGattStatusCodes();
-		}
-		
-		if( m_gattStatusCodes != null )
-		{
-			String actualErrorName = m_gattStatusCodes != null ? m_gattStatusCodes.get(code) : null;
-			errorName = actualErrorName != null ? actualErrorName : errorName;
-		}
-		
-		return errorName+"("+code+")";
+		return codeName(P_StatusNames.gattStatus(code), "UNKNOWN_STATUS", code);
 	}
-	
-	private synchronized void initGattStatusCodes()
-	{
-		if( m_gattStatusCodes != null )  return;
-		
-		m_gattStatusCodes = new HashMap<Integer, String>();
 
-		initFromReflection(BluetoothGatt.class, "GATT_", m_gattStatusCodes);
-		initFromReflection(BleDeviceConfig.class, "GATT_", m_gattStatusCodes);
-		initFromReflection(BleStatuses.class, "GATT_", m_gattStatusCodes);
-	}
-	
-	
-	
-	
 	public String gattBleState(int code)
 	{
-		String name = "NO_NAME";
-		
-		if( m_gattBleStates == null && m_enabled )
-		{
-			initGattBleStates();
-		}
-		
-		if( m_gattBleStates != null )
-		{
-			String actualName = m_gattBleStates.get(code);
-			name = actualName != null ? actualName : name;
-		}
-		
-		return name+"("+code+")";
-	}
-	
-	private synchronized void initGattBleStates()
-	{
-		if( m_gattBleStates != null )  return;
-		
-		m_gattBleStates = new HashMap<Integer, String>();
-		
-		initFromReflection(BluetoothAdapter.class, "STATE_", m_gattBleStates);
-		
-		m_gattBleStates.put(BluetoothAdapter.ERROR, "ERROR");
+		return codeName(P_StatusNames.gattBleState(code), "NO_NAME", code);
 	}
-	
-	
-	
-	
+
 	public String gattUnbondReason(int code)
 	{
-		String name = "NO_NAME";
-		
-		if( m_unbondReasonCodes == null && m_enabled )
-		{
-			initUnbondReasonCodes();
-		}
-		
-		if( m_unbondReasonCodes != null )
-		{
-			String actualName = m_unbondReasonCodes.get(code);
-			name = actualName != null ? actualName : name;
-		}
-		
-		return name+"("+code+")";
+		return codeName(P_StatusNames.gattUnbondReason(code), "NO_NAME", code);
 	}
-	
-	private synchronized void initUnbondReasonCodes()
-	{
-		if( m_unbondReasonCodes != null )  return;
-		
-		m_unbondReasonCodes = new HashMap<Integer, String>();
-		
-		initFromReflection(BluetoothDevice.class, "UNBOND_REASON_", m_unbondReasonCodes);
-		initFromReflection(BleDeviceConfig.class, "BOND_FAIL_REASON", m_unbondReasonCodes);
-	}
-	
-	
-	
-	
-	
-	
-	
-	
+
 	public String gattBondState(int code)
 	{
-		String name = "NO_NAME";
-		
-		if( m_gattBondStates == null && m_enabled )
-		{
-			initGattBondStates();
-		}
-		
-		if( m_gattBondStates != null )
-		{
-			String actualName = m_gattBondStates.get(code);
-			name = actualName != null ? actualName : name;
-		}
-		
-		return name+"("+code+")";
-	}
-	
-	private synchronized void initGattBondStates()
-	{
-		if( m_gattBondStates != null )  return;
-		
-		m_gattBondStates = new HashMap<Integer, String>();
-		
-		initFromReflection(BluetoothDevice.class, "BOND_", m_gattBondStates);
+		return codeName(P_StatusNames.gattBondState(code), "NO_NAME", code);
 	}
-	
-	
-	private static void initFromReflection(Class<?> clazz, String fieldSuffix, HashMap<Integer, String> map)
+
+	private static String codeName(String name_nullable, String defaultName, int code)
 	{
-		for( Field field : clazz.getFields() )
-		{
-			String fieldName = field.getName();
-			
-			if( !fieldName.contains(fieldSuffix) )  continue;
-			
-			Integer fieldValue = -1;
-			
-			try {
-				fieldValue = field.getInt(null);
-			} catch (IllegalAccessException e) {
-//				e.printStackTrace();
-			} catch (IllegalArgumentException e) {
-//				e.printStackTrace();
-			}
-			
-			if( !map.containsKey(fieldValue) )
-			{
-				map.put(fieldValue, fieldName);
-			}
-		}
+		return (name_nullable != null ? name_nullable : defaultName)+"("+code+")";
 	}
 	
 	private String uuidToString(UUID uuid_nullable)
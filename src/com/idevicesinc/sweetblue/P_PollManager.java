@@ -2,6 +2,7 @@ package com.idevicesinc.sweetblue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.UUID;
 
 import android.bluetooth.BluetoothGatt;
@@ -74,10 +75,14 @@ class P_PollManager
 			{
 				if( m_lastValue == null || !Arrays.equals(m_lastValue, result.data()) )
 				{
+					m_entry.adaptInterval(/*changed=*/true);
+					
 					super.onEvent(result);
 				}
 				else
 				{
+					m_entry.adaptInterval(/*changed=*/false);
+					
 					m_entry.onSuccessOrFailure();
 				}
 				
@@ -92,31 +97,42 @@ class P_PollManager
 		}
 	}
 	
-	private static class CallbackEntry
+	private static class CallbackEntry implements P_PollScheduler.I_Pollable
 	{
+		//--- DRK > How much an adaptive poll backs off each time it reads the same value again.
+		private static final double ADAPTIVE_BACKOFF_FACTOR = 2.0;
+		
 		private final BleDevice m_device;
 		private final PollingReadListener m_pollingReadListener;
 		private double m_interval;
+		private double m_maxInterval;
+		private double m_currentInterval;
 		private final UUID m_charUuid;
 		private final UUID m_serviceUuid;
 		private final boolean m_usingNotify;
 		private E_NotifyState m_notifyState;
 		
-		private double m_timeTracker;
+		private final P_PollScheduler.Slot m_slot;
 		private boolean m_waitingForResponse;
+		private boolean m_removed = false;
 		
-		public CallbackEntry(BleDevice device, final UUID serviceUuid, UUID charUuid, double interval, ReadWriteListener readWriteListener, boolean trackChanges, boolean usingNotify)
+		//--- DRK > Non-null for notifications that are reassembled into messages, in which case they don't go to the read/write listener.
+		private P_FrameReassembler m_framer;
+		
+		public CallbackEntry(BleDevice device, final UUID serviceUuid, UUID charUuid, double interval, double maxInterval, ReadWriteListener readWriteListener, boolean trackChanges, boolean usingNotify, P_FrameReassembler framer_nullable)
 		{
 			m_serviceUuid = serviceUuid;
 			m_charUuid = charUuid;
 			m_interval = interval;
+			m_maxInterval = Math.max(interval, maxInterval);
+			m_currentInterval = interval;
 			m_device = device;
 			m_usingNotify = usingNotify;
 			m_notifyState = E_NotifyState.NOT_ENABLED;
+			m_framer = framer_nullable;
 
-			m_timeTracker = interval; // to get it to do a first read pretty much instantly.
-			
-			if( trackChanges || m_usingNotify)
+			//--- DRK > Fragments of a framed message can legitimately repeat, so they must never be filtered out as unchanged.
+			if( (trackChanges || m_usingNotify) && m_framer == null )
 			{
 				m_pollingReadListener = new TrackingWrappingReadListener(readWriteListener, m_device.getManager().m_mainThreadHandler, m_device.getManager().m_config.postCallbacksToMainThread);
 			}
@@ -126,6 +142,92 @@ class P_PollManager
 			}
 			
 			m_pollingReadListener.init(this);
+			
+			m_slot = getScheduler().newSlot(this);
+			
+			if( isPolling() )
+			{
+				//--- DRK > First read happens pretty much instantly, just spread out a bit from any other polls started at the same time.
+				getScheduler().scheduleFirst(m_slot, m_interval);
+			}
+		}
+		
+		private P_PollScheduler getScheduler()
+		{
+			return m_device.getManager().m_pollScheduler;
+		}
+		
+		private boolean isPolling()
+		{
+			return m_interval > 0.0 && m_interval != Interval.INFINITE.secs();
+		}
+		
+		void setInterval(final double interval)
+		{
+			if( interval == m_interval )  return;
+			
+			m_interval = interval;
+			m_maxInterval = Math.max(m_interval, m_maxInterval);
+			m_currentInterval = interval;
+			
+			if( isPolling() )
+			{
+				getScheduler().schedule(m_slot, m_currentInterval);
+			}
+			else
+			{
+				getScheduler().unschedule(m_slot);
+			}
+		}
+		
+		void setMaxInterval(final double maxInterval)
+		{
+			m_maxInterval = Math.max(m_interval, maxInterval);
+			
+			if( m_currentInterval > m_maxInterval )
+			{
+				m_currentInterval = m_maxInterval;
+				
+				resetPollTimer();
+			}
+		}
+		
+		/**
+		 * For adaptive polls, backs the interval off geometrically towards {@link #m_maxInterval} while the value stays the same,
+		 * and snaps it back to {@link #m_interval} as soon as it changes.
+		 */
+		void adaptInterval(final boolean changed)
+		{
+			if( m_maxInterval <= m_interval || !isPolling() )  return;
+			
+			m_currentInterval = changed ? m_interval : Math.min(m_maxInterval, m_currentInterval * ADAPTIVE_BACKOFF_FACTOR);
+		}
+		
+		void onRemoved()
+		{
+			m_removed = true;
+			
+			getScheduler().unschedule(m_slot);
+		}
+		
+		void unschedule()
+		{
+			getScheduler().unschedule(m_slot);
+		}
+		
+		void reschedule()
+		{
+			if( m_removed || !isPolling() )  return;
+			
+			getScheduler().scheduleFirst(m_slot, m_currentInterval);
+		}
+		
+		private void resetPollTimer()
+		{
+			if( isPolling() )
+			{
+				getScheduler().postpone(m_slot, m_currentInterval);
+			}
 		}
 		
 		boolean trackingChanges()
@@ -160,70 +262,43 @@ class P_PollManager
 			}
 		}
 		
-		void onCharacteristicChangedFromNativeNotify(byte[] value)
+		void onCharacteristicChangedFromNativeNotify(final ReadWriteEvent event)
 		{
-			//--- DRK > The early-outs in this method are for when, for example, a native onNotify comes in on a random thread,
-			//---		BleDevice#disconnect() is called on main thread before notify gets passed to main thread (to here).
-			//---		Explicit disconnect clears all service/characteristic state and notify shouldn't get sent to app-land
-			//---		regardless.
-			if( m_device.is(BleDeviceState.DISCONNECTED) )  return;
-			
-			P_Characteristic characteristic = m_device.getServiceManager().getCharacteristic(m_serviceUuid, m_charUuid);
-			
-			if( characteristic == null )  return;
-			
-			BluetoothGattCharacteristic char_native = characteristic.getGuaranteedNative();
-			Type type = P_ServiceManager.modifyResultType(char_native, Type.NOTIFICATION);
-			int gattStatus = BleStatuses.GATT_STATUS_NOT_APPLICABLE;
-			
-			if( value == null )
+			if( m_framer != null )
 			{
-				ReadWriteEvent result = new ReadWriteEvent(m_device, m_serviceUuid, m_charUuid, null, type, Target.CHARACTERISTIC, value, Status.NULL_DATA, gattStatus, 0.0, 0.0);
-
-				m_device.invokeReadWriteCallback(m_pollingReadListener, result);
+				m_framer.onNotification(event);
 			}
 			else
 			{
-				if( value.length == 0 )
-				{
-					ReadWriteEvent result = new ReadWriteEvent(m_device, m_serviceUuid, m_charUuid, null, type, Target.CHARACTERISTIC, value, Status.EMPTY_DATA, gattStatus, 0.0, 0.0);
-					m_device.invokeReadWriteCallback(m_pollingReadListener, result);
-				}
-				else
-				{
-					ReadWriteEvent result = new ReadWriteEvent(m_device, m_serviceUuid, m_charUuid, null, type, Target.CHARACTERISTIC, value, Status.SUCCESS, gattStatus, 0.0, 0.0);
-					m_device.invokeReadWriteCallback(m_pollingReadListener, result);
-				}
+				m_device.invokeReadWriteCallback(m_pollingReadListener, event);
 			}
 			
-			m_timeTracker = 0.0;
+			resetPollTimer();
 		}
 		
 		void onSuccessOrFailure()
 		{
 			m_waitingForResponse = false;
-			m_timeTracker = 0.0;
+			
+			resetPollTimer();
 		}
 		
-		void update(double timeStep)
+		@Override public void onPollDue(final P_PollScheduler scheduler, final P_PollScheduler.Slot slot)
 		{
-			if( m_interval <= 0.0 )  return;
-			if( m_interval == Interval.INFINITE.secs() )  return;
+			if( m_removed || !isPolling() )  return;
 			
-			m_timeTracker += timeStep;
+			scheduler.schedule(slot, m_currentInterval);
 			
-			if( m_timeTracker >= m_interval )
+			//--- DRK > Devices sitting in the cache don't get updated, so their polls shouldn't fire either. They pick back up if rediscovered.
+			if( !m_device.getManager().isManaging(m_device) || !m_device.isPromoted() )  return;
+			
+			if( m_device.is(BleDeviceState.INITIALIZED) && !m_device.is(BleDeviceState.RECONNECTING_SHORT_TERM) )
 			{
-				m_timeTracker = 0.0;
-				
-				if( m_device.is(BleDeviceState.INITIALIZED) && !m_device.is(BleDeviceState.RECONNECTING_SHORT_TERM) )
-				{					
-					if( !m_waitingForResponse )
-					{
-						m_waitingForResponse = true;
-						Type type = trackingChanges() ? Type.PSUEDO_NOTIFICATION : Type.POLL;
-						m_device.read_internal(m_serviceUuid, m_charUuid, type, m_pollingReadListener);
-					}
+				if( !m_waitingForResponse )
+				{
+					m_waitingForResponse = true;
+					Type type = trackingChanges() ? Type.PSUEDO_NOTIFICATION : Type.POLL;
+					m_device.read_internal(m_serviceUuid, m_charUuid, type, m_pollingReadListener);
 				}
 			}
 		}
@@ -232,6 +307,9 @@ class P_PollManager
 	private final BleDevice m_device;
 	private final ArrayList<CallbackEntry> m_entries = new ArrayList<CallbackEntry>();
 	
+	//--- DRK > Entries using notify, bucketed by characteristic so incoming notifications don't have to look at every entry.
+	private final HashMap<UUID, ArrayList<CallbackEntry>> m_notifyEntries = new HashMap<UUID, ArrayList<CallbackEntry>>();
+	
 
 	P_PollManager(BleDevice device)
 	{
@@ -239,6 +317,24 @@ class P_PollManager
 	}
 	
 	void startPoll(final UUID serviceUuid, final UUID charUuid, double interval, ReadWriteListener listener, boolean trackChanges, boolean usingNotify)
+	{
+		startPoll(serviceUuid, charUuid, interval, interval, listener, trackChanges, usingNotify);
+	}
+	
+	/**
+	 * Same as {@link #startPoll(UUID, UUID, double, ReadWriteListener, boolean, boolean)} but lets a change tracking poll
+	 * back off as far as <code>maxInterval</code> while the value isn't changing.
+	 */
+	void startPoll(final UUID serviceUuid, final UUID charUuid, double interval, double maxInterval, ReadWriteListener listener, boolean trackChanges, boolean usingNotify)
+	{
+		startPoll(serviceUuid, charUuid, interval, maxInterval, listener, trackChanges, usingNotify, null);
+	}
+	
+	/**
+	 * Same as {@link #startPoll(UUID, UUID, double, double, ReadWriteListener, boolean, boolean)} but notifications are
+	 * reassembled into messages by <code>framer</code> instead of going to <code>listener</code>.
+	 */
+	void startPoll(final UUID serviceUuid, final UUID charUuid, double interval, double maxInterval, ReadWriteListener listener, boolean trackChanges, boolean usingNotify, P_FrameReassembler framer_nullable)
 	{
 		if( m_device.isNull() )  return;
 		
@@ -252,22 +348,28 @@ class P_PollManager
 
 				if( ithEntry.m_charUuid.equals(charUuid) )
 				{
-					ithEntry.m_interval = interval;
+					ithEntry.setInterval(interval);
 				}
 				
-				if( ithEntry.isFor(serviceUuid, charUuid, interval, /*listener=*/null, usingNotify) )
+				if( ithEntry.isFor(serviceUuid, charUuid, interval, /*listener=*/null, usingNotify) && (ithEntry.m_framer == null) == (framer_nullable == null) )
 				{
-					if( ithEntry.trackingChanges() == trackChanges)
+					if( ithEntry.trackingChanges() == trackChanges || framer_nullable != null )
 					{
+						ithEntry.setMaxInterval(maxInterval);
 						ithEntry.m_pollingReadListener.addListener(listener);
 						
+						if( framer_nullable != null )
+						{
+							ithEntry.m_framer = framer_nullable;
+						}
+						
 						return;
 					}
 				}
 			}
 		}
 		
-		CallbackEntry newEntry = new CallbackEntry(m_device, serviceUuid, charUuid, interval, listener, trackChanges, usingNotify);
+		CallbackEntry newEntry = new CallbackEntry(m_device, serviceUuid, charUuid, interval, maxInterval, listener, trackChanges, usingNotify, framer_nullable);
 		
 		if( usingNotify )
 		{
@@ -275,7 +377,53 @@ class P_PollManager
 			newEntry.m_notifyState = state;
 		}
 
-		m_entries.add(newEntry);
+		addEntry(newEntry);
+	}
+	
+	private void addEntry(final CallbackEntry entry)
+	{
+		synchronized (m_entries)
+		{
+			m_entries.add(entry);
+			
+			if( entry.usingNotify() )
+			{
+				ArrayList<CallbackEntry> bucket = m_notifyEntries.get(entry.m_charUuid);
+				
+				if( bucket == null )
+				{
+					bucket = new ArrayList<CallbackEntry>(1);
+					m_notifyEntries.put(entry.m_charUuid, bucket);
+				}
+				
+				bucket.add(entry);
+			}
+		}
+	}
+	
+	private void removeEntry(final int index)
+	{
+		synchronized (m_entries)
+		{
+			final CallbackEntry entry = m_entries.remove(index);
+			
+			entry.onRemoved();
+			
+			if( entry.usingNotify() )
+			{
+				final ArrayList<CallbackEntry> bucket = m_notifyEntries.get(entry.m_charUuid);
+				
+				if( bucket != null )
+				{
+					bucket.remove(entry);
+					
+					if( bucket.isEmpty() )
+					{
+						m_notifyEntries.remove(entry.m_charUuid);
+					}
+				}
+			}
+		}
 	}
 	
 	void stopPoll(final UUID serviceUuid, final UUID characteristicUuid, Double interval_nullable, ReadWriteListener listener, boolean usingNotify)
@@ -288,40 +436,80 @@ class P_PollManager
 			
 			if( ithEntry.isFor(serviceUuid, characteristicUuid, interval_nullable, listener, usingNotify) )
 			{
-				m_entries.remove(i);
+				removeEntry(i);
 			}
 		}
 	}
 	
-	void update(double timeStep)
+	/**
+	 * Whether anything is being polled or listened to through notifications.
+	 */
+	boolean hasEntries()
 	{
 		synchronized (m_entries)
 		{
-			for( int i = 0; i < m_entries.size(); i++ )
-			{
-				CallbackEntry ithEntry = m_entries.get(i);
-				
-				ithEntry.update(timeStep);
-			}
+			return !m_entries.isEmpty();
 		}
 	}
 	
 	void onCharacteristicChangedFromNativeNotify(final UUID serviceUuid, final UUID charUuid, byte[] value)
 	{
+		//--- DRK > The early-outs in this method are for when, for example, a native onNotify comes in on a random thread,
+		//---		BleDevice#disconnect() is called on main thread before notify gets passed to main thread (to here).
+		//---		Explicit disconnect clears all service/characteristic state and notify shouldn't get sent to app-land
+		//---		regardless.
+		if( m_device.is(BleDeviceState.DISCONNECTED) )  return;
+		
 		synchronized (m_entries)
 		{
-			for( int i = 0; i < m_entries.size(); i++ )
+			final ArrayList<CallbackEntry> bucket = m_notifyEntries.get(charUuid);
+			
+			if( bucket == null )  return;
+			
+			ReadWriteEvent event = null;
+			UUID eventServiceUuid = null;
+			boolean eventBuilt = false;
+			
+			for( int i = 0; i < bucket.size(); i++ )
 			{
-				CallbackEntry ithEntry = m_entries.get(i);
+				final CallbackEntry ithEntry = bucket.get(i);
+				
+				if( !ithEntry.isFor(serviceUuid, charUuid) )  continue;
 				
-				if( ithEntry.isFor(serviceUuid, charUuid) && ithEntry.usingNotify() )
+				//--- DRK > Entries only differ here if the notification came in without a service uuid, so normally the event is built once and shared.
+				if( !eventBuilt || !sameUuid(eventServiceUuid, ithEntry.m_serviceUuid) )
 				{
-					ithEntry.onCharacteristicChangedFromNativeNotify(value);
+					eventServiceUuid = ithEntry.m_serviceUuid;
+					event = newNotifyEvent(eventServiceUuid, charUuid, value);
+					eventBuilt = true;
 				}
+				
+				if( event == null )  continue;
+				
+				ithEntry.onCharacteristicChangedFromNativeNotify(event);
 			}
 		}
 	}
 	
+	private ReadWriteEvent newNotifyEvent(final UUID serviceUuid_nullable, final UUID charUuid, final byte[] value)
+	{
+		final P_Characteristic characteristic = m_device.getServiceManager().getCharacteristic(serviceUuid_nullable, charUuid);
+		
+		if( characteristic == null )  return null;
+		
+		final BluetoothGattCharacteristic char_native = characteristic.getGuaranteedNative();
+		final Type type = P_ServiceManager.modifyResultType(char_native, Type.NOTIFICATION);
+		final int gattStatus = BleStatuses.GATT_STATUS_NOT_APPLICABLE;
+		final Status status = value == null ? Status.NULL_DATA : (value.length == 0 ? Status.EMPTY_DATA : Status.SUCCESS);
+		
+		return new ReadWriteEvent(m_device, serviceUuid_nullable, charUuid, null, type, Target.CHARACTERISTIC, value, status, gattStatus, 0.0, 0.0);
+	}
+	
+	private static boolean sameUuid(final UUID uuid1_nullable, final UUID uuid2_nullable)
+	{
+		return uuid1_nullable == null ? uuid2_nullable == null : uuid1_nullable.equals(uuid2_nullable);
+	}
+	
 	E_NotifyState getNotifyState(final UUID serviceUuid, final UUID charUuid)
 	{
 		E_NotifyState highestState = E_NotifyState.NOT_ENABLED;
@@ -355,6 +543,35 @@ class P_PollManager
 		}
 	}
 	
+	/**
+	 * Takes every poll off the {@link P_PollScheduler} for a device that's gone and won't be coming back as this instance.
+	 * See {@link #rescheduleAll()} for the other direction.
+	 */
+	void unscheduleAll()
+	{
+		synchronized (m_entries)
+		{
+			for( int i = 0; i < m_entries.size(); i++ )
+			{
+				m_entries.get(i).unschedule();
+			}
+		}
+	}
+	
+	/**
+	 * Puts polls back on the {@link P_PollScheduler} when the device is discovered again, whether or not {@link #unscheduleAll()} was called.
+	 */
+	void rescheduleAll()
+	{
+		synchronized (m_entries)
+		{
+			for( int i = 0; i < m_entries.size(); i++ )
+			{
+				m_entries.get(i).reschedule();
+			}
+		}
+	}
+	
 	void resetNotifyStates()
 	{
 		for( int i = 0; i < m_entries.size(); i++ )
@@ -362,6 +579,12 @@ class P_PollManager
 			CallbackEntry ithEntry = m_entries.get(i);
 			
 			ithEntry.m_notifyState = E_NotifyState.NOT_ENABLED;
+			
+			//--- DRK > Whatever was half-reassembled won't be finished on the next connection.
+			if( ithEntry.m_framer != null )
+			{
+				ithEntry.m_framer.reset();
+			}
 		}
 	}
 	
@@ -0,0 +1,155 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Manager-wide timer for everything started through {@link BleDevice#startPoll(java.util.UUID, com.idevicesinc.sweetblue.utils.Interval, BleDevice.ReadWriteListener)}
+ * and friends. Due times live in a priority queue, so an update only touches polls that are actually due instead of ticking every one of them.
+ * <br><br>
+ * Pushing a poll back, which happens on every read result and notification, only bumps {@link Slot#m_dueTime} - the queued node is
+ * re-inserted at the later time when it surfaces. Anything that needs a poll sooner or cancels it bumps {@link Slot#m_generation} instead,
+ * which makes any node already in the queue stale.
+ */
+class P_PollScheduler
+{
+	static interface I_Pollable
+	{
+		/**
+		 * Called on the update thread when the poll's time has come. Implementations are expected to reschedule themselves.
+		 */
+		void onPollDue(final P_PollScheduler scheduler, final Slot slot);
+	}
+
+	static class Slot
+	{
+		private final I_Pollable m_pollable;
+		private double m_dueTime = 0.0;
+		private int m_generation = 0;
+		private boolean m_scheduled = false;
+
+		private Slot(final I_Pollable pollable)
+		{
+			m_pollable = pollable;
+		}
+	}
+
+	private static class Node
+	{
+		private final Slot m_slot;
+		private final double m_dueTime;
+		private final int m_generation;
+
+		Node(final Slot slot, final double dueTime, final int generation)
+		{
+			m_slot = slot;
+			m_dueTime = dueTime;
+			m_generation = generation;
+		}
+	}
+
+	private static final Comparator<Node> EARLIEST_FIRST = new Comparator<Node>()
+	{
+		@Override public int compare(final Node lhs, final Node rhs)
+		{
+			return Double.compare(lhs.m_dueTime, rhs.m_dueTime);
+		}
+	};
+
+	//--- DRK > New polls start somewhere inside this window (or their interval if shorter) so a batch started together doesn't fire together forever.
+	private static final double MAX_PHASE_JITTER = 1.0;
+
+	private final PriorityQueue<Node> m_queue = new PriorityQueue<Node>(16, EARLIEST_FIRST);
+	private final ArrayList<Slot> m_due = new ArrayList<Slot>();
+	private final Random m_random = new Random();
+
+	private double m_time = 0.0;
+
+	Slot newSlot(final I_Pollable pollable)
+	{
+		return new Slot(pollable);
+	}
+
+	/**
+	 * Schedules the first run of a new poll somewhere between now and the smaller of its interval and {@link #MAX_PHASE_JITTER}.
+	 */
+	synchronized void scheduleFirst(final Slot slot, final double interval)
+	{
+		schedule(slot, m_random.nextDouble() * Math.min(interval, MAX_PHASE_JITTER));
+	}
+
+	/**
+	 * Makes the poll due the given number of seconds from now, replacing whatever was scheduled before.
+	 */
+	synchronized void schedule(final Slot slot, final double delay)
+	{
+		slot.m_generation++;
+		slot.m_dueTime = m_time + delay;
+		slot.m_scheduled = true;
+
+		m_queue.add(new Node(slot, slot.m_dueTime, slot.m_generation));
+	}
+
+	/**
+	 * Like {@link #schedule(Slot, double)} but cheap when it only pushes the due time back, which is the common case. Does nothing for an unscheduled slot.
+	 */
+	synchronized void postpone(final Slot slot, final double delay)
+	{
+		if( !slot.m_scheduled )  return;
+
+		final double dueTime = m_time + delay;
+
+		if( dueTime >= slot.m_dueTime )
+		{
+			slot.m_dueTime = dueTime;
+		}
+		else
+		{
+			schedule(slot, delay);
+		}
+	}
+
+	synchronized void unschedule(final Slot slot)
+	{
+		slot.m_generation++;
+		slot.m_scheduled = false;
+	}
+
+	void update(final double timeStep)
+	{
+		synchronized (this)
+		{
+			m_time += timeStep;
+
+			while( !m_queue.isEmpty() && m_queue.peek().m_dueTime <= m_time )
+			{
+				final Node node = m_queue.poll();
+				final Slot slot = node.m_slot;
+
+				if( node.m_generation != slot.m_generation || !slot.m_scheduled )  continue;
+
+				if( slot.m_dueTime > m_time )
+				{
+					m_queue.add(new Node(slot, slot.m_dueTime, node.m_generation));
+
+					continue;
+				}
+
+				slot.m_scheduled = false;
+				m_due.add(slot);
+			}
+		}
+
+		//--- DRK > Called outside the lock since firing a poll can end up back in here through schedule() or unschedule() from other threads.
+		for( int i = 0; i < m_due.size(); i++ )
+		{
+			final Slot ith = m_due.get(i);
+
+			ith.m_pollable.onPollDue(this, ith);
+		}
+
+		m_due.clear();
+	}
+}
@@ -0,0 +1,138 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+import com.idevicesinc.sweetblue.utils.Utils;
+
+/**
+ * Keeps the devices of a {@link P_DeviceManager} sorted by {@link BleDevice#getSmoothedRssi()}, strongest first,
+ * updated one device at a time as RSSI changes so nobody has to sort the whole device list to find the closest ones.
+ */
+class P_ProximityIndex
+{
+	/**
+	 * Sort key owned by each {@link BleDevice}. Only mutated while out of the map, so the same instance can be reused for
+	 * the device's whole lifetime and updates don't allocate. Remembers which index it's in, since a device can belong to
+	 * either the main {@link P_DeviceManager} or the one for scan-session-only devices, and only that index may touch it.
+	 */
+	static class Key implements Comparable<Key>
+	{
+		private double m_rssi;
+		private long m_macAddress;
+		private volatile P_ProximityIndex m_index = null;
+
+		Key()
+		{
+		}
+
+		private Key(final double rssi, final long macAddress)
+		{
+			m_rssi = rssi;
+			m_macAddress = macAddress;
+		}
+
+		@Override public int compareTo(final Key another)
+		{
+			//--- DRK > Stronger signal sorts first, mac address breaks ties so distinct devices never compare as equal.
+			if( m_rssi > another.m_rssi )  return -1;
+			if( m_rssi < another.m_rssi )  return 1;
+
+			return m_macAddress < another.m_macAddress ? -1 : (m_macAddress == another.m_macAddress ? 0 : 1);
+		}
+	}
+
+	private final TreeMap<Key, BleDevice> m_map = new TreeMap<Key, BleDevice>();
+
+	/**
+	 * Re-sorts the device in whichever index it's currently in, if any.
+	 */
+	static void onRssiChanged(final BleDevice device)
+	{
+		onRssiChanged(device.m_proximityKey, device, device.getSmoothedRssi());
+	}
+
+	static void onRssiChanged(final Key key, final BleDevice device, final double rssi)
+	{
+		final P_ProximityIndex index = key.m_index;
+
+		if( index != null )
+		{
+			index.update(key, device, rssi);
+		}
+	}
+
+	void add(final BleDevice device)
+	{
+		add(device.m_proximityKey, device, Utils.macAddressToLong(device.getMacAddress()), device.getSmoothedRssi());
+	}
+
+	synchronized void add(final Key key, final BleDevice device, final long macAddress, final double rssi)
+	{
+		if( key.m_index != null )  return;
+
+		key.m_macAddress = macAddress;
+		key.m_rssi = rssi;
+		key.m_index = this;
+
+		m_map.put(key, device);
+	}
+
+	void remove(final BleDevice device)
+	{
+		remove(device.m_proximityKey);
+	}
+
+	synchronized void remove(final Key key)
+	{
+		if( key.m_index != this )  return;
+
+		m_map.remove(key);
+
+		key.m_index = null;
+	}
+
+	private synchronized void update(final Key key, final BleDevice device, final double rssi)
+	{
+		//--- DRK > Checked again under our lock in case the device moved to another index since the caller looked.
+		if( key.m_index != this || key.m_rssi == rssi )  return;
+
+		m_map.remove(key);
+		key.m_rssi = rssi;
+		m_map.put(key, device);
+	}
+
+	/**
+	 * Snapshot of all indexed devices, strongest signal first.
+	 */
+	synchronized List<BleDevice> getAll()
+	{
+		return new ArrayList<BleDevice>(m_map.values());
+	}
+
+	/**
+	 * Snapshot of all devices whose smoothed RSSI is at least the given value, strongest signal first.
+	 */
+	synchronized List<BleDevice> getAtLeast(final double rssi)
+	{
+		return new ArrayList<BleDevice>(m_map.headMap(new Key(rssi, Long.MAX_VALUE), /*inclusive=*/true).values());
+	}
+
+	/**
+	 * Snapshot of at most the given number of devices with the strongest signal, strongest first.
+	 */
+	synchronized List<BleDevice> getNearest(final int count)
+	{
+		final ArrayList<BleDevice> nearest = new ArrayList<BleDevice>(Math.max(0, Math.min(count, m_map.size())));
+		final Iterator<BleDevice> iterator = m_map.values().iterator();
+
+		while( nearest.size() < count && iterator.hasNext() )
+		{
+			nearest.add(iterator.next());
+		}
+
+		return nearest;
+	}
+}
@@ -0,0 +1,362 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.ArrayList;
+
+import com.idevicesinc.sweetblue.BleManager.RegionListener;
+import com.idevicesinc.sweetblue.BleManager.RegionListener.RegionEvent;
+
+/**
+ * Evaluates {@link BleRegion} instances passed to {@link BleManager#startMonitoring(BleRegion)} against every advertisement
+ * and turns the result into debounced {@link RegionListener.Type} events. Per-device state is kept as bitmasks with one bit
+ * per monitored region, so a device matching no region costs a couple of mask checks per advertisement.
+ */
+class P_RegionManager
+{
+	static final int MAX_REGIONS = Long.SIZE;
+
+	/**
+	 * Owned by {@link BleDevice#m_regionState}, created the first time the device advertises while any region is monitored.
+	 */
+	static class DeviceState
+	{
+		private final BleDevice m_device;
+
+		//--- DRK > Filters only depend on advertisement content, so the result is cached until the scan record or set of regions changes.
+		private byte[] m_filteredScanRecord = null;
+		private int m_filteredRegionsVersion = -1;
+		private long m_filterMask = 0;
+
+		private long m_insideMask = 0;
+		private long m_pendingMask = 0;
+		private long m_dwellSentMask = 0;
+
+		private long[] m_pendingSince = null;
+		private long[] m_enteredAt = null;
+
+		private boolean m_active = false;
+
+		DeviceState(final BleDevice device)
+		{
+			m_device = device;
+		}
+	}
+
+	private final BleManager m_mngr;
+	private final BleRegion[] m_regions = new BleRegion[MAX_REGIONS];
+	private long m_regionMask = 0;
+	private int m_regionsVersion = 0;
+
+	//--- DRK > Devices that are inside a region or have a transition pending, i.e. ones that update() has to look at.
+	private final ArrayList<DeviceState> m_activeStates = new ArrayList<DeviceState>();
+
+	private RegionListener m_listener = null;
+
+	P_RegionManager(final BleManager mngr)
+	{
+		m_mngr = mngr;
+	}
+
+	void setListener(final RegionListener listener_nullable)
+	{
+		m_listener = listener_nullable;
+	}
+
+	RegionListener getListener()
+	{
+		return m_listener;
+	}
+
+	boolean startMonitoring(final BleRegion region)
+	{
+		if( region == null || indexOf(region) >= 0 )  return false;
+
+		for( int i = 0; i < m_regions.length; i++ )
+		{
+			if( m_regions[i] == null )
+			{
+				m_regions[i] = region;
+				m_regionMask |= 1L << i;
+				m_regionsVersion++;
+
+				return true;
+			}
+		}
+
+		m_mngr.getLogger().e("Can't monitor more than " + MAX_REGIONS + " regions at once.");
+
+		return false;
+	}
+
+	boolean stopMonitoring(final BleRegion region)
+	{
+		final int index = indexOf(region);
+
+		if( index < 0 )  return false;
+
+		final long bit = 1L << index;
+
+		m_regions[index] = null;
+		m_regionMask &= ~bit;
+		m_regionsVersion++;
+
+		for( int i = m_activeStates.size()-1; i >= 0; i-- )
+		{
+			final DeviceState ith = m_activeStates.get(i);
+
+			ith.m_insideMask &= ~bit;
+			ith.m_pendingMask &= ~bit;
+			ith.m_dwellSentMask &= ~bit;
+
+			updateActive(ith);
+		}
+
+		return true;
+	}
+
+	void stopMonitoringAll()
+	{
+		for( int i = 0; i < m_regions.length; i++ )
+		{
+			if( m_regions[i] != null )
+			{
+				stopMonitoring(m_regions[i]);
+			}
+		}
+	}
+
+	boolean isMonitoring(final BleRegion region)
+	{
+		return indexOf(region) >= 0;
+	}
+
+	private int indexOf(final BleRegion region)
+	{
+		if( region == null )  return -1;
+
+		for( int i = 0; i < m_regions.length; i++ )
+		{
+			if( m_regions[i] == region )  return i;
+		}
+
+		return -1;
+	}
+
+	void onAdvertisement(final BleDevice device)
+	{
+		if( m_regionMask == 0 )  return;
+
+		if( device.m_regionState == null )
+		{
+			device.m_regionState = new DeviceState(device);
+		}
+
+		final DeviceState state = device.m_regionState;
+
+		if( state.m_filteredScanRecord != device.getScanRecord() || state.m_filteredRegionsVersion != m_regionsVersion )
+		{
+			updateFilterMask(state);
+		}
+
+		long mask = state.m_filterMask | state.m_insideMask | state.m_pendingMask;
+
+		if( mask == 0 )  return;
+
+		final long now = System.currentTimeMillis();
+
+		while( mask != 0 )
+		{
+			final int index = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+
+			final long bit = 1L << index;
+
+			if( (m_regionMask & bit) == 0 )  continue;
+
+			final boolean inside = (state.m_insideMask & bit) != 0;
+			final boolean shouldBeInside = (state.m_filterMask & bit) != 0 && m_regions[index].isInsideBoundary(device, inside);
+
+			evaluate(state, index, shouldBeInside, now);
+		}
+
+		updateActive(state);
+	}
+
+	void onUndiscovered(final BleDevice device)
+	{
+		final DeviceState state = device.m_regionState;
+
+		if( state == null )  return;
+
+		//--- DRK > Undiscovery is already a timeout so no point debouncing the exit further.
+		long mask = state.m_insideMask;
+
+		state.m_insideMask = 0;
+		state.m_pendingMask = 0;
+		state.m_dwellSentMask = 0;
+
+		while( mask != 0 )
+		{
+			final int index = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+
+			send(state.m_device, m_regions[index], RegionListener.Type.EXIT);
+		}
+
+		updateActive(state);
+	}
+
+	void update(final double timeStep)
+	{
+		if( m_activeStates.isEmpty() )  return;
+
+		final long now = System.currentTimeMillis();
+
+		for( int i = m_activeStates.size()-1; i >= 0; i-- )
+		{
+			//--- DRK > Listener might have stopped monitoring a region and shrunk the list out from under us.
+			if( i >= m_activeStates.size() )  continue;
+
+			final DeviceState ith = m_activeStates.get(i);
+
+			//--- DRK > Without a new advertisement to say otherwise, pending transitions are assumed to still be wanted.
+			long mask = ith.m_pendingMask | (ith.m_insideMask & ~ith.m_dwellSentMask);
+
+			while( mask != 0 )
+			{
+				final int index = Long.numberOfTrailingZeros(mask);
+				mask &= mask - 1;
+
+				final long bit = 1L << index;
+
+				if( (m_regionMask & bit) == 0 )  continue;
+
+				final boolean inside = (ith.m_insideMask & bit) != 0;
+				final boolean pending = (ith.m_pendingMask & bit) != 0;
+
+				evaluate(ith, index, pending ? !inside : inside, now);
+			}
+
+			updateActive(ith);
+		}
+	}
+
+	private void evaluate(final DeviceState state, final int index, final boolean shouldBeInside, final long now)
+	{
+		final BleRegion region = m_regions[index];
+		final long bit = 1L << index;
+		final boolean inside = (state.m_insideMask & bit) != 0;
+
+		if( shouldBeInside == inside )
+		{
+			state.m_pendingMask &= ~bit;
+		}
+		else
+		{
+			if( (state.m_pendingMask & bit) == 0 )
+			{
+				state.m_pendingMask |= bit;
+				times(state)[index] = now;
+			}
+
+			if( now - state.m_pendingSince[index] >= region.getDebounceMillis() )
+			{
+				state.m_pendingMask &= ~bit;
+
+				if( shouldBeInside )
+				{
+					state.m_insideMask |= bit;
+					state.m_dwellSentMask &= ~bit;
+					state.m_enteredAt[index] = now;
+
+					send(state.m_device, region, RegionListener.Type.ENTER);
+				}
+				else
+				{
+					state.m_insideMask &= ~bit;
+
+					send(state.m_device, region, RegionListener.Type.EXIT);
+				}
+			}
+		}
+
+		if( (state.m_insideMask & bit) != 0 && (state.m_dwellSentMask & bit) == 0 )
+		{
+			final long dwellMillis = region.getDwellMillis();
+
+			if( dwellMillis < 0 )
+			{
+				state.m_dwellSentMask |= bit;
+			}
+			else if( now - state.m_enteredAt[index] >= dwellMillis )
+			{
+				state.m_dwellSentMask |= bit;
+
+				send(state.m_device, region, RegionListener.Type.DWELL);
+			}
+		}
+	}
+
+	private long[] times(final DeviceState state)
+	{
+		if( state.m_pendingSince == null )
+		{
+			state.m_pendingSince = new long[MAX_REGIONS];
+			state.m_enteredAt = new long[MAX_REGIONS];
+		}
+
+		return state.m_pendingSince;
+	}
+
+	private void updateFilterMask(final DeviceState state)
+	{
+		long filterMask = 0;
+		long mask = m_regionMask;
+
+		while( mask != 0 )
+		{
+			final int index = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+
+			if( m_regions[index].matchesFilter(state.m_device) )
+			{
+				filterMask |= 1L << index;
+			}
+		}
+
+		state.m_filterMask = filterMask;
+		state.m_filteredScanRecord = state.m_device.getScanRecord();
+		state.m_filteredRegionsVersion = m_regionsVersion;
+	}
+
+	private void updateActive(final DeviceState state)
+	{
+		final boolean active = (state.m_insideMask | state.m_pendingMask) != 0;
+
+		if( active == state.m_active )  return;
+
+		state.m_active = active;
+
+		if( active )
+		{
+			m_activeStates.add(state);
+		}
+		else
+		{
+			m_activeStates.remove(state);
+		}
+	}
+
+	private void send(final BleDevice device, final BleRegion region, final RegionListener.Type type)
+	{
+		if( region == null )  return;
+
+		if( type != RegionListener.Type.DWELL )
+		{
+			m_mngr.m_scanScheduler.onActivity();
+		}
+
+		if( m_listener == null )  return;
+
+		m_listener.onEvent(new RegionEvent(m_mngr, device, region, type));
+	}
+}
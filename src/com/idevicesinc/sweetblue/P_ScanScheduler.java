@@ -0,0 +1,70 @@
+package com.idevicesinc.sweetblue;
+
+import com.idevicesinc.sweetblue.utils.Interval;
+
+/**
+ * Decides how long {@link BleManager} pauses between automatic scan pulses. If {@link BleManagerConfig#autoScanIntervalMax}
+ * is enabled, the pause doubles after every pulse that turned up nothing new, up to that maximum, and drops straight back
+ * to the configured interval as soon as a new device or a region transition shows up. Otherwise this is a pass-through for
+ * {@link BleManagerConfig#autoScanInterval} and {@link BleManagerConfig#autoScanIntervalWhileAppIsPaused}.
+ */
+class P_ScanScheduler
+{
+	private static final int MAX_BACKOFF_SHIFT = 16;
+
+	private final BleManager m_mngr;
+
+	private int m_backoffShift = 0;
+	private int m_activitySinceLastScan = 0;
+
+	P_ScanScheduler(final BleManager mngr)
+	{
+		m_mngr = mngr;
+	}
+
+	/**
+	 * Something worth scanning more often for happened, e.g. a new device or a region transition.
+	 */
+	void onActivity()
+	{
+		m_activitySinceLastScan++;
+		m_backoffShift = 0;
+	}
+
+	void onScanEnded()
+	{
+		if( m_activitySinceLastScan == 0 )
+		{
+			m_backoffShift = Math.min(m_backoffShift + 1, MAX_BACKOFF_SHIFT);
+		}
+		else
+		{
+			m_backoffShift = 0;
+		}
+
+		m_activitySinceLastScan = 0;
+	}
+
+	void reset()
+	{
+		m_backoffShift = 0;
+		m_activitySinceLastScan = 0;
+	}
+
+	/**
+	 * Returns the current pause between scan pulses in seconds, or a disabled value if there are no automatic pulses.
+	 */
+	double getInterval(final boolean foregrounded)
+	{
+		final BleManagerConfig config = m_mngr.m_config;
+		final double min = Interval.secs(foregrounded ? config.autoScanInterval : config.autoScanIntervalWhileAppIsPaused);
+
+		if( Interval.isDisabled(min) )  return min;
+
+		final double max = Interval.secs(config.autoScanIntervalMax);
+
+		if( Interval.isDisabled(max) || max <= min )  return min;
+
+		return Math.min(min * (1 << m_backoffShift), max);
+	}
+}
@@ -0,0 +1,258 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.List;
+import java.util.UUID;
+
+import android.bluetooth.BluetoothDevice;
+
+import com.idevicesinc.sweetblue.BleManager.DiscoveryListener.DiscoveryEvent;
+import com.idevicesinc.sweetblue.BleManager.DiscoveryListener.LifeCycle;
+import com.idevicesinc.sweetblue.BleManagerConfig.ScanFilter;
+import com.idevicesinc.sweetblue.BleManagerConfig.ScanFilter.Please;
+import com.idevicesinc.sweetblue.BleManagerConfig.ScanFilter.ScanEvent;
+import com.idevicesinc.sweetblue.utils.State;
+
+/**
+ * Multiplexes {@link BleScanSession} instances passed to {@link BleManager#startScanSession(BleScanSession)} onto the single native scan.
+ * Each session's duty cycle is advanced independently and the radio is wanted whenever any of them is in a scan phase. Which sessions
+ * accept a given device is compiled into a bitmask stored on the device, with one bit per session, so routing an event costs a
+ * mask check per session instead of running every filter on every advertisement.
+ */
+class P_ScanSessionManager
+{
+	static final int MAX_SESSIONS = Long.SIZE;
+
+	private final BleManager m_mngr;
+	private final BleScanSession[] m_sessions = new BleScanSession[MAX_SESSIONS];
+	private long m_sessionMask = 0;
+	private long m_scanPhaseMask = 0;
+	private int m_sessionsVersion = 0;
+
+	P_ScanSessionManager(final BleManager mngr)
+	{
+		m_mngr = mngr;
+	}
+
+	boolean start(final BleScanSession session)
+	{
+		if( session == null || indexOf(session) >= 0 )  return false;
+
+		for( int i = 0; i < m_sessions.length; i++ )
+		{
+			if( m_sessions[i] == null )
+			{
+				session.m_listener_wrapped = session.getListener() == null ? null : new P_WrappingDiscoveryListener(session.getListener(), m_mngr.m_mainThreadHandler, m_mngr.m_config.postCallbacksToMainThread);
+				session.m_inScanPhase = true;
+				session.m_timeInPhase = 0.0;
+
+				m_sessions[i] = session;
+				m_sessionMask |= 1L << i;
+				m_scanPhaseMask |= 1L << i;
+				m_sessionsVersion++;
+
+				return true;
+			}
+		}
+
+		m_mngr.getLogger().e("Can't run more than " + MAX_SESSIONS + " scan sessions at once.");
+
+		return false;
+	}
+
+	boolean stop(final BleScanSession session)
+	{
+		final int index = indexOf(session);
+
+		if( index < 0 )  return false;
+
+		final long bit = 1L << index;
+
+		m_sessions[index] = null;
+		m_sessionMask &= ~bit;
+		m_scanPhaseMask &= ~bit;
+
+		session.m_listener_wrapped = null;
+		session.m_inScanPhase = false;
+
+		return true;
+	}
+
+	boolean hasSessions()
+	{
+		return m_sessionMask != 0;
+	}
+
+	boolean isActive(final BleScanSession session)
+	{
+		return indexOf(session) >= 0;
+	}
+
+	/**
+	 * Whether at least one session is currently in a scan phase and so wants the radio on.
+	 */
+	boolean isScanNeeded()
+	{
+		return m_scanPhaseMask != 0;
+	}
+
+	private int indexOf(final BleScanSession session)
+	{
+		if( session == null )  return -1;
+
+		for( int i = 0; i < m_sessions.length; i++ )
+		{
+			if( m_sessions[i] == session )  return i;
+		}
+
+		return -1;
+	}
+
+	void update(final double timeStep)
+	{
+		long mask = m_sessionMask;
+
+		while( mask != 0 )
+		{
+			final int index = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+
+			final BleScanSession session = m_sessions[index];
+
+			if( session.isContinuous() )
+			{
+				session.m_inScanPhase = true;
+			}
+			else
+			{
+				session.m_timeInPhase += timeStep;
+
+				final double phaseTime = session.m_inScanPhase ? session.getScanTime() : session.getPauseTime();
+
+				if( session.m_timeInPhase >= phaseTime )
+				{
+					session.m_inScanPhase = !session.m_inScanPhase;
+					session.m_timeInPhase = 0.0;
+				}
+			}
+
+			if( session.m_inScanPhase )
+			{
+				m_scanPhaseMask |= 1L << index;
+			}
+			else
+			{
+				m_scanPhaseMask &= ~(1L << index);
+			}
+		}
+	}
+
+	/**
+	 * Gives sessions a chance to acknowledge a newly seen device that the manager-wide filters ignored. A device let in here is only
+	 * ever reported to the sessions whose filters match it, never to the manager's own {@link BleManager.DiscoveryListener}.
+	 * Returns <code>null</code> if no session wants it.
+	 */
+	Please allow(final BluetoothDevice nativeInstance, final List<UUID> uuids, final String deviceName, final String normalizedDeviceName, final byte[] scanRecord, final int rssi, final State.ChangeIntent lastDisconnectIntent)
+	{
+		long mask = m_sessionMask;
+
+		ScanEvent event = null;
+		Please acceptedByFilterless = null;
+
+		while( mask != 0 )
+		{
+			final int index = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+
+			final ScanFilter filter = m_sessions[index].getFilter();
+
+			//--- DRK > A session without a filter takes everything, but a session with one might still have a config to apply, so keep looking.
+			if( filter == null )
+			{
+				acceptedByFilterless = Please.acknowledge();
+
+				continue;
+			}
+
+			event = event != null ? event : new ScanEvent(nativeInstance, uuids, deviceName, normalizedDeviceName, scanRecord, rssi, lastDisconnectIntent);
+
+			final Please please = filter.onEvent(event);
+
+			m_mngr.getLogger().checkPlease(please, Please.class);
+
+			if( please != null && please.ack() )  return please;
+		}
+
+		return acceptedByFilterless;
+	}
+
+	void onEvent(final BleDevice device, final LifeCycle lifeCycle)
+	{
+		if( m_sessionMask == 0 )  return;
+
+		long mask = getMatchMask(device);
+
+		DiscoveryEvent event = null;
+
+		while( mask != 0 )
+		{
+			final int index = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+
+			//--- DRK > A listener earlier in the loop might have stopped this session.
+			final BleScanSession session = m_sessions[index];
+
+			if( session == null || session.m_listener_wrapped == null )  continue;
+
+			event = event != null ? event : new DiscoveryEvent(m_mngr, device, lifeCycle);
+
+			session.m_listener_wrapped.onEvent(event);
+		}
+	}
+
+	private long getMatchMask(final BleDevice device)
+	{
+		//--- DRK > Like the manager-wide filters, session filters only look at a device once. The result is only recompiled when sessions are added.
+		if( device.m_scanSessionVersion != m_sessionsVersion )
+		{
+			long matchMask = 0;
+			long mask = m_sessionMask;
+
+			ScanEvent event = null;
+
+			while( mask != 0 )
+			{
+				final int index = Long.numberOfTrailingZeros(mask);
+				mask &= mask - 1;
+
+				final ScanFilter filter = m_sessions[index].getFilter();
+
+				if( filter != null )
+				{
+					event = event != null ? event : newScanEvent(device);
+
+					final Please please = filter.onEvent(event);
+
+					m_mngr.getLogger().checkPlease(please, Please.class);
+
+					if( please == null || !please.ack() )  continue;
+				}
+
+				matchMask |= 1L << index;
+			}
+
+			device.m_scanSessionMask = matchMask;
+			device.m_scanSessionVersion = m_sessionsVersion;
+		}
+
+		return device.m_scanSessionMask & m_sessionMask;
+	}
+
+	private static ScanEvent newScanEvent(final BleDevice device)
+	{
+		return new ScanEvent
+		(
+			device.getNative(), device.getAdvertisedServices_internal(), device.getName_native(),
+			device.getName_normalized(), device.getScanRecord(), device.getRssi(), device.getLastDisconnectIntent()
+		);
+	}
+}
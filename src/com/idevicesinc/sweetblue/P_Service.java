@@ -34,6 +34,16 @@ class P_Service
 		return m_mngr.get(uuid);
 	}
 	
+	public P_Characteristic get(final int index)
+	{
+		return m_mngr.get(index);
+	}
+	
+	public int getCount()
+	{
+		return m_mngr.getCount();
+	}
+	
 	public BleDevice getDevice()
 	{
 		return m_device;
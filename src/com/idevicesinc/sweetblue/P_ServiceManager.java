@@ -27,6 +27,9 @@ class P_ServiceManager
 	private final ArrayList<P_Service> m_serviceList = new ArrayList<P_Service>();
 	private final ArrayList<WeakReference<BluetoothGattService>> m_oldServices = new ArrayList<WeakReference<BluetoothGattService>>();
 	
+	//--- DRK > Swapped out whole rather than modified, so readers off the update thread never see it half built.
+	private volatile P_CharacteristicIndex m_index = null;
+	
 	public P_ServiceManager(BleDevice device)
 	{
 		m_device = device;
@@ -53,6 +56,18 @@ class P_ServiceManager
 //		
 //		return char_sim;
 		
+		final P_CharacteristicIndex index = m_index;
+		
+		if( index != null )
+		{
+			final Object hit = index.get(serviceUuid_nullable, characteristicUuid);
+			
+			if( hit != P_CharacteristicIndex.COLLISION )
+			{
+				return (P_Characteristic) hit;
+			}
+		}
+		
 		for( int i = 0; i < m_serviceList.size(); i++ )
 		{
 			P_Service ithService = m_serviceList.get(i);
@@ -107,6 +122,7 @@ class P_ServiceManager
 				m_device.getManager().getLogger().w("Weak old services array is getting pretty big...GC lagging behind");
 			}
 			
+			m_index = null;
 			m_serviceMap.clear();
 			m_serviceList.clear();			
 		}
@@ -325,6 +341,8 @@ class P_ServiceManager
 					put(ithService_native);
 				}
 			}
+			
+			m_index = new P_CharacteristicIndex(m_serviceList);
 		}
 	}
 	
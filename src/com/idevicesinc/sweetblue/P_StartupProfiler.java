@@ -0,0 +1,75 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.ArrayList;
+
+/**
+ * Records how long each part of creating a {@link BleManager} took, plus when lazily created subsystems
+ * were first needed and what they cost at that point. See {@link BleManager#getStartupProfile()}.
+ */
+class P_StartupProfiler
+{
+	private final long m_startTime = System.nanoTime();
+	private long m_lastMark = m_startTime;
+	private long m_readyTime = 0;
+
+	private final ArrayList<String> m_names = new ArrayList<String>();
+	private final ArrayList<long[]> m_times = new ArrayList<long[]>();
+
+	/**
+	 * Records a constructor phase that ran from the previous mark until now.
+	 */
+	synchronized void mark(final String phase)
+	{
+		final long now = System.nanoTime();
+
+		add(phase, m_lastMark, now);
+
+		m_lastMark = now;
+	}
+
+	/**
+	 * Marks the manager as usable, i.e. the end of the constructor.
+	 */
+	synchronized void ready()
+	{
+		m_readyTime = System.nanoTime();
+	}
+
+	/**
+	 * Records a subsystem that was created later on demand, started at the given {@link System#nanoTime()}.
+	 */
+	synchronized void lazy(final String subsystem, final long startTime)
+	{
+		//--- DRK > Anything created during construction is already covered by a constructor phase.
+		if( m_readyTime == 0 )  return;
+
+		add(subsystem + " (lazy)", startTime, System.nanoTime());
+	}
+
+	private void add(final String name, final long startTime, final long endTime)
+	{
+		m_names.add(name);
+		m_times.add(new long[]{startTime - m_startTime, endTime - startTime});
+	}
+
+	private static String millis(final long nanos)
+	{
+		return String.format("%.2fms", nanos / 1000000.0);
+	}
+
+	@Override public synchronized String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+
+		builder.append("time to usable BleManager: ").append(m_readyTime == 0 ? "n/a" : millis(m_readyTime - m_startTime));
+
+		for( int i = 0; i < m_names.size(); i++ )
+		{
+			final long[] ith = m_times.get(i);
+
+			builder.append("\n  ").append(m_names.get(i)).append(": ").append(millis(ith[1])).append(" at +").append(millis(ith[0]));
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,132 @@
+package com.idevicesinc.sweetblue;
+
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothProfile;
+
+/**
+ * Debug names for the various integer codes that {@link P_Logger} prints. These used to be collected at runtime by reflecting
+ * over {@link BluetoothGatt}, {@link BluetoothAdapter}, {@link BluetoothDevice}, {@link BluetoothProfile}, and {@link BleStatuses},
+ * which was the single most expensive part of creating a {@link BleManager} with logging enabled. The tables below were generated
+ * from those same fields, with the public SDK name winning whenever two constants share a value. Constants that are hidden
+ * or newer than what we compile against are written as literals.
+ */
+final class P_StatusNames
+{
+	private P_StatusNames(){}
+
+	static String gattConn(final int code)
+	{
+		switch( code )
+		{
+			case BluetoothProfile.STATE_DISCONNECTED:			return "STATE_DISCONNECTED";
+			case BluetoothProfile.STATE_CONNECTING:				return "STATE_CONNECTING";
+			case BluetoothProfile.STATE_CONNECTED:				return "STATE_CONNECTED";
+			case BluetoothProfile.STATE_DISCONNECTING:			return "STATE_DISCONNECTING";
+			default:											return null;
+		}
+	}
+
+	static String gattBleState(final int code)
+	{
+		switch( code )
+		{
+			case BluetoothAdapter.ERROR:						return "ERROR";
+			case BluetoothAdapter.STATE_OFF:					return "STATE_OFF";
+			case BluetoothAdapter.STATE_TURNING_ON:				return "STATE_TURNING_ON";
+			case BluetoothAdapter.STATE_ON:						return "STATE_ON";
+			case BluetoothAdapter.STATE_TURNING_OFF:			return "STATE_TURNING_OFF";
+			case BluetoothAdapter.STATE_DISCONNECTED:			return "STATE_DISCONNECTED";
+			case BluetoothAdapter.STATE_CONNECTING:				return "STATE_CONNECTING";
+			case BluetoothAdapter.STATE_CONNECTED:				return "STATE_CONNECTED";
+			case BluetoothAdapter.STATE_DISCONNECTING:			return "STATE_DISCONNECTING";
+			default:											return null;
+		}
+	}
+
+	static String gattBondState(final int code)
+	{
+		switch( code )
+		{
+			case BluetoothDevice.BOND_NONE:						return "BOND_NONE";
+			case BluetoothDevice.BOND_BONDING:					return "BOND_BONDING";
+			case BluetoothDevice.BOND_BONDED:					return "BOND_BONDED";
+			default:											return null;
+		}
+	}
+
+	static String gattUnbondReason(final int code)
+	{
+		switch( code )
+		{
+			case BleStatuses.BOND_FAIL_REASON_NOT_APPLICABLE:	return "BOND_FAIL_REASON_NOT_APPLICABLE";
+			case 1:												return "UNBOND_REASON_AUTH_FAILED";
+			case 2:												return "UNBOND_REASON_AUTH_REJECTED";
+			case 3:												return "UNBOND_REASON_AUTH_CANCELED";
+			case 4:												return "UNBOND_REASON_REMOTE_DEVICE_DOWN";
+			case 5:												return "UNBOND_REASON_DISCOVERY_IN_PROGRESS";
+			case 6:												return "UNBOND_REASON_AUTH_TIMEOUT";
+			case 7:												return "UNBOND_REASON_REPEATED_ATTEMPTS";
+			case 8:												return "UNBOND_REASON_REMOTE_AUTH_CANCELED";
+			case 9:												return "UNBOND_REASON_REMOVED";
+			default:											return null;
+		}
+	}
+
+	static String gattStatus(final int code)
+	{
+		switch( code )
+		{
+			case BleStatuses.GATT_STATUS_NOT_APPLICABLE:		return "GATT_STATUS_NOT_APPLICABLE";
+			case BluetoothGatt.GATT_SUCCESS:					return "GATT_SUCCESS";
+			case BleStatuses.GATT_INVALID_HANDLE:				return "GATT_INVALID_HANDLE";
+			case BluetoothGatt.GATT_READ_NOT_PERMITTED:			return "GATT_READ_NOT_PERMITTED";
+			case BluetoothGatt.GATT_WRITE_NOT_PERMITTED:		return "GATT_WRITE_NOT_PERMITTED";
+			case BleStatuses.GATT_INVALID_PDU:					return "GATT_INVALID_PDU";
+			case BluetoothGatt.GATT_INSUFFICIENT_AUTHENTICATION:return "GATT_INSUFFICIENT_AUTHENTICATION";
+			case BluetoothGatt.GATT_REQUEST_NOT_SUPPORTED:		return "GATT_REQUEST_NOT_SUPPORTED";
+			case BluetoothGatt.GATT_INVALID_OFFSET:				return "GATT_INVALID_OFFSET";
+			case BleStatuses.GATT_INSUF_AUTHORIZATION:			return "GATT_INSUF_AUTHORIZATION";
+			case BleStatuses.GATT_PREPARE_Q_FULL:				return "GATT_PREPARE_Q_FULL";
+			case BleStatuses.GATT_NOT_FOUND:					return "GATT_NOT_FOUND";
+			case BleStatuses.GATT_NOT_LONG:						return "GATT_NOT_LONG";
+			case BleStatuses.GATT_INSUF_KEY_SIZE:				return "GATT_INSUF_KEY_SIZE";
+			case BluetoothGatt.GATT_INVALID_ATTRIBUTE_LENGTH:	return "GATT_INVALID_ATTRIBUTE_LENGTH";
+			case BleStatuses.GATT_ERR_UNLIKELY:					return "GATT_ERR_UNLIKELY";
+			case BluetoothGatt.GATT_INSUFFICIENT_ENCRYPTION:	return "GATT_INSUFFICIENT_ENCRYPTION";
+			case BleStatuses.GATT_UNSUPPORT_GRP_TYPE:			return "GATT_UNSUPPORT_GRP_TYPE";
+			case BleStatuses.GATT_INSUF_RESOURCE:				return "GATT_INSUF_RESOURCE";
+			case BleStatuses.GATT_REQ_WRITE:					return "GATT_REQ_WRITE";
+			case BleStatuses.GATT_RSP_WRITE:					return "GATT_RSP_WRITE";
+			case BleStatuses.GATT_REQ_PREPARE_WRITE:			return "GATT_REQ_PREPARE_WRITE";
+			case BleStatuses.GATT_RSP_PREPARE_WRITE:			return "GATT_RSP_PREPARE_WRITE";
+			case BleStatuses.GATT_REQ_EXEC_WRITE:				return "GATT_REQ_EXEC_WRITE";
+			case BleStatuses.GATT_RSP_EXEC_WRITE:				return "GATT_RSP_EXEC_WRITE";
+			case BleStatuses.GATT_HANDLE_VALUE_NOTIF:			return "GATT_HANDLE_VALUE_NOTIF";
+			case BleStatuses.GATT_HANDLE_VALUE_IND:				return "GATT_HANDLE_VALUE_IND";
+			case BleStatuses.GATT_HANDLE_VALUE_CONF:			return "GATT_HANDLE_VALUE_CONF";
+			case BleStatuses.GATT_OP_CODE_MAX:					return "GATT_OP_CODE_MAX";
+			case BleStatuses.GATT_CMD_WRITE:					return "GATT_CMD_WRITE";
+			case BleStatuses.GATT_NO_RESOURCES:					return "GATT_NO_RESOURCES";
+			case BleStatuses.GATT_INTERNAL_ERROR:				return "GATT_INTERNAL_ERROR";
+			case BleStatuses.GATT_WRONG_STATE:					return "GATT_WRONG_STATE";
+			case BleStatuses.GATT_DB_FULL:						return "GATT_DB_FULL";
+			case BleStatuses.GATT_BUSY:							return "GATT_BUSY";
+			case BleStatuses.GATT_ERROR:						return "GATT_ERROR";
+			case BleStatuses.GATT_CMD_STARTED:					return "GATT_CMD_STARTED";
+			case BleStatuses.GATT_ILLEGAL_PARAMETER:			return "GATT_ILLEGAL_PARAMETER";
+			case BleStatuses.GATT_PENDING:						return "GATT_PENDING";
+			case BleStatuses.GATT_AUTH_FAIL:					return "GATT_AUTH_FAIL";
+			case BleStatuses.GATT_MORE:							return "GATT_MORE";
+			case BleStatuses.GATT_INVALID_CFG:					return "GATT_INVALID_CFG";
+			case BleStatuses.GATT_SERVICE_STARTED:				return "GATT_SERVICE_STARTED";
+			case BleStatuses.GATT_ENCRYPED_NO_MITM:				return "GATT_ENCRYPED_NO_MITM";
+			case BleStatuses.GATT_NOT_ENCRYPTED:				return "GATT_NOT_ENCRYPTED";
+			case 0x008f:										return "GATT_CONNECTION_CONGESTED";
+			case BleStatuses.GATT_SIGN_CMD_WRITE:				return "GATT_SIGN_CMD_WRITE";
+			case 0x0101:										return "GATT_FAILURE";
+			default:											return null;
+		}
+	}
+}
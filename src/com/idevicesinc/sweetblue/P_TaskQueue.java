@@ -14,7 +14,8 @@ class P_TaskQueue
 	private final BleManager m_mngr;
 	private double m_time = 0.0;
 	
-	private Handler m_executeHandler = null;
+	private volatile Handler m_executeHandler = null;
+	private Thread m_executeThread = null;
 	
 	private int m_currentOrdinal;
 	
@@ -22,8 +23,6 @@ class P_TaskQueue
 	{
 		m_mngr = mngr;
 		m_logger = mngr.getLogger();
-		
-		initHandler(); 
 	}
 	
 	int assignOrdinal()
@@ -40,19 +39,26 @@ class P_TaskQueue
 		return m_currentOrdinal;
 	}
 	
+	//--- DRK > The execute thread isn't needed until there's actually a task to run, so it's started on demand
+	//---		instead of making every BleManager pay for it up front.
 	private void initHandler()
 	{
-		final Thread thread = new Thread()
+		if( m_executeThread != null )  return;
+
+		final long startTime = System.nanoTime();
+
+		m_executeThread = new Thread()
 		{
 			@Override public void run()
 			{
 				Looper.prepare();
 				m_executeHandler = new Handler(Looper.myLooper());
+				m_mngr.getStartupProfiler().lazy("task execute thread", startTime);
 				Looper.loop();
 			}
 		};
 		
-		thread.start();
+		m_executeThread.start();
 	}
 	
 	private boolean tryCancellingCurrentTask(PA_Task newTask)
@@ -162,6 +168,8 @@ class P_TaskQueue
 		{
 			@Override public void run()
 			{
+						initHandler();
+
 						if	(	tryCancellingCurrentTask	(newTask)	){}
 				else	if	(	tryInterruptingCurrentTask	(newTask) 	){}
 				else	if	(	tryInsertingIntoQueue		(newTask) 	){}
@@ -182,6 +190,8 @@ class P_TaskQueue
 		
 		if( m_executeHandler == null )
 		{
+			if( m_executeThread == null )  return;
+
 			m_logger.d("Waiting for execute handler to initialize.");
 			
 			return;
@@ -340,6 +350,21 @@ class P_TaskQueue
 		return false;
 	}
 	
+	/**
+	 * Whether any task, of whatever type, is running or waiting for the given device.
+	 */
+	boolean hasTasksFor(final BleDevice device)
+	{
+		if( getCurrent() != null && getCurrent().getDevice() == device )  return true;
+		
+		for( int i = 0; i < m_queue.size(); i++ )
+		{
+			if( m_queue.get(i).getDevice() == device )  return true;
+		}
+		
+		return false;
+	}
+	
 	public int getSize()
 	{
 		return m_queue.size();
@@ -59,6 +59,7 @@ class P_Task_Read extends PA_Task_ReadOrWrite
 	{
 		ReadWriteEvent result = newReadWriteEvent(value, target, getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID);
 		getDevice().addReadTime(result.time_total().secs());
+		getDevice().addTransferredBytes(value != null ? value.length : 0, getTotalTimeExecuting());
 		
 		getDevice().invokeReadWriteCallback(m_readWriteListener, result);
 		 
@@ -0,0 +1,187 @@
+package com.idevicesinc.sweetblue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.idevicesinc.sweetblue.BleDevice.ReadManyListener;
+import com.idevicesinc.sweetblue.BleDevice.ReadManyListener.ReadManyEvent;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.ReadWriteEvent;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.Status;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.Target;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.Type;
+import com.idevicesinc.sweetblue.utils.Utils;
+
+/**
+ * Reads a list of characteristics back to back as a single task, so nothing else in the queue can get between them, and reports
+ * all the results at once through a {@link ReadManyListener}. A failed read is recorded and the batch moves on to the next one.
+ * The task timeout applies to each read separately.
+ */
+class P_Task_ReadMany extends PA_Task_Transactionable implements PA_Task.I_StateListener
+{
+	private final P_Characteristic[] m_characteristics;
+	private final ReadWriteEvent[] m_results;
+	private final ReadManyListener m_listener;
+
+	private int m_index = 0;
+	private boolean m_reported = false;
+
+	/**
+	 * @param characteristics	One entry per requested read. Entries that are <code>null</code> must already have a result in <code>earlyOutResults</code>.
+	 */
+	public P_Task_ReadMany(BleDevice device, P_Characteristic[] characteristics, ReadWriteEvent[] earlyOutResults, boolean requiresBonding, ReadManyListener listener, BleTransaction txn, PE_TaskPriority priority)
+	{
+		super(device, txn, requiresBonding, priority);
+
+		m_characteristics = characteristics;
+		m_results = earlyOutResults;
+		m_listener = listener;
+	}
+
+	private ReadWriteEvent newReadWriteEvent(final P_Characteristic characteristic, final byte[] data, final Status status, final int gattStatus)
+	{
+		return new ReadWriteEvent(getDevice(), characteristic.getServiceUuid(), characteristic.getUuid(), ReadWriteEvent.NON_APPLICABLE_UUID, Type.READ, Target.CHARACTERISTIC, data, status, gattStatus, getTotalTime(), getTotalTimeExecuting());
+	}
+
+	@Override public void execute()
+	{
+		//--- DRK > If we were interrupted by an implicit bond the read in flight never came back, so it's simply sent again.
+		readNext();
+	}
+
+	private void readNext()
+	{
+		while( m_index < m_characteristics.length )
+		{
+			final P_Characteristic characteristic = m_characteristics[m_index];
+
+			if( m_results[m_index] != null )
+			{
+				m_index++;
+
+				continue;
+			}
+
+			final BluetoothGattCharacteristic char_native = getDevice().getNativeCharacteristic(characteristic.getServiceUuid(), characteristic.getUuid());
+
+			if( char_native == null )
+			{
+				m_results[m_index] = newReadWriteEvent(characteristic, null, Status.NO_MATCHING_TARGET, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
+				m_index++;
+
+				continue;
+			}
+
+			if( !getDevice().getNativeGatt().readCharacteristic(char_native) )
+			{
+				m_results[m_index] = newReadWriteEvent(characteristic, null, Status.FAILED_TO_SEND_OUT, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
+				m_index++;
+
+				continue;
+			}
+
+			resetTimeout(getTimeout());
+
+			return;
+		}
+
+		succeed();
+	}
+
+	public void onCharacteristicRead(final BluetoothGatt gatt, final UUID uuid, final byte[] value, final int gattStatus)
+	{
+		getManager().ASSERT(gatt == getDevice().getNativeGatt());
+
+		if( getState() != PE_TaskState.EXECUTING || m_index >= m_characteristics.length )  return;
+
+		final P_Characteristic characteristic = m_characteristics[m_index];
+
+		if( !characteristic.getUuid().equals(uuid) )  return;
+
+		//--- DRK > Same reasoning as PA_Task_ReadOrWrite#acknowledgeCallback().
+		if( gattStatus == BluetoothGatt.GATT_INSUFFICIENT_AUTHENTICATION || gattStatus == BleStatuses.GATT_AUTH_FAIL )  return;
+
+		final ReadWriteEvent result;
+
+		if( !Utils.isSuccess(gattStatus) )
+		{
+			result = newReadWriteEvent(characteristic, null, Status.REMOTE_GATT_FAILURE, gattStatus);
+		}
+		else if( value == null )
+		{
+			result = newReadWriteEvent(characteristic, null, Status.NULL_DATA, gattStatus);
+		}
+		else if( value.length == 0 )
+		{
+			result = newReadWriteEvent(characteristic, value, Status.EMPTY_DATA, gattStatus);
+		}
+		else
+		{
+			result = newReadWriteEvent(characteristic, value, Status.SUCCESS, gattStatus);
+
+			getDevice().addReadTime(result.time_total().secs());
+		}
+
+		m_results[m_index] = result;
+		m_index++;
+
+		readNext();
+	}
+
+	private Status getUnfinishedStatus(final PE_TaskState state)
+	{
+		if( state == PE_TaskState.TIMED_OUT )
+		{
+			return Status.TIMED_OUT;
+		}
+		else if( !getDevice().is(BleDeviceState.CONNECTED) )
+		{
+			return Status.NOT_CONNECTED;
+		}
+		else
+		{
+			return getCancelType();
+		}
+	}
+
+	@Override public void onStateChange(final PA_Task task, final PE_TaskState state)
+	{
+		//--- DRK > Interrupted tasks go back on the queue and pick up where they left off.
+		if( !state.isEndingState() || state == PE_TaskState.INTERRUPTED || m_reported )  return;
+
+		m_reported = true;
+
+		if( state == PE_TaskState.TIMED_OUT )
+		{
+			m_logger.w("Batch read timed out after " + m_index + " of " + m_characteristics.length + " characteristics!");
+		}
+
+		final Status unfinishedStatus = getUnfinishedStatus(state);
+
+		for( int i = 0; i < m_results.length; i++ )
+		{
+			if( m_results[i] == null )
+			{
+				m_results[i] = newReadWriteEvent(m_characteristics[i], null, unfinishedStatus, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
+			}
+		}
+
+		if( m_listener != null )
+		{
+			m_listener.onEvent(new ReadManyEvent(getDevice(), Collections.unmodifiableList(Arrays.asList(m_results)), getTotalTime()));
+		}
+	}
+
+	@Override protected String getToStringAddition()
+	{
+		return m_index + "/" + m_characteristics.length;
+	}
+
+	@Override protected BleTask getTaskType()
+	{
+		return BleTask.READ;
+	}
+}
@@ -0,0 +1,65 @@
+package com.idevicesinc.sweetblue;
+
+import java.lang.reflect.Method;
+
+import android.bluetooth.BluetoothGatt;
+
+/**
+ * Asks the stack for a different connection interval, see {@link BleConnectionPriority}. Unlike an MTU request there's no callback
+ * for this, so the task is done as soon as the request goes out and the new priority is assumed to be in effect from then on.
+ */
+class P_Task_RequestConnectionPriority extends PA_Task_Transactionable
+{
+	private final BleConnectionPriority m_connectionPriority;
+
+	public P_Task_RequestConnectionPriority(BleDevice device, BleConnectionPriority connectionPriority, BleTransaction txn, PE_TaskPriority priority)
+	{
+		super(device, txn, false, priority);
+
+		m_connectionPriority = connectionPriority;
+	}
+
+	@Override public void execute()
+	{
+		if( requestConnectionPriority() )
+		{
+			getDevice().onConnectionPriorityChanged(m_connectionPriority);
+
+			succeed();
+		}
+		else
+		{
+			m_logger.w("Couldn't request a connection priority of " + m_connectionPriority + ".");
+
+			getDevice().onConnectionPriorityRequestFailed();
+
+			failImmediately();
+		}
+	}
+
+	//--- DRK > Like P_Task_RequestMtu, this is an API 21 method that we still build against API 19 for, so it has to go through reflection.
+	private boolean requestConnectionPriority()
+	{
+		try
+		{
+			final Method method = BluetoothGatt.class.getMethod("requestConnectionPriority", int.class);
+			final Boolean result = (Boolean) method.invoke(getDevice().getNativeGatt(), m_connectionPriority.getNativeValue());
+
+			return result != null && result;
+		}
+		catch (Exception e)
+		{
+			return false;
+		}
+	}
+
+	@Override protected String getToStringAddition()
+	{
+		return m_connectionPriority.name();
+	}
+
+	@Override protected BleTask getTaskType()
+	{
+		return BleTask.SET_CONNECTION_PRIORITY;
+	}
+}
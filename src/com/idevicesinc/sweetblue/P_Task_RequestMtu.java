@@ -0,0 +1,82 @@
+package com.idevicesinc.sweetblue;
+
+import java.lang.reflect.Method;
+
+import android.bluetooth.BluetoothGatt;
+
+import com.idevicesinc.sweetblue.utils.Utils;
+
+/**
+ * Asks the remote device for a bigger MTU right after connecting, see {@link BleDeviceConfig#mtuSize}. Failure isn't fatal to the
+ * connection, the device just stays at {@link BleDeviceConfig#DEFAULT_MTU_SIZE}.
+ */
+class P_Task_RequestMtu extends PA_Task_RequiresConnection implements PA_Task.I_StateListener
+{
+	private final int m_mtu;
+
+	public P_Task_RequestMtu(BleDevice device, int mtu)
+	{
+		super(device, null);
+
+		m_mtu = mtu;
+	}
+
+	@Override public void execute()
+	{
+		if( !requestMtu() )
+		{
+			m_logger.w("Couldn't request an MTU of " + m_mtu + ".");
+
+			failImmediately();
+		}
+	}
+
+	//--- DRK > BluetoothGatt.requestMtu() only exists as of API 21, and we still build against API 19, so it has to go through reflection.
+	private boolean requestMtu()
+	{
+		try
+		{
+			final Method method = BluetoothGatt.class.getMethod("requestMtu", int.class);
+			final Boolean result = (Boolean) method.invoke(getDevice().getNativeGatt(), m_mtu);
+
+			return result != null && result;
+		}
+		catch (Exception e)
+		{
+			return false;
+		}
+	}
+
+	public void onMtuChanged(final BluetoothGatt gatt, final int mtu, final int gattStatus)
+	{
+		getManager().ASSERT(gatt == getDevice().getNativeGatt());
+
+		if( Utils.isSuccess(gattStatus) )
+		{
+			succeed();
+		}
+		else
+		{
+			fail();
+		}
+	}
+
+	@Override public void onStateChange(final PA_Task task, final PE_TaskState state)
+	{
+		if( state == PE_TaskState.TIMED_OUT )
+		{
+			m_logger.w("MTU request timed out, staying at " + getDevice().getMtu() + ".");
+		}
+	}
+
+	@Override public PE_TaskPriority getPriority()
+	{
+		//--- DRK > Same as service discovery, which is queued right after this.
+		return PE_TaskPriority.MEDIUM;
+	}
+
+	@Override protected BleTask getTaskType()
+	{
+		return BleTask.REQUEST_MTU;
+	}
+}
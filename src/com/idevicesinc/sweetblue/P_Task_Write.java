@@ -15,13 +15,14 @@ import com.idevicesinc.sweetblue.BleManager.UhOhListener.UhOh;
 
 class P_Task_Write extends PA_Task_ReadOrWrite
 {
-	public static final int MTU_LIMIT = 20;
+	//--- DRK > ATT opcode plus attribute handle.
+	private static final int WRITE_HEADER_SIZE = 3;
 	
 	private final byte[] m_allDataToSend;
 	
 	private int m_offset = 0;
 	private byte[] m_maxChunkBuffer;
-	private final int m_maxChunkSize = MTU_LIMIT;
+	private int m_maxChunkSize = BleDeviceConfig.DEFAULT_MTU_SIZE - WRITE_HEADER_SIZE;
 	
 	private byte[] m_lastChunkBufferSent;
 	
@@ -58,6 +59,9 @@ class P_Task_Write extends PA_Task_ReadOrWrite
 			return;
 		}
 		
+		//--- DRK > Checked here instead of the constructor because the MTU might get negotiated while this task waits in the queue.
+		m_maxChunkSize = getDevice().getMtu() - WRITE_HEADER_SIZE;
+		
 		if( !weBeChunkin() )
 		{
 			write(m_allDataToSend, char_native);
@@ -118,6 +122,7 @@ class P_Task_Write extends PA_Task_ReadOrWrite
 	{
 		ReadWriteEvent result = newReadWriteEvent(Status.SUCCESS, BluetoothGatt.GATT_SUCCESS, getDefaultTarget(), getServiceUuid(), getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID);
 		getDevice().addWriteTime(result.time_total().secs());
+		getDevice().addTransferredBytes(m_allDataToSend.length, getTotalTimeExecuting());
 		getDevice().invokeReadWriteCallback(m_readWriteListener, result);
 		 
 		super.succeed();
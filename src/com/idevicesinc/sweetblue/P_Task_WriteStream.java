@@ -0,0 +1,316 @@
+package com.idevicesinc.sweetblue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.ReadWriteEvent;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.Status;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.Target;
+import com.idevicesinc.sweetblue.BleDevice.ReadWriteListener.Type;
+import com.idevicesinc.sweetblue.BleDevice.StreamListener;
+import com.idevicesinc.sweetblue.BleDevice.StreamListener.StreamEvent;
+import com.idevicesinc.sweetblue.utils.Utils;
+import com.idevicesinc.sweetblue.BleManager.UhOhListener.UhOh;
+
+/**
+ * Streams an {@link InputStream} to a characteristic with {@link BluetoothGattCharacteristic#WRITE_TYPE_NO_RESPONSE}, one (MTU - 3)-sized
+ * packet at a time. Pacing is credit based: at most {@link BleStreamOptions#withWindow(int)} packets are outstanding, each write callback
+ * returns a credit, and a packet the stack refuses is retried on the next update. The whole stream is one task, so it holds the queue
+ * like any other write and reports a single result to the {@link BleDevice.ReadWriteListener}.
+ */
+class P_Task_WriteStream extends PA_Task_ReadOrWrite
+{
+	private static final int WRITE_HEADER_SIZE = 3;
+	private static final double PROGRESS_INTERVAL = 0.25;
+
+	private final InputStream m_stream;
+	private final long m_totalBytes;
+	private final BleStreamOptions m_options;
+	private final StreamListener m_progressListener;
+
+	private int m_chunkSize;
+	private int m_originalWriteType;
+	private boolean m_useCheckpoints;
+
+	private byte[] m_nextPacket = null;
+	private boolean m_endOfStream = false;
+
+	//--- DRK > Ring of the sizes of packets the stack hasn't called back for yet.
+	private int[] m_inFlight;
+	private int m_inFlightStart = 0;
+	private int m_inFlightCount = 0;
+
+	private boolean m_waitingForCheckpoint = false;
+	private long m_bytesSinceCheckpoint = 0;
+	private long m_bytesSent = 0;
+	private double m_timeSinceProgress = 0.0;
+	private boolean m_ended = false;
+
+	public P_Task_WriteStream(BleDevice device, P_Characteristic characteristic, InputStream stream, long totalBytes, BleStreamOptions options, StreamListener progressListener_nullable, boolean requiresBonding, P_WrappingReadWriteListener writeListener, BleTransaction txn, PE_TaskPriority priority)
+	{
+		super(device, characteristic, writeListener, requiresBonding, txn, priority);
+
+		m_stream = stream;
+		m_totalBytes = totalBytes;
+		m_options = options;
+		m_progressListener = progressListener_nullable;
+	}
+
+	@Override protected ReadWriteEvent newReadWriteEvent(final Status status, final int gattStatus, final Target target, final UUID serviceUuid, final UUID charUuid, final UUID descUuid)
+	{
+		return new ReadWriteEvent(getDevice(), serviceUuid, charUuid, descUuid, Type.WRITE_NO_RESPONSE, target, BleDevice.EMPTY_BYTE_ARRAY, status, gattStatus, getTotalTime(), getTotalTimeExecuting());
+	}
+
+	@Override public void execute()
+	{
+		super.execute();
+
+		final BluetoothGattCharacteristic char_native = getDevice().getNativeCharacteristic(getServiceUuid(), getCharUuid());
+
+		if( char_native == null )
+		{
+			fail(Status.NO_MATCHING_TARGET, BleStatuses.GATT_STATUS_NOT_APPLICABLE, Target.CHARACTERISTIC, getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID);
+
+			return;
+		}
+
+		//--- DRK > An interrupted stream leaves our write type on the characteristic, so only the first run sees the real original.
+		if( m_inFlight == null )
+		{
+			m_originalWriteType = char_native.getWriteType();
+		}
+
+		m_chunkSize = getDevice().getMtu() - WRITE_HEADER_SIZE;
+		m_useCheckpoints = m_options.getCheckpointBytes() > 0 && (char_native.getProperties() & BluetoothGattCharacteristic.PROPERTY_WRITE) != 0x0;
+
+		//--- DRK > Callbacks for anything in flight when we were interrupted won't come, so start over with an empty window.
+		m_inFlight = new int[m_options.getWindow()];
+		m_inFlightStart = 0;
+		m_inFlightCount = 0;
+		m_waitingForCheckpoint = false;
+		m_bytesSinceCheckpoint = 0;
+
+		pump();
+	}
+
+	private void pump()
+	{
+		if( getState() != PE_TaskState.EXECUTING )  return;
+
+		final BluetoothGattCharacteristic char_native = getDevice().getNativeCharacteristic(getServiceUuid(), getCharUuid());
+
+		while( m_inFlightCount < m_inFlight.length && !m_waitingForCheckpoint )
+		{
+			if( m_nextPacket == null && !m_endOfStream )
+			{
+				try
+				{
+					m_nextPacket = readPacket();
+				}
+				catch(IOException e)
+				{
+					m_logger.e("Couldn't read stream for " + m_logger.charName(getCharUuid()) + ": " + e);
+
+					fail(Status.FAILED_TO_SET_VALUE_ON_TARGET, BleStatuses.GATT_STATUS_NOT_APPLICABLE, Target.CHARACTERISTIC, getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID);
+
+					return;
+				}
+
+				m_endOfStream = m_nextPacket == null;
+			}
+
+			if( m_nextPacket == null )
+			{
+				if( m_inFlightCount == 0 )
+				{
+					succeed();
+				}
+
+				return;
+			}
+
+			final boolean checkpoint = m_useCheckpoints && m_bytesSinceCheckpoint + m_nextPacket.length >= m_options.getCheckpointBytes();
+
+			char_native.setWriteType(checkpoint ? BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT : BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE);
+
+			if( !char_native.setValue(m_nextPacket) )
+			{
+				fail(Status.FAILED_TO_SET_VALUE_ON_TARGET, BleStatuses.GATT_STATUS_NOT_APPLICABLE, Target.CHARACTERISTIC, getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID);
+
+				return;
+			}
+
+			//--- DRK > Stack is busy, which for no-response writes just means it's out of buffer. Try again next update.
+			if( !getDevice().getNativeGatt().writeCharacteristic(char_native) )  return;
+
+			m_inFlight[(m_inFlightStart + m_inFlightCount) % m_inFlight.length] = m_nextPacket.length;
+			m_inFlightCount++;
+			m_nextPacket = null;
+
+			if( checkpoint )
+			{
+				m_waitingForCheckpoint = true;
+				m_bytesSinceCheckpoint = 0;
+			}
+		}
+	}
+
+	private byte[] readPacket() throws IOException
+	{
+		final byte[] buffer = new byte[m_chunkSize];
+
+		int offset = 0;
+
+		while( offset < buffer.length )
+		{
+			final int read = m_stream.read(buffer, offset, buffer.length - offset);
+
+			if( read < 0 )  break;
+
+			offset += read;
+		}
+
+		if( offset == 0 )  return null;
+
+		if( offset == buffer.length )  return buffer;
+
+		final byte[] packet = new byte[offset];
+		Utils.memcpy(packet, buffer, offset);
+
+		return packet;
+	}
+
+	public void onCharacteristicWrite(final BluetoothGatt gatt, final UUID uuid, final int gattStatus)
+	{
+		getManager().ASSERT(gatt == getDevice().getNativeGatt());
+
+		if( !this.isFor(uuid) )  return;
+
+		if( !acknowledgeCallback(gattStatus) )  return;
+
+		if( !Utils.isSuccess(gattStatus) )
+		{
+			fail(Status.REMOTE_GATT_FAILURE, gattStatus, Target.CHARACTERISTIC, uuid, ReadWriteEvent.NON_APPLICABLE_UUID);
+
+			return;
+		}
+
+		if( m_inFlightCount > 0 )
+		{
+			final int size = m_inFlight[m_inFlightStart];
+
+			m_inFlightStart = (m_inFlightStart + 1) % m_inFlight.length;
+			m_inFlightCount--;
+			m_bytesSent += size;
+			m_bytesSinceCheckpoint += size;
+		}
+
+		//--- DRK > Nothing gets sent after a checkpoint until it's acknowledged, so it's always the last one outstanding.
+		if( m_waitingForCheckpoint && m_inFlightCount == 0 )
+		{
+			m_waitingForCheckpoint = false;
+			m_bytesSinceCheckpoint = 0;
+
+			reportProgress();
+		}
+
+		resetTimeout(getTimeout());
+
+		pump();
+	}
+
+	@Override public void update(final double timeStep)
+	{
+		super.update(timeStep);
+
+		if( getState() != PE_TaskState.EXECUTING )  return;
+
+		m_timeSinceProgress += timeStep;
+
+		if( m_timeSinceProgress >= PROGRESS_INTERVAL )
+		{
+			reportProgress();
+		}
+
+		pump();
+	}
+
+	private void reportProgress()
+	{
+		m_timeSinceProgress = 0.0;
+
+		if( m_progressListener == null )  return;
+
+		m_progressListener.onEvent(new StreamEvent(getDevice(), getCharUuid(), m_bytesSent, m_totalBytes, getTotalTimeExecuting()));
+	}
+
+	@Override protected void succeed()
+	{
+		reportProgress();
+
+		final ReadWriteEvent result = newReadWriteEvent(Status.SUCCESS, BluetoothGatt.GATT_SUCCESS, getDefaultTarget(), getServiceUuid(), getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID);
+		getDevice().invokeReadWriteCallback(m_readWriteListener, result);
+
+		super.succeed();
+	}
+
+	private void cleanUp()
+	{
+		final BluetoothGattCharacteristic char_native = getDevice().getNativeCharacteristic(getServiceUuid(), getCharUuid());
+
+		if( char_native != null && m_inFlight != null )
+		{
+			char_native.setWriteType(m_originalWriteType);
+		}
+
+		try
+		{
+			m_stream.close();
+		}
+		catch(IOException e)
+		{
+		}
+	}
+
+	@Override public void onStateChange(final PA_Task task, final PE_TaskState state)
+	{
+		super.onStateChange(task, state);
+
+		//--- DRK > Interrupted streams are picked back up where they left off, so the stream has to stay open.
+		if( state.isEndingState() && state != PE_TaskState.INTERRUPTED )
+		{
+			cleanUp();
+		}
+
+		//--- DRK > Interrupted streams go back on the queue, and a soft cancel can follow success, so this only happens once.
+		if( state.isEndingState() && state != PE_TaskState.INTERRUPTED && !m_ended )
+		{
+			m_ended = true;
+
+			getDevice().addTransferredBytes(m_bytesSent, getTotalTimeExecuting());
+			getDevice().onStreamEnded();
+		}
+
+		if( state == PE_TaskState.TIMED_OUT )
+		{
+			m_logger.w(m_logger.charName(getCharUuid()) + " stream timed out after " + m_bytesSent + " bytes!");
+
+			getDevice().invokeReadWriteCallback(m_readWriteListener, newReadWriteEvent(Status.TIMED_OUT, BleStatuses.GATT_STATUS_NOT_APPLICABLE, Target.CHARACTERISTIC, getServiceUuid(), getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID));
+
+			getManager().uhOh(UhOh.WRITE_TIMED_OUT);
+		}
+		else if( state == PE_TaskState.SOFTLY_CANCELLED )
+		{
+			getDevice().invokeReadWriteCallback(m_readWriteListener, newReadWriteEvent(getCancelType(), BleStatuses.GATT_STATUS_NOT_APPLICABLE, Target.CHARACTERISTIC, getServiceUuid(), getCharUuid(), ReadWriteEvent.NON_APPLICABLE_UUID));
+		}
+	}
+
+	@Override protected BleTask getTaskType()
+	{
+		return BleTask.WRITE;
+	}
+}
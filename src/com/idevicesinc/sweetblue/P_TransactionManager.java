@@ -86,6 +86,7 @@ class P_TransactionManager
 //				m_device.m_txnMngr.clearFirmwareUpdateTxn();
 				E_Intent intent = E_Intent.UNINTENTIONAL;
 				m_device.stateTracker_main().remove(PERFORMING_OTA, intent, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
+				m_device.updateConnectionPriority(null);
 
 				//--- DRK > As of now don't care whether this succeeded or failed.
 				if (reason == EndReason.SUCCEEDED)
@@ -327,6 +328,9 @@ class P_TransactionManager
 			
 			m_device.stateTracker_main().append(PERFORMING_OTA, E_Intent.INTENTIONAL, BleStatuses.GATT_STATUS_NOT_APPLICABLE);
 			
+			//--- DRK > Queued before the transaction starts so the priority bump is in effect for its very first write.
+			m_device.updateConnectionPriority(m_firmwareUpdateTxn);
+			
 			start(m_firmwareUpdateTxn);
 		}
 	}
@@ -0,0 +1,38 @@
+package com.idevicesinc.sweetblue;
+
+import android.os.Handler;
+
+/**
+ * 
+ * 
+ *
+ */
+class P_WrappingConnectAllListener extends PA_CallbackWrapper implements BleManager.ConnectAllListener
+{
+	final BleManager.ConnectAllListener m_listener;
+	
+	P_WrappingConnectAllListener(BleManager.ConnectAllListener listener, Handler handler, boolean postToMain)
+	{
+		super(handler, postToMain);
+		
+		m_listener = listener;
+	}
+	
+	@Override public void onEvent(final ConnectAllEvent event)
+	{
+		if( postToMain() )
+		{
+			m_handler.post(new Runnable()
+			{
+				@Override public void run()
+				{
+					m_listener.onEvent(event);
+				}
+			});
+		}
+		else
+		{
+			m_listener.onEvent(event);
+		}
+	}
+}
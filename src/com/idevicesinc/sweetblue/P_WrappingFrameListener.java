@@ -0,0 +1,38 @@
+package com.idevicesinc.sweetblue;
+
+import android.os.Handler;
+
+/**
+ * 
+ * 
+ *
+ */
+class P_WrappingFrameListener extends PA_CallbackWrapper implements BleDevice.FrameListener
+{
+	final BleDevice.FrameListener m_listener;
+	
+	P_WrappingFrameListener(BleDevice.FrameListener listener, Handler handler, boolean postToMain)
+	{
+		super(handler, postToMain);
+		
+		m_listener = listener;
+	}
+	
+	@Override public void onEvent(final FrameEvent event)
+	{
+		if( postToMain() )
+		{
+			m_handler.post(new Runnable()
+			{
+				@Override public void run()
+				{
+					m_listener.onEvent(event);
+				}
+			});
+		}
+		else
+		{
+			m_listener.onEvent(event);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.idevicesinc.sweetblue;
+
+import android.os.Handler;
+
+/**
+ * 
+ * 
+ *
+ */
+class P_WrappingReadManyListener extends PA_CallbackWrapper implements BleDevice.ReadManyListener
+{
+	final BleDevice.ReadManyListener m_listener;
+	
+	P_WrappingReadManyListener(BleDevice.ReadManyListener listener, Handler handler, boolean postToMain)
+	{
+		super(handler, postToMain);
+		
+		m_listener = listener;
+	}
+	
+	@Override public void onEvent(final ReadManyEvent event)
+	{
+		if( postToMain() )
+		{
+			m_handler.post(new Runnable()
+			{
+				@Override public void run()
+				{
+					m_listener.onEvent(event);
+				}
+			});
+		}
+		else
+		{
+			m_listener.onEvent(event);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.idevicesinc.sweetblue;
+
+import android.os.Handler;
+
+/**
+ * 
+ * 
+ *
+ */
+class P_WrappingRegionListener extends PA_CallbackWrapper implements BleManager.RegionListener
+{
+	final BleManager.RegionListener m_listener;
+	
+	P_WrappingRegionListener(BleManager.RegionListener listener, Handler handler, boolean postToMain)
+	{
+		super(handler, postToMain);
+		
+		m_listener = listener;
+	}
+	
+	@Override public void onEvent(final RegionEvent event)
+	{
+		if( postToMain() )
+		{
+			m_handler.post(new Runnable()
+			{
+				@Override public void run()
+				{
+					m_listener.onEvent(event);
+				}
+			});
+		}
+		else
+		{
+			m_listener.onEvent(event);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.idevicesinc.sweetblue;
+
+import android.os.Handler;
+
+/**
+ * 
+ * 
+ *
+ */
+class P_WrappingStreamListener extends PA_CallbackWrapper implements BleDevice.StreamListener
+{
+	final BleDevice.StreamListener m_listener;
+	
+	P_WrappingStreamListener(BleDevice.StreamListener listener, Handler handler, boolean postToMain)
+	{
+		super(handler, postToMain);
+		
+		m_listener = listener;
+	}
+	
+	@Override public void onEvent(final StreamEvent event)
+	{
+		if( postToMain() )
+		{
+			m_handler.post(new Runnable()
+			{
+				@Override public void run()
+				{
+					m_listener.onEvent(event);
+				}
+			});
+		}
+		else
+		{
+			m_listener.onEvent(event);
+		}
+	}
+}
@@ -0,0 +1,430 @@
+package com.idevicesinc.sweetblue.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pulls a firmware image apart into packets as it's being sent, instead of loading the whole thing up front
+ * like {@link Utils#fileToBinaryDataList(android.content.Context, String, int)} does. Memory use stays the same
+ * no matter how big the image is, so a {@link com.idevicesinc.sweetblue.BleTransaction.Ota} can start writing
+ * as soon as the first packet is parsed.
+ * <br><br>
+ * Two formats are supported. Intel HEX is parsed one record at a time, and each packet is one record with its
+ * checksum removed and its address shifted, exactly like {@link Utils#fileToBinaryDataList(android.content.Context, String, int)}
+ * but in file order. Raw binary images are cut into fixed-size packets, usually {@link com.idevicesinc.sweetblue.BleDevice#getMtu()} - 3,
+ * and can also be read straight from a memory-mapped file.
+ * <br><br>
+ * Packets are exactly as long as their payload so they can be passed directly to
+ * {@link com.idevicesinc.sweetblue.BleDevice#write(java.util.UUID, byte[])}. Pass them back to {@link #recycle(byte[])}
+ * once the write has completed so their memory is reused for later packets. If <code>prefetch</code> is greater than zero,
+ * a background thread parses up to that many packets ahead, so reading the file never happens between two writes.
+ * <br><br>
+ * {@link #next()} and {@link #recycle(byte[])} should be called from one thread at a time.
+ */
+public class FirmwareImageSource
+{
+	/**
+	 * Reasonable default for the <code>prefetch</code> parameter of the static constructors.
+	 */
+	public static final int DEFAULT_PREFETCH				= 8;
+
+	//--- DRK > Byte count, two address bytes, and record type, followed by at most 255 data bytes. Checksum isn't kept.
+	private static final int MAX_HEX_RECORD_SIZE			= 4 + 255;
+
+	private static final int BUFFER_SIZE					= 4096;
+
+	//--- DRK > Queued by the prefetch thread when it runs out of image. Compared by reference.
+	private static final byte[] END_OF_IMAGE				= new byte[0];
+
+	private static final int NO_HEX_DIGIT					= -1;
+
+	private final InputStream m_stream;
+	private final MappedByteBuffer m_mappedBuffer;
+	private final RandomAccessFile m_file;
+	private final boolean m_isHex;
+	private final int m_chunkSize;
+	private final int m_addressOffset;
+
+	private final byte[] m_scratch;
+	private final ArrayList<byte[]> m_pool = new ArrayList<byte[]>();
+	private final int m_maxPoolSize;
+
+	private final ArrayBlockingQueue<byte[]> m_prefetched;
+	private Thread m_prefetchThread = null;
+	private volatile IOException m_prefetchError = null;
+	private volatile boolean m_closed = false;
+
+	private boolean m_reachedEnd = false;
+	private long m_bytesRead = 0;
+
+	/**
+	 * Creates a source for an Intel HEX image. Data records with an address below <code>addressOffset</code> are skipped
+	 * and the rest have their address reduced by <code>addressOffset</code>.
+	 */
+	public static FirmwareImageSource newHexSource(final InputStream stream, final int addressOffset, final int prefetch)
+	{
+		return new FirmwareImageSource(stream, null, null, true, MAX_HEX_RECORD_SIZE, addressOffset, prefetch);
+	}
+
+	/**
+	 * Creates a source that cuts a raw binary image into packets of <code>chunkSize</code> bytes. Only the last packet can be shorter.
+	 */
+	public static FirmwareImageSource newRawSource(final InputStream stream, final int chunkSize, final int prefetch)
+	{
+		return new FirmwareImageSource(stream, null, null, false, Math.max(1, chunkSize), 0, prefetch);
+	}
+
+	/**
+	 * Same as {@link #newRawSource(InputStream, int, int)} but memory-maps the given file, so packets are copied straight out of
+	 * the page cache and nothing has to be buffered on the heap.
+	 */
+	public static FirmwareImageSource newRawSource(final File file, final int chunkSize, final int prefetch) throws IOException
+	{
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+
+		try
+		{
+			final FileChannel channel = randomAccessFile.getChannel();
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			return new FirmwareImageSource(null, buffer, randomAccessFile, false, Math.max(1, chunkSize), 0, prefetch);
+		}
+		catch(IOException e)
+		{
+			randomAccessFile.close();
+
+			throw e;
+		}
+	}
+
+	private FirmwareImageSource(final InputStream stream_nullable, final MappedByteBuffer mappedBuffer_nullable, final RandomAccessFile file_nullable, final boolean isHex, final int chunkSize, final int addressOffset, final int prefetch)
+	{
+		m_stream = stream_nullable != null ? new BufferedInputStream(stream_nullable, BUFFER_SIZE) : null;
+		m_mappedBuffer = mappedBuffer_nullable;
+		m_file = file_nullable;
+		m_isHex = isHex;
+		m_chunkSize = chunkSize;
+		m_addressOffset = addressOffset;
+		m_scratch = isHex ? new byte[MAX_HEX_RECORD_SIZE + 1] : null;
+
+		//--- DRK > Enough to cover what's prefetched, what the prefetch thread is working on, and what the caller has in flight.
+		m_maxPoolSize = Math.max(0, prefetch) + 4;
+
+		if( prefetch > 0 )
+		{
+			m_prefetched = new ArrayBlockingQueue<byte[]>(prefetch);
+
+			m_prefetchThread = new Thread(new Runnable()
+			{
+				@Override public void run()
+				{
+					prefetchLoop();
+				}
+			}, FirmwareImageSource.class.getSimpleName());
+
+			m_prefetchThread.setDaemon(true);
+			m_prefetchThread.start();
+		}
+		else
+		{
+			m_prefetched = null;
+		}
+	}
+
+	/**
+	 * Returns the next packet, or <code>null</code> once the image has been fully read or {@link #close()} was called.
+	 * If prefetching is on this only blocks when the background thread has fallen behind.
+	 */
+	public byte[] next() throws IOException
+	{
+		if( m_reachedEnd || m_closed )  return null;
+
+		final byte[] packet;
+
+		if( m_prefetched != null )
+		{
+			try
+			{
+				packet = m_prefetched.take();
+			}
+			catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+
+				return null;
+			}
+
+			if( packet == END_OF_IMAGE )
+			{
+				m_reachedEnd = true;
+
+				if( m_prefetchError != null )  throw m_prefetchError;
+
+				return null;
+			}
+		}
+		else
+		{
+			packet = parseNext();
+
+			if( packet == null )
+			{
+				m_reachedEnd = true;
+
+				return null;
+			}
+		}
+
+		m_bytesRead += packet.length;
+
+		return packet;
+	}
+
+	/**
+	 * Hands a packet returned by {@link #next()} back so its memory can be reused. Only do this once the packet is no longer
+	 * needed, i.e. after the write using it has gotten its callback.
+	 */
+	public void recycle(final byte[] packet)
+	{
+		if( packet == null || packet == END_OF_IMAGE )  return;
+
+		synchronized (m_pool)
+		{
+			if( m_pool.size() < m_maxPoolSize )
+			{
+				m_pool.add(packet);
+			}
+		}
+	}
+
+	/**
+	 * Returns the total size of all packets returned from {@link #next()} so far.
+	 */
+	public long getBytesRead()
+	{
+		return m_bytesRead;
+	}
+
+	/**
+	 * Returns <code>true</code> once {@link #next()} has returned <code>null</code>.
+	 */
+	public boolean isFinished()
+	{
+		return m_reachedEnd;
+	}
+
+	/**
+	 * Stops prefetching and closes the underlying stream or file.
+	 */
+	public void close()
+	{
+		m_closed = true;
+
+		if( m_prefetchThread != null )
+		{
+			m_prefetchThread.interrupt();
+
+			//--- DRK > Wakes up anyone blocked in next().
+			m_prefetched.clear();
+			m_prefetched.offer(END_OF_IMAGE);
+		}
+
+		try
+		{
+			if( m_stream != null )  m_stream.close();
+			if( m_file != null )  m_file.close();
+		}
+		catch(IOException e)
+		{
+		}
+	}
+
+	private void prefetchLoop()
+	{
+		try
+		{
+			while( !m_closed )
+			{
+				final byte[] packet = parseNext();
+
+				if( packet == null )  break;
+
+				m_prefetched.put(packet);
+			}
+		}
+		catch(IOException e)
+		{
+			if( !m_closed )
+			{
+				m_prefetchError = e;
+			}
+		}
+		catch(InterruptedException e)
+		{
+			return;
+		}
+
+		try
+		{
+			m_prefetched.put(END_OF_IMAGE);
+		}
+		catch(InterruptedException e)
+		{
+		}
+	}
+
+	private byte[] obtain(final int length)
+	{
+		synchronized (m_pool)
+		{
+			for( int i = m_pool.size()-1; i >= 0; i-- )
+			{
+				if( m_pool.get(i).length == length )
+				{
+					return m_pool.remove(i);
+				}
+			}
+		}
+
+		return new byte[length];
+	}
+
+	private byte[] parseNext() throws IOException
+	{
+		return m_isHex ? parseNextHexRecord() : parseNextRawChunk();
+	}
+
+	private byte[] parseNextRawChunk() throws IOException
+	{
+		if( m_mappedBuffer != null )
+		{
+			final int length = Math.min(m_chunkSize, m_mappedBuffer.remaining());
+
+			if( length == 0 )  return null;
+
+			final byte[] chunk = obtain(length);
+			m_mappedBuffer.get(chunk, 0, length);
+
+			return chunk;
+		}
+
+		final byte[] chunk = obtain(m_chunkSize);
+		int offset = 0;
+
+		while( offset < chunk.length )
+		{
+			final int read = m_stream.read(chunk, offset, chunk.length - offset);
+
+			if( read < 0 )  break;
+
+			offset += read;
+		}
+
+		if( offset == chunk.length )  return chunk;
+
+		final byte[] last = offset > 0 ? obtain(offset) : null;
+
+		if( last != null )
+		{
+			Utils.memcpy(last, chunk, offset);
+		}
+
+		recycle(chunk);
+
+		return last;
+	}
+
+	private byte[] parseNextHexRecord() throws IOException
+	{
+		while( true )
+		{
+			final int length = readHexLine();
+
+			if( length < 0 )  return null;
+
+			//--- DRK > Need at least the header plus the checksum, anything less is a blank or truncated line.
+			if( length < 5 )  continue;
+
+			final byte[] record = m_scratch;
+
+			long addr = ((record[1] << 8) & 0xff00) | (record[2] & 0xff);
+			final int type = record[3] & 0xff;
+
+			if( type == 0 && addr < m_addressOffset )  continue;
+
+			addr -= m_addressOffset;
+			record[1] = (byte) ((addr & 0xff00) >>> 8);
+			record[2] = (byte) (addr & 0xff);
+
+			//--- DRK > Cut off checksum.
+			final byte[] packet = obtain(length - 1);
+			Utils.memcpy(packet, record, length - 1);
+
+			return packet;
+		}
+	}
+
+	/**
+	 * Decodes one line of hex digits into {@link #m_scratch}, ignoring the leading ':' and anything that isn't a hex digit.
+	 * Returns the number of bytes decoded, or -1 at the end of the stream.
+	 */
+	private int readHexLine() throws IOException
+	{
+		int length = 0;
+		int highNibble = NO_HEX_DIGIT;
+		boolean sawAnything = false;
+
+		while( true )
+		{
+			final int c = m_stream.read();
+
+			if( c < 0 )
+			{
+				return sawAnything ? length : -1;
+			}
+
+			sawAnything = true;
+
+			if( c == '\n' )
+			{
+				return length;
+			}
+
+			final int nibble = hexDigit(c);
+
+			if( nibble == NO_HEX_DIGIT )  continue;
+
+			if( highNibble == NO_HEX_DIGIT )
+			{
+				highNibble = nibble;
+			}
+			else
+			{
+				//--- DRK > Anything past the longest possible record is garbage, so it's just dropped.
+				if( length < m_scratch.length )
+				{
+					m_scratch[length] = (byte) ((highNibble << 4) | nibble);
+					length++;
+				}
+
+				highNibble = NO_HEX_DIGIT;
+			}
+		}
+	}
+
+	private static int hexDigit(final int c)
+	{
+		if( c >= '0' && c <= '9' )  return c - '0';
+		if( c >= 'a' && c <= 'f' )  return c - 'a' + 10;
+		if( c >= 'A' && c <= 'F' )  return c - 'A' + 10;
+
+		return NO_HEX_DIGIT;
+	}
+}
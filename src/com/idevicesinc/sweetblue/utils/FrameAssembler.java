@@ -0,0 +1,221 @@
+package com.idevicesinc.sweetblue.utils;
+
+import java.util.ArrayList;
+
+/**
+ * Collects the payload of one framed message at a time for a {@link FrameDecoder}. The decoder strips whatever framing its protocol
+ * uses and calls {@link #append(byte[], int, int)} with the payload, then {@link #complete()} at the end of a message, or
+ * {@link #discard(Failure)} or {@link #sequenceGap(int, int)} when the message can't be finished.
+ * <br><br>
+ * Payload is gathered in one working buffer that is reused from message to message, so fragments themselves never cost an allocation.
+ * Completed messages are copied out into exactly sized arrays, and those can be handed back to {@link #recycle(byte[])} once you're done
+ * with them so that later messages of the same size reuse their memory.
+ * <br><br>
+ * Everything except {@link #recycle(byte[])} should be called from one thread at a time.
+ */
+public abstract class FrameAssembler
+{
+	/**
+	 * Why a message was dropped instead of passed to {@link #onFrame(byte[])}.
+	 */
+	public static enum Failure
+	{
+		/**
+		 * A fragment went missing, see {@link #sequenceGap(int, int)}.
+		 */
+		SEQUENCE_GAP,
+
+		/**
+		 * The framing didn't make sense to the {@link FrameDecoder}, for example a bad escape sequence.
+		 */
+		MALFORMED,
+
+		/**
+		 * The message grew past the maximum size passed to {@link #FrameAssembler(int)}.
+		 */
+		TOO_LONG;
+	}
+
+	/**
+	 * Reasonable default for the <code>maxFrameSize</code> parameter of {@link #FrameAssembler(int)}.
+	 */
+	public static final int DEFAULT_MAX_FRAME_SIZE			= 64 * 1024;
+
+	private static final int INITIAL_BUFFER_SIZE			= 256;
+
+	private static final int MAX_POOL_SIZE					= 8;
+
+	private static final byte[] EMPTY_FRAME					= new byte[0];
+
+	private final int m_maxFrameSize;
+	private final ArrayList<byte[]> m_pool = new ArrayList<byte[]>();
+
+	private byte[] m_buffer;
+	private int m_size = 0;
+
+	//--- DRK > Set once a message goes over the limit, so the rest of it is ignored until the decoder finds its end.
+	private boolean m_overflowed = false;
+
+	protected FrameAssembler(final int maxFrameSize)
+	{
+		m_maxFrameSize = maxFrameSize;
+		m_buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, maxFrameSize)];
+	}
+
+	/**
+	 * Called for each complete message. Pass the array to {@link #recycle(byte[])} when you're done with it if you want it reused.
+	 */
+	protected abstract void onFrame(final byte[] frame);
+
+	/**
+	 * Called when a message is dropped. <code>droppedBytes</code> is how much payload had been collected for it. The sequence
+	 * numbers are only meaningful for {@link Failure#SEQUENCE_GAP}, and <code>-1</code> otherwise.
+	 */
+	protected abstract void onFailure(final Failure failure, final int droppedBytes, final int expectedSequence, final int receivedSequence);
+
+	/**
+	 * Adds one byte to the current message.
+	 */
+	public void append(final byte value)
+	{
+		if( !makeRoom(1) )  return;
+
+		m_buffer[m_size] = value;
+		m_size++;
+	}
+
+	/**
+	 * Adds <code>length</code> bytes of <code>source</code> starting at <code>offset</code> to the current message.
+	 */
+	public void append(final byte[] source, final int offset, final int length)
+	{
+		if( length <= 0 || !makeRoom(length) )  return;
+
+		System.arraycopy(source, offset, m_buffer, m_size, length);
+		m_size += length;
+	}
+
+	private boolean makeRoom(final int length)
+	{
+		if( m_overflowed )  return false;
+
+		final int required = m_size + length;
+
+		if( required > m_maxFrameSize )
+		{
+			final int dropped = m_size;
+
+			m_size = 0;
+			m_overflowed = true;
+
+			onFailure(Failure.TOO_LONG, dropped, -1, -1);
+
+			return false;
+		}
+
+		if( required > m_buffer.length )
+		{
+			final byte[] buffer = new byte[Math.min(m_maxFrameSize, Math.max(required, m_buffer.length * 2))];
+			System.arraycopy(m_buffer, 0, buffer, 0, m_size);
+			m_buffer = buffer;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns how many bytes the current message has so far.
+	 */
+	public int size()
+	{
+		return m_size;
+	}
+
+	/**
+	 * Ends the current message and passes it to {@link #onFrame(byte[])}, unless it was already dropped for being too long.
+	 */
+	public void complete()
+	{
+		if( m_overflowed )
+		{
+			m_overflowed = false;
+
+			return;
+		}
+
+		final byte[] frame = obtain(m_size);
+		System.arraycopy(m_buffer, 0, frame, 0, m_size);
+		m_size = 0;
+
+		onFrame(frame);
+	}
+
+	/**
+	 * Drops the current message and reports why through {@link #onFailure(Failure, int, int, int)}.
+	 */
+	public void discard(final Failure failure)
+	{
+		final int dropped = m_size;
+
+		m_size = 0;
+		m_overflowed = false;
+
+		onFailure(failure, dropped, -1, -1);
+	}
+
+	/**
+	 * Drops the current message because a fragment numbered <code>receivedSequence</code> arrived when <code>expectedSequence</code> was next.
+	 */
+	public void sequenceGap(final int expectedSequence, final int receivedSequence)
+	{
+		final int dropped = m_size;
+
+		m_size = 0;
+		m_overflowed = false;
+
+		onFailure(Failure.SEQUENCE_GAP, dropped, expectedSequence, receivedSequence);
+	}
+
+	/**
+	 * Quietly throws away the current message, for example when the connection drops halfway through one.
+	 */
+	public void reset()
+	{
+		m_size = 0;
+		m_overflowed = false;
+	}
+
+	/**
+	 * Gives an array from {@link #onFrame(byte[])} back so it can be reused. Safe to call from any thread, but the array must not be used afterwards.
+	 */
+	public void recycle(final byte[] frame)
+	{
+		if( frame == null || frame.length == 0 )  return;
+
+		synchronized (m_pool)
+		{
+			if( m_pool.size() < MAX_POOL_SIZE )
+			{
+				m_pool.add(frame);
+			}
+		}
+	}
+
+	private byte[] obtain(final int size)
+	{
+		if( size == 0 )  return EMPTY_FRAME;
+
+		synchronized (m_pool)
+		{
+			for( int i = m_pool.size() - 1; i >= 0; i-- )
+			{
+				if( m_pool.get(i).length == size )
+				{
+					return m_pool.remove(i);
+				}
+			}
+		}
+
+		return new byte[size];
+	}
+}
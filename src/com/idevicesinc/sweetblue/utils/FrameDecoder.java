@@ -0,0 +1,240 @@
+package com.idevicesinc.sweetblue.utils;
+
+/**
+ * Turns a series of notifications back into the messages they were split from, for peripherals that send messages bigger than
+ * what fits in one packet. Pass an implementation to {@link com.idevicesinc.sweetblue.BleDevice#enableNotify(java.util.UUID, FrameDecoder, com.idevicesinc.sweetblue.BleDevice.FrameListener, com.idevicesinc.sweetblue.BleDevice.ReadWriteListener)}
+ * and only complete messages come back to you. {@link LengthPrefixed}, {@link SequenceNumbered}, and {@link Slip} cover the common
+ * protocols - implement this interface yourself for anything else.
+ * <br><br>
+ * Decoders keep state between fragments, so each characteristic needs its own instance.
+ */
+public interface FrameDecoder
+{
+	/**
+	 * Called with each notification in the order they arrived. Pass the payload to <code>assembler</code> and tell it where messages end.
+	 */
+	void onFragment(final byte[] fragment, final FrameAssembler assembler);
+
+	/**
+	 * Called when the stream of fragments starts over, for example after a disconnect, so anything half-decoded should be forgotten.
+	 */
+	void reset();
+
+	/**
+	 * Each message starts with a header giving its length in bytes, not counting the header itself, followed by the payload, which
+	 * carries on over as many notifications as it needs. The next message starts right after, in the same notification or the next.
+	 */
+	public static class LengthPrefixed implements FrameDecoder
+	{
+		private final int m_headerSize;
+		private final boolean m_bigEndian;
+
+		private int m_headerBytesRead = 0;
+		private long m_length = 0;
+		private long m_remaining = -1;
+
+		/**
+		 * Uses a two byte little endian header, which is how BLE lays out multi-byte values.
+		 */
+		public LengthPrefixed()
+		{
+			this(2, false);
+		}
+
+		/**
+		 * @param headerSize	Size of the length header - 1, 2, or 4 bytes.
+		 * @param bigEndian		Byte order of the length header.
+		 */
+		public LengthPrefixed(final int headerSize, final boolean bigEndian)
+		{
+			if( headerSize != 1 && headerSize != 2 && headerSize != 4 )
+			{
+				throw new IllegalArgumentException("Header size must be 1, 2, or 4 bytes, not " + headerSize + ".");
+			}
+
+			m_headerSize = headerSize;
+			m_bigEndian = bigEndian;
+		}
+
+		@Override public void onFragment(final byte[] fragment, final FrameAssembler assembler)
+		{
+			int i = 0;
+
+			while( i < fragment.length )
+			{
+				if( m_remaining < 0 )
+				{
+					final long value = fragment[i] & 0xFF;
+
+					m_length = m_bigEndian ? (m_length << 8) | value : m_length | (value << (8 * m_headerBytesRead));
+					m_headerBytesRead++;
+					i++;
+
+					if( m_headerBytesRead < m_headerSize )  continue;
+
+					m_remaining = m_length;
+					m_headerBytesRead = 0;
+					m_length = 0;
+				}
+				else
+				{
+					final int length = (int) Math.min(m_remaining, fragment.length - i);
+
+					assembler.append(fragment, i, length);
+					m_remaining -= length;
+					i += length;
+				}
+
+				if( m_remaining == 0 )
+				{
+					assembler.complete();
+
+					m_remaining = -1;
+				}
+			}
+		}
+
+		@Override public void reset()
+		{
+			m_headerBytesRead = 0;
+			m_length = 0;
+			m_remaining = -1;
+		}
+	}
+
+	/**
+	 * Every notification starts with a one byte header. The lower seven bits are a fragment counter that goes up by one with every
+	 * notification and wraps from 127 back to 0, and the top bit is set on the last fragment of a message. When the counter skips,
+	 * the message in progress is dropped through {@link FrameAssembler#sequenceGap(int, int)}, and since there's no telling where the
+	 * missing fragments belonged, everything up to and including the next last fragment is ignored too.
+	 */
+	public static class SequenceNumbered implements FrameDecoder
+	{
+		private static final int LAST_FRAGMENT_BIT		= 0x80;
+		private static final int SEQUENCE_MASK			= 0x7F;
+
+		private int m_expectedSequence = -1;
+		private boolean m_resyncing = false;
+
+		@Override public void onFragment(final byte[] fragment, final FrameAssembler assembler)
+		{
+			if( fragment.length == 0 )  return;
+
+			final int sequence = fragment[0] & SEQUENCE_MASK;
+			final boolean last = (fragment[0] & LAST_FRAGMENT_BIT) != 0;
+
+			if( m_expectedSequence != -1 && sequence != m_expectedSequence )
+			{
+				assembler.sequenceGap(m_expectedSequence, sequence);
+
+				m_resyncing = true;
+			}
+
+			m_expectedSequence = (sequence + 1) & SEQUENCE_MASK;
+
+			if( m_resyncing )
+			{
+				m_resyncing = !last;
+
+				return;
+			}
+
+			assembler.append(fragment, 1, fragment.length - 1);
+
+			if( last )
+			{
+				assembler.complete();
+			}
+		}
+
+		@Override public void reset()
+		{
+			m_expectedSequence = -1;
+			m_resyncing = false;
+		}
+	}
+
+	/**
+	 * SLIP framing as in RFC 1055 - each message ends with <code>0xC0</code>, and <code>0xC0</code> or <code>0xDB</code> in the payload
+	 * is escaped as <code>0xDB 0xDC</code> or <code>0xDB 0xDD</code>. Empty messages are ignored, so senders are free to start messages
+	 * with <code>0xC0</code> as well. A bad escape drops the message in progress as {@link FrameAssembler.Failure#MALFORMED}.
+	 */
+	public static class Slip implements FrameDecoder
+	{
+		private static final byte END			= (byte) 0xC0;
+		private static final byte ESC			= (byte) 0xDB;
+		private static final byte ESC_END		= (byte) 0xDC;
+		private static final byte ESC_ESC		= (byte) 0xDD;
+
+		private boolean m_escaping = false;
+		private boolean m_dropping = false;
+
+		//--- DRK > Tracked here rather than using FrameAssembler#size() since a message that got too long has a size of zero but still needs to be ended.
+		private boolean m_inMessage = false;
+
+		@Override public void onFragment(final byte[] fragment, final FrameAssembler assembler)
+		{
+			for( int i = 0; i < fragment.length; i++ )
+			{
+				final byte ith = fragment[i];
+
+				if( ith == END )
+				{
+					if( m_escaping && !m_dropping )
+					{
+						assembler.discard(FrameAssembler.Failure.MALFORMED);
+					}
+					else if( m_inMessage && !m_dropping )
+					{
+						assembler.complete();
+					}
+
+					m_escaping = false;
+					m_dropping = false;
+					m_inMessage = false;
+				}
+				else if( m_dropping )
+				{
+					continue;
+				}
+				else if( m_escaping )
+				{
+					m_escaping = false;
+
+					if( ith == ESC_END )
+					{
+						assembler.append(END);
+						m_inMessage = true;
+					}
+					else if( ith == ESC_ESC )
+					{
+						assembler.append(ESC);
+						m_inMessage = true;
+					}
+					else
+					{
+						assembler.discard(FrameAssembler.Failure.MALFORMED);
+
+						m_dropping = true;
+					}
+				}
+				else if( ith == ESC )
+				{
+					m_escaping = true;
+				}
+				else
+				{
+					assembler.append(ith);
+					m_inMessage = true;
+				}
+			}
+		}
+
+		@Override public void reset()
+		{
+			m_escaping = false;
+			m_dropping = false;
+			m_inMessage = false;
+		}
+	}
+}
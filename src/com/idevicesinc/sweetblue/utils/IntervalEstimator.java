@@ -0,0 +1,146 @@
+package com.idevicesinc.sweetblue.utils;
+
+
+/**
+ * A zero-dependency utility class to track the running average and variance of the time between
+ * recurring events, for example advertisement packets from a {@link com.idevicesinc.sweetblue.BleDevice}.
+ * Uses exponentially weighted moving averages so memory stays constant no matter how many events are added.
+ * Like {@link TimeEstimator}, takes times as doubles representing seconds, and spits back the same.
+ */
+public class IntervalEstimator
+{
+	/**
+	 * Default value for the smoothing factor passed to {@link #IntervalEstimator(double, int)}.
+	 */
+	public static final double DEFAULT_ALPHA				= 0.125;
+
+	/**
+	 * Default value for the number of samples required before {@link #isReady()} returns <code>true</code>.
+	 */
+	public static final int DEFAULT_MIN_SAMPLES				= 3;
+
+	//--- DRK > Samples further than this many standard deviations (or multiples of the mean) above the mean are clamped
+	//---		before being folded in, so that e.g. a pause in a periodic scan doesn't wildly skew the estimate.
+	private static final double OUTLIER_DEVIATIONS			= 4.0;
+	private static final double OUTLIER_MEAN_MULTIPLE		= 2.0;
+
+	private final double m_alpha;
+	private final int m_minSamples;
+
+	private double m_lastEventTime = Double.NaN;
+	private double m_mean = 0.0;
+	private double m_variance = 0.0;
+	private int m_sampleCount = 0;
+
+	/**
+	 * Creates an estimator with a custom smoothing factor, 0 < alpha <= 1, where higher values make the estimate
+	 * react faster to change, and the number of samples needed before the estimate is considered usable.
+	 */
+	public IntervalEstimator(final double alpha, final int minSamples)
+	{
+		m_alpha = alpha;
+		m_minSamples = minSamples;
+	}
+
+	/**
+	 * Creates an estimator using {@link #DEFAULT_ALPHA} and {@link #DEFAULT_MIN_SAMPLES}.
+	 */
+	public IntervalEstimator()
+	{
+		this(DEFAULT_ALPHA, DEFAULT_MIN_SAMPLES);
+	}
+
+	/**
+	 * Notes that an event happened at the given time in seconds, using any consistent time base.
+	 * The time since the last call to this method is folded into the estimate.
+	 */
+	public void addEvent(final double time)
+	{
+		if( !Double.isNaN(m_lastEventTime) )
+		{
+			addInterval(time - m_lastEventTime);
+		}
+
+		m_lastEventTime = time;
+	}
+
+	/**
+	 * Folds a directly-measured interval into the estimate. Negative intervals are ignored.
+	 */
+	public void addInterval(double interval)
+	{
+		if( interval < 0.0 )  return;
+
+		if( m_sampleCount == 0 )
+		{
+			m_mean = interval;
+			m_variance = 0.0;
+		}
+		else
+		{
+			if( m_sampleCount >= m_minSamples )
+			{
+				final double max = Math.max(m_mean + OUTLIER_DEVIATIONS*getStandardDeviation(), m_mean*OUTLIER_MEAN_MULTIPLE);
+
+				interval = Math.min(interval, max);
+			}
+
+			final double diff = interval - m_mean;
+			final double increment = m_alpha * diff;
+
+			m_mean += increment;
+			m_variance = (1.0 - m_alpha) * (m_variance + diff * increment);
+		}
+
+		m_sampleCount++;
+	}
+
+	/**
+	 * Forgets the time of the last event, so the next call to {@link #addEvent(double)} doesn't produce a sample.
+	 * The current estimate is retained.
+	 */
+	public void breakSequence()
+	{
+		m_lastEventTime = Double.NaN;
+	}
+
+	/**
+	 * Forgets everything and starts over.
+	 */
+	public void reset()
+	{
+		breakSequence();
+
+		m_mean = 0.0;
+		m_variance = 0.0;
+		m_sampleCount = 0;
+	}
+
+	/**
+	 * Returns whether enough samples have been added for {@link #getMean()} to be meaningful.
+	 */
+	public boolean isReady()
+	{
+		return m_sampleCount >= m_minSamples;
+	}
+
+	public double getMean()
+	{
+		return m_mean;
+	}
+
+	public double getVariance()
+	{
+		return m_variance;
+	}
+
+	public double getStandardDeviation()
+	{
+		return Math.sqrt(m_variance);
+	}
+
+	public int getSampleCount()
+	{
+		return m_sampleCount;
+	}
+}
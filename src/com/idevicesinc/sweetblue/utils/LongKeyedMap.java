@@ -0,0 +1,215 @@
+package com.idevicesinc.sweetblue.utils;
+
+
+/**
+ * A zero-dependency map from primitive <code>long</code> keys to objects, using open addressing with linear probing
+ * so that lookups don't box the key or allocate anything. Mainly meant for mac addresses packed with
+ * {@link Utils#macAddressToLong(String)}. <code>null</code> values are not allowed, passing one to {@link #put(long, Object)}
+ * is the same as calling {@link #remove(long)}. Not thread-safe.
+ */
+public class LongKeyedMap<V>
+{
+	private static final int DEFAULT_CAPACITY		= 16;
+
+	//--- DRK > Grow when more than this fraction of slots are used, keeps probe sequences short.
+	private static final float MAX_LOAD_FACTOR		= 0.5f;
+
+	private long[] m_keys;
+	private Object[] m_values;
+	private int m_mask;
+	private int m_size = 0;
+
+	public LongKeyedMap()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a map that can hold the given number of entries before it has to grow.
+	 */
+	public LongKeyedMap(final int expectedSize)
+	{
+		int capacity = DEFAULT_CAPACITY;
+
+		while( capacity * MAX_LOAD_FACTOR < expectedSize )
+		{
+			capacity <<= 1;
+		}
+
+		allocate(capacity);
+	}
+
+	private void allocate(final int capacity)
+	{
+		m_keys = new long[capacity];
+		m_values = new Object[capacity];
+		m_mask = capacity - 1;
+	}
+
+	private int slot(final long key)
+	{
+		long hash = key * 0x9E3779B97F4A7C15L;
+		hash ^= hash >>> 32;
+
+		return (int) hash & m_mask;
+	}
+
+	private int indexOf(final long key)
+	{
+		int index = slot(key);
+
+		while( m_values[index] != null )
+		{
+			if( m_keys[index] == key )  return index;
+
+			index = (index + 1) & m_mask;
+		}
+
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(final long key)
+	{
+		final int index = indexOf(key);
+
+		return index >= 0 ? (V) m_values[index] : null;
+	}
+
+	public boolean containsKey(final long key)
+	{
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Maps the key to the value and returns the previous value for the key, or <code>null</code> if there wasn't one.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(final long key, final V value)
+	{
+		if( value == null )  return remove(key);
+
+		int index = slot(key);
+
+		while( m_values[index] != null )
+		{
+			if( m_keys[index] == key )
+			{
+				final V previous = (V) m_values[index];
+				m_values[index] = value;
+
+				return previous;
+			}
+
+			index = (index + 1) & m_mask;
+		}
+
+		m_keys[index] = key;
+		m_values[index] = value;
+		m_size++;
+
+		if( m_size > m_keys.length * MAX_LOAD_FACTOR )
+		{
+			grow();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Removes the key and returns the value it was mapped to, or <code>null</code> if there wasn't one.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(final long key)
+	{
+		int index = indexOf(key);
+
+		if( index < 0 )  return null;
+
+		final V removed = (V) m_values[index];
+
+		//--- DRK > Shift later entries of the same probe run back instead of leaving tombstones around.
+		int next = (index + 1) & m_mask;
+
+		while( m_values[next] != null )
+		{
+			final int home = slot(m_keys[next]);
+
+			if( ((next - home) & m_mask) >= ((next - index) & m_mask) )
+			{
+				m_keys[index] = m_keys[next];
+				m_values[index] = m_values[next];
+				index = next;
+			}
+
+			next = (next + 1) & m_mask;
+		}
+
+		m_values[index] = null;
+		m_size--;
+
+		return removed;
+	}
+
+	private void grow()
+	{
+		final long[] oldKeys = m_keys;
+		final Object[] oldValues = m_values;
+
+		allocate(oldKeys.length << 1);
+
+		for( int i = 0; i < oldKeys.length; i++ )
+		{
+			if( oldValues[i] == null )  continue;
+
+			int index = slot(oldKeys[i]);
+
+			while( m_values[index] != null )
+			{
+				index = (index + 1) & m_mask;
+			}
+
+			m_keys[index] = oldKeys[i];
+			m_values[index] = oldValues[i];
+		}
+	}
+
+	public int size()
+	{
+		return m_size;
+	}
+
+	public boolean isEmpty()
+	{
+		return m_size == 0;
+	}
+
+	public void clear()
+	{
+		for( int i = 0; i < m_values.length; i++ )
+		{
+			m_values[i] = null;
+		}
+
+		m_size = 0;
+	}
+
+	/**
+	 * Returns a new array containing all the keys currently in the map, in no particular order.
+	 */
+	public long[] keys()
+	{
+		final long[] keys = new long[m_size];
+		int count = 0;
+
+		for( int i = 0; i < m_values.length; i++ )
+		{
+			if( m_values[i] != null )
+			{
+				keys[count++] = m_keys[i];
+			}
+		}
+
+		return keys;
+	}
+}
@@ -0,0 +1,135 @@
+package com.idevicesinc.sweetblue.utils;
+
+
+/**
+ * A zero-dependency utility class to smooth a stream of noisy RSSI samples, one sample at a time,
+ * in constant memory. Use {@link #newExponentialMovingAverage(double)} or {@link #newKalman(double, double)}
+ * to get an instance.
+ */
+public abstract class RssiFilter
+{
+	/**
+	 * Default smoothing factor for {@link #newExponentialMovingAverage(double)}.
+	 */
+	public static final double DEFAULT_EMA_ALPHA						= 0.25;
+
+	/**
+	 * Default process noise for {@link #newKalman(double, double)}, i.e. how much the true signal is expected to
+	 * change between samples, in dBm squared.
+	 */
+	public static final double DEFAULT_KALMAN_PROCESS_NOISE				= 0.25;
+
+	/**
+	 * Default measurement noise for {@link #newKalman(double, double)}, i.e. the variance of an individual
+	 * RSSI sample around the true signal, in dBm squared.
+	 */
+	public static final double DEFAULT_KALMAN_MEASUREMENT_NOISE			= 9.0;
+
+	/**
+	 * Returns a filter that weights each new sample by alpha, 0 < alpha <= 1, where higher values react faster to change.
+	 */
+	public static RssiFilter newExponentialMovingAverage(final double alpha)
+	{
+		return new ExponentialMovingAverage(alpha);
+	}
+
+	/**
+	 * Returns a one-dimensional Kalman filter that assumes the signal is roughly constant with some drift.
+	 */
+	public static RssiFilter newKalman(final double processNoise, final double measurementNoise)
+	{
+		return new Kalman(processNoise, measurementNoise);
+	}
+
+	protected double m_estimate = 0.0;
+	protected boolean m_hasEstimate = false;
+
+	/**
+	 * Folds a new sample into the estimate and returns the new estimate.
+	 */
+	public abstract double add(final double rssi);
+
+	/**
+	 * Returns the current estimate, or 0.0 if no samples have been added yet.
+	 */
+	public double get()
+	{
+		return m_estimate;
+	}
+
+	/**
+	 * Returns whether at least one sample has been added since construction or the last {@link #reset()}.
+	 */
+	public boolean hasEstimate()
+	{
+		return m_hasEstimate;
+	}
+
+	/**
+	 * Forgets all samples.
+	 */
+	public void reset()
+	{
+		m_estimate = 0.0;
+		m_hasEstimate = false;
+	}
+
+	private static class ExponentialMovingAverage extends RssiFilter
+	{
+		private final double m_alpha;
+
+		ExponentialMovingAverage(final double alpha)
+		{
+			m_alpha = alpha;
+		}
+
+		@Override public double add(final double rssi)
+		{
+			m_estimate = m_hasEstimate ? m_estimate + m_alpha * (rssi - m_estimate) : rssi;
+			m_hasEstimate = true;
+
+			return m_estimate;
+		}
+	}
+
+	private static class Kalman extends RssiFilter
+	{
+		private final double m_processNoise;
+		private final double m_measurementNoise;
+
+		private double m_errorCovariance = 0.0;
+
+		Kalman(final double processNoise, final double measurementNoise)
+		{
+			m_processNoise = processNoise;
+			m_measurementNoise = measurementNoise;
+		}
+
+		@Override public double add(final double rssi)
+		{
+			if( !m_hasEstimate )
+			{
+				m_estimate = rssi;
+				m_errorCovariance = m_measurementNoise;
+				m_hasEstimate = true;
+			}
+			else
+			{
+				final double predictedCovariance = m_errorCovariance + m_processNoise;
+				final double gain = predictedCovariance / (predictedCovariance + m_measurementNoise);
+
+				m_estimate += gain * (rssi - m_estimate);
+				m_errorCovariance = (1.0 - gain) * predictedCovariance;
+			}
+
+			return m_estimate;
+		}
+
+		@Override public void reset()
+		{
+			super.reset();
+
+			m_errorCovariance = 0.0;
+		}
+	}
+}
@@ -43,7 +43,8 @@ public class UpdateLoop
 	private boolean m_isRunning = false;
 	private long m_lastAutoUpdateTime = 0;
 	private long m_autoUpdateRate = 0;
-	private Handler m_handler;
+	private volatile Handler m_handler;
+	private final Object m_handlerLock = new Object();
 	private final Callback m_callback;
 	
 	public static UpdateLoop newMainThreadLoop(Callback callback)
@@ -81,7 +82,12 @@ public class UpdateLoop
 				@Override public void run()
 				{
 					Looper.prepare();
-					m_handler = new Handler(Looper.myLooper());
+
+					synchronized (m_handlerLock)
+					{
+						m_handler = new Handler(Looper.myLooper());
+						m_handlerLock.notifyAll();
+					}
 					
 					if( m_isRunning )
 					{
@@ -136,8 +142,30 @@ public class UpdateLoop
 	private void waitForHandler()
 	{
 		//--- DRK > This can technically take a little time to initialize after 
-		//---		this class is constructed so wait for it if needed.
-		while(m_handler == null) {}
+		//---		this class is constructed so wait for it if needed, without spinning the cpu.
+		if( m_handler != null )  return;
+
+		boolean interrupted = false;
+
+		synchronized (m_handlerLock)
+		{
+			while( m_handler == null )
+			{
+				try
+				{
+					m_handlerLock.wait();
+				}
+				catch(InterruptedException e)
+				{
+					interrupted = true;
+				}
+			}
+		}
+
+		if( interrupted )
+		{
+			Thread.currentThread().interrupt();
+		}
 	}
 	
 	public void forcePost(Runnable runnable)
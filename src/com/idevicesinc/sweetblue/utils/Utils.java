@@ -1,10 +1,8 @@
 package com.idevicesinc.sweetblue.utils;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
@@ -97,6 +95,68 @@ public class Utils
 		return consistentName;
 	}
 
+	/**
+	 * Returned by {@link #macAddressToLong(String)} when the string isn't a valid mac address.
+	 * Can never collide with a real address since those only use the lower 48 bits.
+	 */
+	public static final long INVALID_MAC_ADDRESS = -1L;
+
+	private static final int MAC_ADDRESS_BYTE_COUNT = 6;
+
+	/**
+	 * Packs a mac address like "AB:CD:EF:01:23:45" (case-insensitive, ':' or '-' separators optional) into the lower 48 bits
+	 * of a <code>long</code> without allocating anything. Returns {@link #INVALID_MAC_ADDRESS} if it can't be parsed.
+	 */
+	public static long macAddressToLong(final String macAddress)
+	{
+		if( macAddress == null )  return INVALID_MAC_ADDRESS;
+
+		long packed = 0;
+		int digitCount = 0;
+
+		for( int i = 0; i < macAddress.length(); i++ )
+		{
+			final char ith = macAddress.charAt(i);
+			final int digit = Character.digit(ith, 16);
+
+			if( digit >= 0 )
+			{
+				packed = (packed << 4) | digit;
+				digitCount++;
+			}
+			else if( ith != ':' && ith != '-' )
+			{
+				return INVALID_MAC_ADDRESS;
+			}
+		}
+
+		return digitCount == MAC_ADDRESS_BYTE_COUNT*2 ? packed : INVALID_MAC_ADDRESS;
+	}
+
+	/**
+	 * Inverse of {@link #macAddressToLong(String)}, returns the address in the upper-case, colon-separated form
+	 * that {@link android.bluetooth.BluetoothDevice#getAddress()} uses.
+	 */
+	public static String longToMacAddress(final long macAddress)
+	{
+		final char[] chars = new char[MAC_ADDRESS_BYTE_COUNT*3 - 1];
+
+		for( int i = 0; i < MAC_ADDRESS_BYTE_COUNT; i++ )
+		{
+			final int ith = (int) (macAddress >>> ((MAC_ADDRESS_BYTE_COUNT - 1 - i) * 8)) & 0xFF;
+
+			chars[i*3] = Character.toUpperCase(Character.forDigit(ith >>> 4, 16));
+			chars[i*3 + 1] = Character.toUpperCase(Character.forDigit(ith & 0xF, 16));
+
+			if( i < MAC_ADDRESS_BYTE_COUNT - 1 )
+			{
+				chars[i*3 + 2] = ':';
+			}
+		}
+
+		return new String(chars);
+	}
+
 	public static boolean contains(final Object[] uuids, final Object uuid)
 	{
 		for( int i = 0; i < uuids.length; i++ )
@@ -188,56 +248,24 @@ public class Utils
 		return baos.toByteArray();
 	}
 
+	/**
+	 * Reads an Intel HEX asset fully into memory, one entry per record with the checksum cut off, in reverse file order.
+	 * For big images prefer {@link FirmwareImageSource#newHexSource(InputStream, int, int)}, which parses as it goes.
+	 */
 	public static List<byte[]> fileToBinaryDataList(Context context, String file, int offset)
 	{
 		List<byte[]> binaryData = new ArrayList<byte[]>();
-		BufferedReader reader = null;
+		FirmwareImageSource source = null;
 
 		try
 		{
-			InputStream stream = context.getAssets().open(file);
+			source = FirmwareImageSource.newHexSource(context.getAssets().open(file), offset, 0);
 
-			String currentLine;
-			reader = new BufferedReader(new InputStreamReader(stream));
+			byte[] record;
 
-			while((currentLine = reader.readLine()) != null)
+			while((record = source.next()) != null)
 			{
-				String rawLine = currentLine.substring(1);
-				//				Log.d("", ".");
-				//				Log.d("", "rawLine:     " + rawLine);
-				byte[] data = hexStringToBytes(rawLine);
-				//				Log.d("", "data_before: " + bytesToHex(data));
-
-				long data_1 = 0x0 | data[1];
-				data_1 <<= 8;
-				data_1 &= 0xff00;
-
-				long data_2 = 0x0 | data[2];
-				data_2 &= 0x00ff;
-
-				long addr = data_1 + data_2;
-
-				//				Log.d("", "addr:        "+addr);
-				//				Log.d("", "offset:      "+offset);
-				long type = data[3];
-				type &= 0x00ff;
-				//				Log.d("", "type:        "+type);
-				if((type == 0) && (addr < offset))
-				{
-					continue;
-				}
-
-				// patch up address
-				addr -= offset;
-				data[1] = (byte) ((addr & 0xff00) >>> 8);
-				data[2] = (byte) (addr & 0xff);
-
-				//				Log.d("", "data_after: "+bytesToHex(data));
-				//				Log.d("", ".");
-
-				// Cut off checksum
-				byte[] subBytes = subBytes(data, 0, data.length - 1);
-				binaryData.add(subBytes);
+				binaryData.add(record);
 			}
 		}
 		catch(IOException e)
@@ -246,24 +274,13 @@ public class Utils
 		}
 		finally
 		{
-			if(reader != null)
+			if(source != null)
 			{
-				try
-				{
-					reader.close();
-				}
-				catch(IOException e)
-				{
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
+				source.close();
 			}
 		}
 
-		if(binaryData != null)
-		{
-			Collections.reverse(binaryData);
-		}
+		Collections.reverse(binaryData);
 
 		return binaryData;
 	}
@@ -30,22 +30,43 @@ public class Utils_Rssi extends Utils
 {
 	public static double percent(final int rssi, final int rssi_min, final int rssi_max)
 	{
-		return (((double)(rssi-rssi_min)) / ((double)(rssi_max-rssi_min))) * 100.0;
+		return percent((double) rssi, rssi_min, rssi_max);
+	}
+
+	/**
+	 * Same as {@link #percent(int, int, int)} but for a smoothed, fractional RSSI value.
+	 */
+	public static double percent(final double rssi, final int rssi_min, final int rssi_max)
+	{
+		return ((rssi-rssi_min) / ((double)(rssi_max-rssi_min))) * 100.0;
 	}
 	
 	public static double distance(final int txPower, final int rssi)
+	{
+		return distance(txPower, (double) rssi);
+	}
+
+	/**
+	 * Same as {@link #distance(int, int)} but for a smoothed, fractional RSSI value.
+	 */
+	public static double distance(final int txPower, final double rssi)
 	{
 		return distance(txPower, rssi, 0.89976, 7.7095, 0.111);
 	}
 	
 	public static double distance(final int txPower, final int rssi, double a, double b, double c)
+	{
+		return distance(txPower, (double) rssi, a, b, c);
+	}
+
+	public static double distance(final int txPower, final double rssi, double a, double b, double c)
 	{
 		if (rssi == 0)
 		{
 			return -1.0;
 		}
 
-		final double ratio = ((double)rssi) * (1.0 / ((double)txPower));
+		final double ratio = rssi * (1.0 / ((double)txPower));
 		
 		if (ratio < 1.0)
 		{
@@ -79,4 +79,50 @@ public class Utils_ScanRecord extends Utils
 
 		return uuids;
 	}
+
+	/**
+	 * Returns whether the scan record contains a manufacturer-specific data structure for the given company identifier
+	 * whose data (not including the company identifier) starts with the given prefix, if any. Doesn't allocate anything.
+	 */
+	public static boolean hasManufacturerData(final byte[] scanRecord, final int companyId, final byte[] dataPrefix_nullable)
+	{
+		if( scanRecord == null )  return false;
+
+		int offset = 0;
+		while( offset < scanRecord.length - 1 )
+		{
+			final int len = scanRecord[offset] & 0xFF;
+
+			if( len == 0 || offset + len >= scanRecord.length )  break;
+
+			final int type = scanRecord[offset + 1] & 0xFF;
+
+			if( type == 0xFF && len >= 3 )
+			{
+				final int id = (scanRecord[offset + 2] & 0xFF) | ((scanRecord[offset + 3] & 0xFF) << 8);
+
+				if( id == companyId && matchesPrefix(scanRecord, offset + 4, len - 3, dataPrefix_nullable) )
+				{
+					return true;
+				}
+			}
+
+			offset += len + 1;
+		}
+
+		return false;
+	}
+
+	private static boolean matchesPrefix(final byte[] data, final int offset, final int length, final byte[] prefix_nullable)
+	{
+		if( prefix_nullable == null )  return true;
+		if( prefix_nullable.length > length )  return false;
+
+		for( int i = 0; i < prefix_nullable.length; i++ )
+		{
+			if( data[offset + i] != prefix_nullable[i] )  return false;
+		}
+
+		return true;
+	}
 }
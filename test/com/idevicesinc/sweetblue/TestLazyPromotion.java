@@ -0,0 +1,58 @@
+package com.idevicesinc.sweetblue;
+
+
+import android.app.Activity;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+
+// Lives in the library's package since BleDevice.isPromoted() is package-private.
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class TestLazyPromotion {
+
+    Activity activity;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.buildActivity(Activity.class).create().get();
+    }
+
+    @Test
+    public void queryingAdvertisedDeviceTest() {
+        final BleManager mgr = BleManager.get(activity);
+        final UUID uuid = UUID.randomUUID();
+
+        // Same path a scanned device takes, minus needing the adapter to actually be scanning.
+        mgr.newDevice_restored("AA:BB:CC:DD:EE:FF", "test", new byte[0], -60);
+        final BleDevice device = mgr.getDevice("AA:BB:CC:DD:EE:FF");
+        assertFalse(device.isNull());
+        assertFalse(device.isPromoted());
+
+        assertFalse(device.isNotifyEnabled(uuid));
+        assertFalse(device.isNotifyEnabling(uuid));
+        assertNull(device.getNativeService(uuid));
+        assertNull(device.getNativeCharacteristic(uuid));
+        assertNull(device.getNativeCharacteristic(uuid, uuid));
+        assertFalse(device.getNativeServices().hasNext());
+        assertFalse(device.getNativeCharacteristics().hasNext());
+        assertFalse(device.getNativeCharacteristics(uuid).hasNext());
+        assertFalse(device.getNativeServices_List().size() > 0);
+        assertFalse(device.getNativeCharacteristics_List().size() > 0);
+        assertFalse(device.getNativeCharacteristics_List(uuid).size() > 0);
+        assertFalse(device.isHistoricalDataLoading());
+        assertFalse(device.isHistoricalDataLoaded(uuid));
+
+        assertFalse(device.isPromoted());
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.idevicesinc.sweetblue;
+
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+
+// Lives in the library's package since P_ProximityIndex is package-private. Devices are left null since only the keys matter here.
+public class TestProximityIndex {
+
+    @Test
+    public void sessionOnlyRssiChangeTest() {
+        final P_ProximityIndex main = new P_ProximityIndex();
+        final P_ProximityIndex sessions = new P_ProximityIndex();
+        final P_ProximityIndex.Key mainKey = new P_ProximityIndex.Key();
+        final P_ProximityIndex.Key sessionKey = new P_ProximityIndex.Key();
+
+        main.add(mainKey, null, 1L, -70.0);
+        sessions.add(sessionKey, null, 2L, -80.0);
+
+        // A session-only device's rssi changing must only re-sort it within the session index.
+        P_ProximityIndex.onRssiChanged(sessionKey, null, -40.0);
+        assertEquals(1, main.getAll().size());
+        assertEquals(1, sessions.getAll().size());
+        assertEquals(1, sessions.getAtLeast(-40.0).size());
+
+        // Removing it has to find it again under its new rssi.
+        sessions.remove(sessionKey);
+        assertEquals(0, sessions.getAll().size());
+        assertEquals(1, main.getAll().size());
+
+        // Once promoted into the main index it follows rssi changes there.
+        main.add(sessionKey, null, 2L, -40.0);
+        P_ProximityIndex.onRssiChanged(sessionKey, null, -90.0);
+        assertEquals(2, main.getAll().size());
+        assertEquals(1, main.getAtLeast(-75.0).size());
+        assertEquals(0, sessions.getAll().size());
+    }
+
+    @Test
+    public void removeFromWrongIndexTest() {
+        final P_ProximityIndex main = new P_ProximityIndex();
+        final P_ProximityIndex sessions = new P_ProximityIndex();
+        final P_ProximityIndex.Key key = new P_ProximityIndex.Key();
+
+        sessions.add(key, null, 3L, -60.0);
+        main.remove(key);
+        assertEquals(1, sessions.getAll().size());
+
+        // Still indexed in the session index, so adding to another index is a no-op until it's removed.
+        main.add(key, null, 3L, -60.0);
+        assertEquals(0, main.getAll().size());
+    }
+}
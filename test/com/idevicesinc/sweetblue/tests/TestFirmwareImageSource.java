@@ -0,0 +1,77 @@
+package com.idevicesinc.sweetblue.tests;
+
+
+import com.idevicesinc.sweetblue.utils.FirmwareImageSource;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class TestFirmwareImageSource {
+
+    private static final String HEX =
+            ":020000040000FA\r\n" +
+            ":0400000001020304F2\r\n" +
+            ":04001000AABBCCDDEE\r\n" +
+            "\r\n" +
+            ":00000001FF";
+
+
+    @Test
+    public void hexRecordsTest() throws IOException {
+        FirmwareImageSource source = FirmwareImageSource.newHexSource(new ByteArrayInputStream(HEX.getBytes()), 0x10, 0);
+        // Data record below the offset is skipped, the rest get their address shifted down and lose the checksum.
+        assertArrayEquals(new byte[]{0x02, (byte) 0xFF, (byte) 0xF0, 0x04, 0x00, 0x00}, source.next());
+        assertArrayEquals(new byte[]{0x04, 0x00, 0x00, 0x00, (byte) 0xAA, (byte) 0xBB, (byte) 0xCC, (byte) 0xDD}, source.next());
+        assertArrayEquals(new byte[]{0x00, (byte) 0xFF, (byte) 0xF0, 0x01}, source.next());
+        assertNull(source.next());
+        assertTrue(source.isFinished());
+        source.close();
+    }
+
+    @Test
+    public void rawChunksWithPrefetchTest() throws IOException {
+        byte[] image = new byte[1000];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) i;
+        }
+        FirmwareImageSource source = FirmwareImageSource.newRawSource(new ByteArrayInputStream(image), 20, 4);
+        assertChunks(image, source);
+    }
+
+    @Test
+    public void mappedFileTest() throws IOException {
+        byte[] image = new byte[517];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) (i * 7);
+        }
+        File file = File.createTempFile("firmware", ".bin");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(image);
+        out.close();
+        assertChunks(image, FirmwareImageSource.newRawSource(file, 20, 0));
+    }
+
+    private void assertChunks(byte[] image, FirmwareImageSource source) throws IOException {
+        int offset = 0;
+        byte[] chunk;
+        while ((chunk = source.next()) != null) {
+            assertEquals(Math.min(20, image.length - offset), chunk.length);
+            for (int i = 0; i < chunk.length; i++) {
+                assertEquals(image[offset + i], chunk[i]);
+            }
+            offset += chunk.length;
+            source.recycle(chunk);
+        }
+        assertEquals(image.length, offset);
+        assertEquals(image.length, source.getBytesRead());
+        source.close();
+    }
+}
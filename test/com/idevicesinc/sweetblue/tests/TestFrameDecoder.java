@@ -0,0 +1,81 @@
+package com.idevicesinc.sweetblue.tests;
+
+
+import com.idevicesinc.sweetblue.utils.FrameAssembler;
+import com.idevicesinc.sweetblue.utils.FrameDecoder;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class TestFrameDecoder {
+
+    private static class Collector extends FrameAssembler {
+
+        final List<byte[]> frames = new ArrayList<byte[]>();
+        final List<Failure> failures = new ArrayList<Failure>();
+
+        Collector() {
+            super(DEFAULT_MAX_FRAME_SIZE);
+        }
+
+        @Override
+        protected void onFrame(byte[] frame) {
+            frames.add(frame.clone());
+            recycle(frame);
+        }
+
+        @Override
+        protected void onFailure(Failure failure, int droppedBytes, int expectedSequence, int receivedSequence) {
+            failures.add(failure);
+        }
+    }
+
+
+    @Test
+    public void lengthPrefixedTest() {
+        FrameDecoder decoder = new FrameDecoder.LengthPrefixed();
+        Collector collector = new Collector();
+        // First message's header and payload are split over two fragments, and the second message starts in the same fragment the first ends in.
+        decoder.onFragment(new byte[]{0x05}, collector);
+        decoder.onFragment(new byte[]{0x00, 1, 2, 3}, collector);
+        decoder.onFragment(new byte[]{4, 5, 0x02, 0x00, 6}, collector);
+        decoder.onFragment(new byte[]{7}, collector);
+        assertEquals(2, collector.frames.size());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, collector.frames.get(0));
+        assertArrayEquals(new byte[]{6, 7}, collector.frames.get(1));
+        assertEquals(0, collector.failures.size());
+    }
+
+    @Test
+    public void sequenceGapTest() {
+        FrameDecoder decoder = new FrameDecoder.SequenceNumbered();
+        Collector collector = new Collector();
+        decoder.onFragment(new byte[]{0x00, 1, 2}, collector);
+        decoder.onFragment(new byte[]{(byte) 0x81, 3}, collector);
+        // Fragment 2 goes missing, so everything through the next last fragment is dropped.
+        decoder.onFragment(new byte[]{0x03, 9}, collector);
+        decoder.onFragment(new byte[]{(byte) 0x84, 9}, collector);
+        decoder.onFragment(new byte[]{(byte) 0x85, 4, 5}, collector);
+        assertEquals(2, collector.frames.size());
+        assertArrayEquals(new byte[]{1, 2, 3}, collector.frames.get(0));
+        assertArrayEquals(new byte[]{4, 5}, collector.frames.get(1));
+        assertEquals(1, collector.failures.size());
+        assertEquals(FrameAssembler.Failure.SEQUENCE_GAP, collector.failures.get(0));
+    }
+
+    @Test
+    public void slipTest() {
+        FrameDecoder decoder = new FrameDecoder.Slip();
+        Collector collector = new Collector();
+        decoder.onFragment(new byte[]{(byte) 0xC0, 1, (byte) 0xDB, (byte) 0xDC}, collector);
+        decoder.onFragment(new byte[]{(byte) 0xDB, (byte) 0xDD, (byte) 0xC0, 2, (byte) 0xDB, 0x00, 3, (byte) 0xC0, 4, (byte) 0xC0}, collector);
+        assertEquals(2, collector.frames.size());
+        assertArrayEquals(new byte[]{1, (byte) 0xC0, (byte) 0xDB}, collector.frames.get(0));
+        assertArrayEquals(new byte[]{4}, collector.frames.get(1));
+        assertEquals(1, collector.failures.size());
+        assertEquals(FrameAssembler.Failure.MALFORMED, collector.failures.get(0));
+    }
+}
@@ -0,0 +1,48 @@
+package com.idevicesinc.sweetblue.tests;
+
+import com.idevicesinc.sweetblue.utils.IntervalEstimator;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class TestIntervalEstimator {
+
+    @Test
+    public void steadyIntervalTest() {
+        IntervalEstimator estimator = new IntervalEstimator();
+        assertFalse(estimator.isReady());
+        for (int i = 0; i < 20; i++) {
+            estimator.addEvent(i * 0.1);
+        }
+        assertTrue(estimator.isReady());
+        assertEquals(19, estimator.getSampleCount());
+        assertEquals(0.1, estimator.getMean(), 0.0001);
+        assertEquals(0.0, estimator.getStandardDeviation(), 0.0001);
+    }
+
+    @Test
+    public void outlierIsClampedTest() {
+        IntervalEstimator estimator = new IntervalEstimator();
+        for (int i = 0; i < 10; i++) {
+            estimator.addInterval(1.0);
+        }
+        estimator.addInterval(60.0);
+        assert estimator.getMean() < 1.5;
+    }
+
+    @Test
+    public void breakSequenceTest() {
+        IntervalEstimator estimator = new IntervalEstimator();
+        estimator.addEvent(0.0);
+        estimator.addEvent(1.0);
+        estimator.breakSequence();
+        estimator.addEvent(100.0);
+        assertEquals(1, estimator.getSampleCount());
+        assertEquals(1.0, estimator.getMean(), 0);
+        estimator.reset();
+        assertEquals(0, estimator.getSampleCount());
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.idevicesinc.sweetblue.tests;
+
+
+import com.idevicesinc.sweetblue.utils.LongKeyedMap;
+import com.idevicesinc.sweetblue.utils.Utils;
+import org.junit.Test;
+import java.util.HashMap;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class TestLongKeyedMap {
+
+
+    @Test
+    public void macAddressRoundTripTest() {
+        String mac = "0A:1B:2C:3D:4E:5F";
+        long packed = Utils.macAddressToLong(mac);
+        assertEquals(0x0A1B2C3D4E5FL, packed);
+        assertEquals(mac, Utils.longToMacAddress(packed));
+        assertEquals(packed, Utils.macAddressToLong("0a-1b-2c-3d-4e-5f"));
+        assertEquals(Utils.INVALID_MAC_ADDRESS, Utils.macAddressToLong("0A:1B:2C:3D:4E"));
+        assertEquals(Utils.INVALID_MAC_ADDRESS, Utils.macAddressToLong("0A:1B:2C:3D:4E:5G"));
+        assertEquals(Utils.INVALID_MAC_ADDRESS, Utils.macAddressToLong(null));
+    }
+
+    @Test
+    public void putGetRemoveTest() {
+        LongKeyedMap<String> map = new LongKeyedMap<String>();
+        assertNull(map.put(5, "five"));
+        assertEquals("five", map.put(5, "FIVE"));
+        assertEquals("FIVE", map.get(5));
+        assertTrue(map.containsKey(5));
+        assertEquals(1, map.size());
+        assertEquals("FIVE", map.remove(5));
+        assertFalse(map.containsKey(5));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void matchesHashMapTest() {
+        LongKeyedMap<Long> map = new LongKeyedMap<Long>(4);
+        HashMap<Long, Long> reference = new HashMap<Long, Long>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(reference.put(key, (long) i), map.put(key, (long) i));
+            } else {
+                assertEquals(reference.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        assertEquals(reference.size(), map.keys().length);
+        for (long key : map.keys()) {
+            assertEquals(reference.get(key), map.get(key));
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.idevicesinc.sweetblue.tests;
+
+
+import com.idevicesinc.sweetblue.utils.RssiFilter;
+import org.junit.Test;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class TestRssiFilter {
+
+
+    @Test
+    public void firstSampleTest() {
+        RssiFilter ema = RssiFilter.newExponentialMovingAverage(RssiFilter.DEFAULT_EMA_ALPHA);
+        RssiFilter kalman = RssiFilter.newKalman(RssiFilter.DEFAULT_KALMAN_PROCESS_NOISE, RssiFilter.DEFAULT_KALMAN_MEASUREMENT_NOISE);
+        assertFalse(ema.hasEstimate());
+        assertEquals(-60.0, ema.add(-60), 0.0);
+        assertEquals(-60.0, kalman.add(-60), 0.0);
+        assertTrue(kalman.hasEstimate());
+        kalman.reset();
+        assertFalse(kalman.hasEstimate());
+    }
+
+    @Test
+    public void noiseReductionTest() {
+        RssiFilter ema = RssiFilter.newExponentialMovingAverage(RssiFilter.DEFAULT_EMA_ALPHA);
+        RssiFilter kalman = RssiFilter.newKalman(RssiFilter.DEFAULT_KALMAN_PROCESS_NOISE, RssiFilter.DEFAULT_KALMAN_MEASUREMENT_NOISE);
+        Random random = new Random(7);
+        double rawError = 0.0, emaError = 0.0, kalmanError = 0.0;
+        for (int i = 0; i < 1000; i++) {
+            int sample = (int) Math.round(-70 + random.nextGaussian() * 4.0);
+            double e = ema.add(sample);
+            double k = kalman.add(sample);
+            if (i >= 100) {
+                rawError += Math.abs(sample + 70);
+                emaError += Math.abs(e + 70);
+                kalmanError += Math.abs(k + 70);
+            }
+        }
+        assertTrue(emaError < rawError / 2);
+        assertTrue(kalmanError < rawError / 2);
+    }
+
+}